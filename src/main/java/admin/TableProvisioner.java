@@ -0,0 +1,323 @@
+package admin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.FSUtils;
+import org.apache.hadoop.hbase.util.RegionSplitter;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+// Creates tables from a TableSpec, with the storage settings applied to each
+// column family and the table pre-split into regions. Used by the crud
+// examples and the MapReduce jobs instead of bare descriptors.
+// Run as a program it loads a sample dataset into a table created from the
+// spec in the configuration, and reports its on-disk size and read latency.
+public class TableProvisioner {
+	private static final Log LOG = LogFactory.getLog(TableProvisioner.class);
+
+	public static final String NAME = "TableProvisioner";
+
+	private final Admin admin;
+
+	/**
+	 * Creates a new provisioner.
+	 *
+	 * @param admin
+	 *            The admin to create tables with, owned by the caller.
+	 */
+	public TableProvisioner(Admin admin) {
+		this.admin = admin;
+	}
+
+	/**
+	 * Builds the table descriptor for the spec.
+	 *
+	 * @param tableName
+	 *            The name of the table.
+	 * @param spec
+	 *            The table spec.
+	 * @return The descriptor with one column family per family in the spec.
+	 */
+	public HTableDescriptor describe(TableName tableName, TableSpec spec) {
+		HTableDescriptor desc = new HTableDescriptor(tableName);
+		for (String family : spec.getFamilies()) {
+			HColumnDescriptor coldef = new HColumnDescriptor(family);
+			coldef.setDataBlockEncoding(spec.getEncoding());
+			coldef.setCompressionType(spec.getCompression());
+			coldef.setBloomFilterType(spec.getBloom());
+			coldef.setBlocksize(spec.getBlockSize());
+			coldef.setInMemory(spec.isInMemory());
+			coldef.setMaxVersions(spec.getMaxVersions());
+			desc.addFamily(coldef);
+		}
+		return desc;
+	}
+
+	/**
+	 * Creates the table if it does not exist, split as given by the spec.
+	 *
+	 * @param tableName
+	 *            The name of the table.
+	 * @param spec
+	 *            The table spec.
+	 * @return <code>true</code> if the table was created.
+	 * @throws IOException
+	 *             When creating the table fails.
+	 */
+	public boolean create(TableName tableName, TableSpec spec) throws IOException {
+		return create(tableName, spec, splitKeys(spec, null));
+	}
+
+	/**
+	 * Creates the table if it does not exist, split at the given keys.
+	 *
+	 * @param tableName
+	 *            The name of the table.
+	 * @param spec
+	 *            The table spec.
+	 * @param splits
+	 *            The split keys, <code>null</code> or empty for a single
+	 *            region.
+	 * @return <code>true</code> if the table was created.
+	 * @throws IOException
+	 *             When creating the table fails.
+	 */
+	public boolean create(TableName tableName, TableSpec spec, byte[][] splits) throws IOException {
+		if (admin.tableExists(tableName)) {
+			LOG.info("Table " + tableName + " exists, keeping its settings and regions");
+			return false;
+		}
+		int regions = splits == null ? 1 : splits.length + 1;
+		LOG.info("Creating table " + tableName + " with " + regions + " regions: " + spec);
+		if (regions == 1) {
+			admin.createTable(describe(tableName, spec));
+		} else {
+			admin.createTable(describe(tableName, spec), splits);
+		}
+		return true;
+	}
+
+	/**
+	 * Deletes the table if it exists and creates it again, split as given by
+	 * the spec.
+	 *
+	 * @param tableName
+	 *            The name of the table.
+	 * @param spec
+	 *            The table spec.
+	 * @throws IOException
+	 *             When deleting or creating the table fails.
+	 */
+	public void recreate(TableName tableName, TableSpec spec) throws IOException {
+		if (admin.tableExists(tableName)) {
+			admin.disableTable(tableName);
+			admin.deleteTable(tableName);
+		}
+		create(tableName, spec);
+	}
+
+	/**
+	 * Computes the split keys for the spec.
+	 *
+	 * @param spec
+	 *            The table spec.
+	 * @param sample
+	 *            A sample of the row keys, only used for
+	 *            {@link TableSpec.Split#SAMPLE}.
+	 * @return The split keys, empty for a single region.
+	 */
+	public static byte[][] splitKeys(TableSpec spec, List<byte[]> sample) {
+		int regions = spec.getRegions();
+		if (regions <= 1) {
+			return new byte[0][];
+		}
+		switch (spec.getSplit()) {
+		case UNIFORM:
+			return new RegionSplitter.UniformSplit().split(regions);
+		case HEX:
+			return new RegionSplitter.HexStringSplit().split(regions);
+		case BUCKETS:
+			return bucketSplits(spec.getBuckets(), regions);
+		case SAMPLE:
+			if (sample == null) {
+				throw new IllegalArgumentException("Split " + TableSpec.Split.SAMPLE + " needs a sample of the keys");
+			}
+			return sampleSplits(sample, regions);
+		default:
+			throw new IllegalArgumentException("Unknown split: " + spec.getSplit());
+		}
+	}
+
+	/**
+	 * Computes split keys on the boundaries of salt buckets, so that each
+	 * region holds whole buckets.
+	 *
+	 * @param buckets
+	 *            The number of buckets, each keyed by a one byte prefix.
+	 * @param regions
+	 *            The number of regions, at most one per bucket is used.
+	 * @return The split keys.
+	 */
+	public static byte[][] bucketSplits(int buckets, int regions) {
+		int count = Math.min(regions, buckets);
+		byte[][] splits = new byte[Math.max(count - 1, 0)][];
+		for (int i = 1; i < count; i++) {
+			splits[i - 1] = new byte[] { (byte) (i * buckets / count) };
+		}
+		return splits;
+	}
+
+	/**
+	 * Picks evenly spaced keys of the sorted sample as split points.
+	 *
+	 * @param sample
+	 *            The sampled row keys, sorted in place.
+	 * @param regions
+	 *            The number of regions.
+	 * @return The distinct split keys, may be fewer than requested.
+	 */
+	public static byte[][] sampleSplits(List<byte[]> sample, int regions) {
+		Collections.sort(sample, Bytes.BYTES_COMPARATOR);
+		List<byte[]> splits = new ArrayList<byte[]>();
+		for (int i = 1; i < regions && !sample.isEmpty(); i++) {
+			byte[] split = sample.get(i * sample.size() / regions);
+			if (splits.isEmpty() || Bytes.compareTo(splits.get(splits.size() - 1), split) < 0) {
+				splits.add(split);
+			}
+		}
+		return splits.toArray(new byte[splits.size()][]);
+	}
+
+	/**
+	 * Parse the command line parameters.
+	 *
+	 * @param args
+	 *            The parameters to parse.
+	 * @return The parsed command line.
+	 * @throws ParseException
+	 *             When the parsing of the parameters fails.
+	 */
+	private static CommandLine parseArgs(String[] args) throws ParseException {
+		Options options = new Options();
+		Option o = new Option("t", "table", true, "table to create from the spec (deleted if it exists)");
+		o.setArgName("table-name");
+		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("n", "rows", true, "number of sample rows to load (default: 100000)");
+		o.setArgName("count");
+		options.addOption(o);
+
+		o = new Option("g", "gets", true, "number of random gets to time (default: 10000)");
+		o.setArgName("count");
+		options.addOption(o);
+
+		CommandLineParser parser = new PosixParser();
+		CommandLine cmd = null;
+		try {
+			cmd = parser.parse(options, args);
+		} catch (Exception e) {
+			System.err.println("ERROR: " + e.getMessage() + "\n");
+			HelpFormatter formatter = new HelpFormatter();
+			formatter.printHelp(NAME + " ", options, true);
+			System.exit(-1);
+		}
+		return cmd;
+	}
+
+	/**
+	 * Main entry point. Creates the table from the spec given with "-D
+	 * table.spec.*" or "-conf", loads sample JSON records into data:json and
+	 * reports the size of the table directory and the latency of random gets.
+	 *
+	 * @param args
+	 *            The command line parameters.
+	 * @throws Exception
+	 *             When the test fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		Configuration conf = HBaseConfiguration.create();
+		String[] otherArgs = new GenericOptionsParser(conf, args).getRemainingArgs();
+		CommandLine cmd = parseArgs(otherArgs);
+
+		TableName tableName = TableName.valueOf(cmd.getOptionValue("t"));
+		int rows = Integer.parseInt(cmd.getOptionValue("n", "100000"));
+		int gets = Integer.parseInt(cmd.getOptionValue("g", "10000"));
+		TableSpec spec = TableSpec.fromConfiguration(conf, "data");
+		byte[] family = Bytes.toBytes("data");
+		byte[] qualifier = Bytes.toBytes("json");
+
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Admin admin = connection.getAdmin()) {
+			new TableProvisioner(admin).recreate(tableName, spec);
+
+			// Load records shaped like the ones in users.json, keyed by the
+			// MD5 hash used by ImportFromFile.
+			Random random = new Random(42);
+			List<byte[]> keys = new ArrayList<byte[]>(rows);
+			try (BufferedMutator mutator = connection.getBufferedMutator(tableName)) {
+				for (int i = 0; i < rows; i++) {
+					byte[] value = Bytes.toBytes("{\"fname\":\"First" + random.nextInt(10000) + "\",\"lname\":\"Last"
+							+ random.nextInt(10000) + "\",\"email\":\"user" + random.nextInt(rows) + "@example.com\"}");
+					byte[] rowkey = DigestUtils.md5(value);
+					keys.add(rowkey);
+					Put put = new Put(rowkey);
+					put.addColumn(family, qualifier, value);
+					mutator.mutate(put);
+				}
+			}
+
+			// Persist the memstores, so that the gets read from store files.
+			admin.flush(tableName);
+			Path tableDir = FSUtils.getTableDir(FSUtils.getRootDir(conf), tableName);
+			FileSystem fs = tableDir.getFileSystem(conf);
+			long size = fs.getContentSummary(tableDir).getLength();
+
+			long[] latencies = new long[gets];
+			try (Table table = connection.getTable(tableName)) {
+				for (int i = 0; i < gets; i++) {
+					Get get = new Get(keys.get(random.nextInt(rows)));
+					long start = System.nanoTime();
+					table.get(get);
+					latencies[i] = System.nanoTime() - start;
+				}
+			}
+			Arrays.sort(latencies);
+
+			System.out.println("Spec: " + spec);
+			System.out.println("Rows: " + rows + ", on-disk size: " + size + " bytes ("
+					+ String.format("%.1f", (double) size / rows) + " bytes/row)");
+			System.out.println(String.format("Get latency: p50 %.0f us, p99 %.0f us, max %.0f us",
+					latencies[gets / 2] / 1e3, latencies[gets * 99 / 100] / 1e3, latencies[gets - 1] / 1e3));
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package admin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+
+// Declarative description of a table: the column families with their
+// storage settings, and how the table is split into regions. A spec is
+// usually read from the configuration, so that it can be supplied as an
+// XML resource with "-conf spec.xml" or as "-D" options, e.g.
+//
+// -D table.spec.encoding=PREFIX_TREE -D table.spec.compression=SNAPPY
+// -D table.spec.regions=16 -D table.spec.split=uniform
+public class TableSpec {
+
+	public static final String CONF_ENCODING = "table.spec.encoding";
+	public static final String CONF_COMPRESSION = "table.spec.compression";
+	public static final String CONF_BLOOM = "table.spec.bloom";
+	public static final String CONF_BLOCKSIZE = "table.spec.blocksize";
+	public static final String CONF_IN_MEMORY = "table.spec.inmemory";
+	public static final String CONF_VERSIONS = "table.spec.versions";
+	public static final String CONF_REGIONS = "table.spec.regions";
+	public static final String CONF_SPLIT = "table.spec.split";
+	public static final String CONF_BUCKETS = "table.spec.buckets";
+
+	// How the split points of a pre-split table are computed.
+	public enum Split {
+		// Even ranges of raw bytes, for hashed keys such as MD5.
+		UNIFORM,
+		// Even ranges of hex strings, for hex encoded keys.
+		HEX,
+		// The boundaries of the salt buckets, one byte prefix per bucket.
+		BUCKETS,
+		// Quantiles of a sample of the keys, supplied by the caller.
+		SAMPLE
+	}
+
+	private final List<String> families = new ArrayList<String>();
+	private DataBlockEncoding encoding = DataBlockEncoding.FAST_DIFF;
+	private Compression.Algorithm compression = Compression.Algorithm.NONE;
+	private BloomType bloom = BloomType.ROW;
+	private int blockSize = 64 * 1024;
+	private boolean inMemory = false;
+	private int maxVersions = 1;
+	private int regions = 1;
+	private Split split = Split.UNIFORM;
+	private int buckets = 0;
+
+	/**
+	 * Creates a spec with the default settings: FAST_DIFF encoding, no
+	 * compression, a row bloom filter, 64 KB blocks and a single region.
+	 *
+	 * @param families
+	 *            The column families of the table.
+	 */
+	public TableSpec(String... families) {
+		this.families.addAll(Arrays.asList(families));
+	}
+
+	/**
+	 * Creates a spec from the "table.spec.*" settings of the configuration,
+	 * falling back to the defaults for missing ones.
+	 *
+	 * @param conf
+	 *            The configuration to read from.
+	 * @param families
+	 *            The column families of the table.
+	 * @return The new spec.
+	 */
+	public static TableSpec fromConfiguration(Configuration conf, String... families) {
+		TableSpec spec = new TableSpec(families);
+		spec.encoding = DataBlockEncoding.valueOf(conf.get(CONF_ENCODING, spec.encoding.name()).toUpperCase());
+		spec.compression = Compression.getCompressionAlgorithmByName(
+				conf.get(CONF_COMPRESSION, spec.compression.getName()).toLowerCase());
+		spec.bloom = BloomType.valueOf(conf.get(CONF_BLOOM, spec.bloom.name()).toUpperCase());
+		spec.blockSize = conf.getInt(CONF_BLOCKSIZE, spec.blockSize);
+		spec.inMemory = conf.getBoolean(CONF_IN_MEMORY, spec.inMemory);
+		spec.maxVersions = conf.getInt(CONF_VERSIONS, spec.maxVersions);
+		spec.regions = conf.getInt(CONF_REGIONS, spec.regions);
+		spec.split = Split.valueOf(conf.get(CONF_SPLIT, spec.split.name()).toUpperCase());
+		spec.buckets = conf.getInt(CONF_BUCKETS, spec.buckets);
+		return spec;
+	}
+
+	public List<String> getFamilies() {
+		return families;
+	}
+
+	public DataBlockEncoding getEncoding() {
+		return encoding;
+	}
+
+	public TableSpec setEncoding(DataBlockEncoding encoding) {
+		this.encoding = encoding;
+		return this;
+	}
+
+	public Compression.Algorithm getCompression() {
+		return compression;
+	}
+
+	public TableSpec setCompression(Compression.Algorithm compression) {
+		this.compression = compression;
+		return this;
+	}
+
+	public BloomType getBloom() {
+		return bloom;
+	}
+
+	public TableSpec setBloom(BloomType bloom) {
+		this.bloom = bloom;
+		return this;
+	}
+
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	public TableSpec setBlockSize(int blockSize) {
+		this.blockSize = blockSize;
+		return this;
+	}
+
+	public boolean isInMemory() {
+		return inMemory;
+	}
+
+	public TableSpec setInMemory(boolean inMemory) {
+		this.inMemory = inMemory;
+		return this;
+	}
+
+	public int getMaxVersions() {
+		return maxVersions;
+	}
+
+	public TableSpec setMaxVersions(int maxVersions) {
+		this.maxVersions = maxVersions;
+		return this;
+	}
+
+	public int getRegions() {
+		return regions;
+	}
+
+	public TableSpec setRegions(int regions) {
+		this.regions = regions;
+		return this;
+	}
+
+	public Split getSplit() {
+		return split;
+	}
+
+	public TableSpec setSplit(Split split) {
+		this.split = split;
+		return this;
+	}
+
+	public int getBuckets() {
+		return buckets;
+	}
+
+	public TableSpec setBuckets(int buckets) {
+		this.buckets = buckets;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return "families=" + families + ", encoding=" + encoding + ", compression=" + compression.getName()
+				+ ", bloom=" + bloom + ", blocksize=" + blockSize + ", inmemory=" + inMemory + ", versions="
+				+ maxVersions + ", regions=" + regions + ", split=" + split;
+	}
+}
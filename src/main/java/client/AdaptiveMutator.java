@@ -0,0 +1,177 @@
+package client;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.RegionTooBusyException;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+
+// A BufferedMutator that sizes its write buffer and flush interval from the
+// observed flushes, instead of using fixed values. A full buffer is still
+// sent in the background, its latency is the time the writer was blocked:
+//
+// - a flush faster than the target latency grows the buffer (fewer, larger
+//   RPCs) and shortens the interval (buffered data shows up sooner);
+// - a slow flush, a failed flush or server back-pressure (RegionTooBusy)
+//   shrinks the buffer and lengthens the interval, sending smaller batches
+//   less often while the servers catch up.
+//
+// Independent of the interval, a background thread flushes once the oldest
+// buffered mutation reaches the max staleness, so that a mutate() becomes
+// visible to Table.get within that bound (unless the flush fails). Without
+// an ExceptionListener, the first failure of such a flush is thrown by the
+// next mutate(), flush() or close(); no timed flush runs until then.
+public class AdaptiveMutator extends InstrumentedMutator {
+	private static final Log LOG = LogFactory.getLog(AdaptiveMutator.class);
+
+	public static final String CONF_MIN_BUFFER = "client.adaptive.buffer.min";
+	public static final String CONF_MAX_BUFFER = "client.adaptive.buffer.max";
+	public static final String CONF_TARGET_LATENCY = "client.adaptive.latency.ms";
+	public static final String CONF_MIN_INTERVAL = "client.adaptive.interval.min.ms";
+	public static final String CONF_MAX_STALENESS = "client.adaptive.staleness.ms";
+
+	private final long minBuffer;
+	private final long maxBuffer;
+	private final long targetLatencyNanos;
+	private final long minIntervalNanos;
+	private final long maxStalenessNanos;
+	private long intervalNanos;
+	private boolean pressure = false;
+	// The failure of a timed flush, not thrown to the writer yet.
+	private IOException timedFailure = null;
+
+	private final ScheduledExecutorService timer;
+
+	/**
+	 * Creates a new mutator. The bounds are read from the "client.adaptive.*"
+	 * settings of the connection's configuration.
+	 *
+	 * @param connection
+	 *            The connection to create the wrapped mutator with.
+	 * @param params
+	 *            The parameters of the mutator, the write buffer size is the
+	 *            initial size.
+	 * @param metrics
+	 *            The metrics to record the flushes in.
+	 * @throws IOException
+	 *             When creating the mutator fails.
+	 */
+	public AdaptiveMutator(Connection connection, BufferedMutatorParams params, WriteMetrics metrics)
+			throws IOException {
+		super(connection, params, metrics);
+		Configuration conf = connection.getConfiguration();
+		minBuffer = conf.getLong(CONF_MIN_BUFFER, 64 * 1024);
+		maxBuffer = conf.getLong(CONF_MAX_BUFFER, 32 * 1024 * 1024);
+		targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(conf.getLong(CONF_TARGET_LATENCY, 50));
+		minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(conf.getLong(CONF_MIN_INTERVAL, 10));
+		maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(conf.getLong(CONF_MAX_STALENESS, 1000));
+		intervalNanos = maxStalenessNanos;
+		setWriteBufferSize(Math.max(minBuffer, Math.min(maxBuffer, getWriteBufferSize())));
+
+		timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "AdaptiveMutator-" + getName());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		// The interval never exceeds the staleness bound; checking at the
+		// minimum interval overshoots it by at most that much.
+		timer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				flushIfDue();
+			}
+		}, minIntervalNanos, minIntervalNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private synchronized void flushIfDue() {
+		if (timedFailure == null && getPendingNanos() >= intervalNanos) {
+			try {
+				flush();
+			} catch (IOException e) {
+				LOG.warn("Timed flush failed", e);
+				timedFailure = e;
+			}
+		}
+	}
+
+	// Throws the failure of a timed flush, once.
+	private synchronized void throwTimedFailure() throws IOException {
+		IOException e = timedFailure;
+		timedFailure = null;
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	@Override
+	public synchronized void mutate(Mutation mutation) throws IOException {
+		throwTimedFailure();
+		super.mutate(mutation);
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		throwTimedFailure();
+		super.flush();
+	}
+
+	@Override
+	protected void failed(RetriesExhaustedWithDetailsException e) {
+		for (Throwable cause : e.getCauses()) {
+			if (cause instanceof RegionTooBusyException) {
+				pressure = true;
+			}
+		}
+	}
+
+	@Override
+	protected void flushed(long nanos, long mutations, long bytes, boolean success) throws IOException {
+		long buffer = getWriteBufferSize();
+		if (!success || pressure || nanos > targetLatencyNanos) {
+			buffer = Math.max(minBuffer, buffer / 2);
+			intervalNanos = Math.min(maxStalenessNanos, intervalNanos * 2);
+		} else if (bytes >= buffer) {
+			// Only a full buffer says something about the buffer size, a
+			// timed flush of a partial one does not.
+			buffer = Math.min(maxBuffer, buffer * 2);
+			intervalNanos = Math.max(minIntervalNanos, intervalNanos / 2);
+		} else {
+			intervalNanos = Math.max(minIntervalNanos, intervalNanos / 2);
+		}
+		pressure = false;
+		if (buffer != getWriteBufferSize() && LOG.isDebugEnabled()) {
+			LOG.debug("Write buffer " + getWriteBufferSize() + " -> " + buffer + " bytes after a flush of "
+					+ TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+		}
+		setWriteBufferSize(buffer);
+	}
+
+	/**
+	 * @return The current flush interval in milliseconds.
+	 */
+	public synchronized long getFlushInterval() {
+		return TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+	}
+
+	@Override
+	public void close() throws IOException {
+		timer.shutdownNow();
+		try {
+			throwTimedFailure();
+		} finally {
+			super.close();
+		}
+	}
+}
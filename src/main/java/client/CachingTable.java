@@ -0,0 +1,237 @@
+package client;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.hbase.client.Append;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.RowMutations;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.coprocessor.Batch;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+// A Table that answers Gets from a ResultCache and invalidates the rows it
+// writes. Like the wrapped Table it is not thread-safe: every thread wraps its
+// own Table around the cache shared by all of them. Scans, existence checks
+// and coprocessor calls are passed on uncached.
+public class CachingTable extends ForwardingTable {
+
+	private final ResultCache cache;
+
+	/**
+	 * Creates a new table.
+	 *
+	 * @param table
+	 *            The table to read and write, closed with this one.
+	 * @param cache
+	 *            The cache of the table.
+	 */
+	public CachingTable(Table table, ResultCache cache) {
+		super(table);
+		this.cache = cache;
+	}
+
+	public ResultCache getCache() {
+		return cache;
+	}
+
+	private void invalidate(List<? extends Row> rows) {
+		for (Row row : rows) {
+			if (row instanceof Mutation || row instanceof RowMutations) {
+				cache.invalidate(row.getRow());
+			}
+		}
+	}
+
+	@Override
+	public Result get(Get get) throws IOException {
+		return cache.get(get, table);
+	}
+
+	@Override
+	public Result[] get(List<Get> gets) throws IOException {
+		return cache.get(gets, table);
+	}
+
+	// The rows are invalidated after the write, also when it failed, as it
+	// may have been applied partially.
+
+	@Override
+	public void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException {
+		try {
+			table.batch(actions, results);
+		} finally {
+			invalidate(actions);
+		}
+	}
+
+	@Override
+	@Deprecated
+	public Object[] batch(List<? extends Row> actions) throws IOException, InterruptedException {
+		try {
+			return table.batch(actions);
+		} finally {
+			invalidate(actions);
+		}
+	}
+
+	@Override
+	public <R> void batchCallback(List<? extends Row> actions, Object[] results, Batch.Callback<R> callback)
+			throws IOException, InterruptedException {
+		try {
+			table.batchCallback(actions, results, callback);
+		} finally {
+			invalidate(actions);
+		}
+	}
+
+	@Override
+	@Deprecated
+	public <R> Object[] batchCallback(List<? extends Row> actions, Batch.Callback<R> callback)
+			throws IOException, InterruptedException {
+		try {
+			return table.batchCallback(actions, callback);
+		} finally {
+			invalidate(actions);
+		}
+	}
+
+	@Override
+	public void put(Put put) throws IOException {
+		try {
+			table.put(put);
+		} finally {
+			cache.invalidate(put.getRow());
+		}
+	}
+
+	@Override
+	public void put(List<Put> puts) throws IOException {
+		try {
+			table.put(puts);
+		} finally {
+			invalidate(puts);
+		}
+	}
+
+	@Override
+	public boolean checkAndPut(byte[] row, byte[] family, byte[] qualifier, byte[] value, Put put)
+			throws IOException {
+		try {
+			return table.checkAndPut(row, family, qualifier, value, put);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+
+	@Override
+	public boolean checkAndPut(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			Put put) throws IOException {
+		try {
+			return table.checkAndPut(row, family, qualifier, compareOp, value, put);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+
+	@Override
+	public void delete(Delete delete) throws IOException {
+		try {
+			table.delete(delete);
+		} finally {
+			cache.invalidate(delete.getRow());
+		}
+	}
+
+	@Override
+	public void delete(List<Delete> deletes) throws IOException {
+		try {
+			table.delete(deletes);
+		} finally {
+			invalidate(deletes);
+		}
+	}
+
+	@Override
+	public boolean checkAndDelete(byte[] row, byte[] family, byte[] qualifier, byte[] value, Delete delete)
+			throws IOException {
+		try {
+			return table.checkAndDelete(row, family, qualifier, value, delete);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+
+	@Override
+	public boolean checkAndDelete(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			Delete delete) throws IOException {
+		try {
+			return table.checkAndDelete(row, family, qualifier, compareOp, value, delete);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+
+	@Override
+	public boolean checkAndMutate(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			RowMutations mutation) throws IOException {
+		try {
+			return table.checkAndMutate(row, family, qualifier, compareOp, value, mutation);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+
+	@Override
+	public void mutateRow(RowMutations rm) throws IOException {
+		try {
+			table.mutateRow(rm);
+		} finally {
+			cache.invalidate(rm.getRow());
+		}
+	}
+
+	@Override
+	public Result append(Append append) throws IOException {
+		try {
+			return table.append(append);
+		} finally {
+			cache.invalidate(append.getRow());
+		}
+	}
+
+	@Override
+	public Result increment(Increment increment) throws IOException {
+		try {
+			return table.increment(increment);
+		} finally {
+			cache.invalidate(increment.getRow());
+		}
+	}
+
+	@Override
+	public long incrementColumnValue(byte[] row, byte[] family, byte[] qualifier, long amount) throws IOException {
+		try {
+			return table.incrementColumnValue(row, family, qualifier, amount);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+
+	@Override
+	public long incrementColumnValue(byte[] row, byte[] family, byte[] qualifier, long amount, Durability durability)
+			throws IOException {
+		try {
+			return table.incrementColumnValue(row, family, qualifier, amount, durability);
+		} finally {
+			cache.invalidate(row);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package client;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// A BufferedMutator that adds up Increments of the same row and column
+// before they are sent, so that a counter updated many times costs a single
+// Increment per flush. Up to "client.coalesce.rows" rows are kept, then the
+// Increments are passed to the wrapped mutator. Other mutations are passed on
+// directly, after the pending Increments to keep their order.
+// Only the row, columns and amounts of an Increment are kept; attributes,
+// durability and time range are not.
+public class CoalescingMutator implements BufferedMutator {
+
+	public static final String CONF_MAX_ROWS = "client.coalesce.rows";
+
+	private final BufferedMutator mutator;
+	private final int maxRows;
+
+	// row -> family -> qualifier -> amount
+	private final NavigableMap<byte[], NavigableMap<byte[], NavigableMap<byte[], long[]>>> pending =
+			new TreeMap<byte[], NavigableMap<byte[], NavigableMap<byte[], long[]>>>(Bytes.BYTES_COMPARATOR);
+	private long coalesced = 0;
+
+	/**
+	 * Creates a new mutator.
+	 *
+	 * @param mutator
+	 *            The mutator to send the mutations with, closed with this
+	 *            one.
+	 * @param maxRows
+	 *            The number of rows to keep Increments for before passing
+	 *            them on.
+	 */
+	public CoalescingMutator(BufferedMutator mutator, int maxRows) {
+		this.mutator = mutator;
+		this.maxRows = maxRows;
+	}
+
+	@Override
+	public TableName getName() {
+		return mutator.getName();
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return mutator.getConfiguration();
+	}
+
+	@Override
+	public synchronized void mutate(Mutation mutation) throws IOException {
+		if (!(mutation instanceof Increment)) {
+			sendPending();
+			mutator.mutate(mutation);
+			return;
+		}
+		NavigableMap<byte[], NavigableMap<byte[], long[]>> families = pending.get(mutation.getRow());
+		if (families == null) {
+			families = new TreeMap<byte[], NavigableMap<byte[], long[]>>(Bytes.BYTES_COMPARATOR);
+			pending.put(mutation.getRow(), families);
+		} else {
+			coalesced++;
+		}
+		for (Map.Entry<byte[], List<Cell>> family : mutation.getFamilyCellMap().entrySet()) {
+			NavigableMap<byte[], long[]> qualifiers = families.get(family.getKey());
+			if (qualifiers == null) {
+				qualifiers = new TreeMap<byte[], long[]>(Bytes.BYTES_COMPARATOR);
+				families.put(family.getKey(), qualifiers);
+			}
+			for (Cell cell : family.getValue()) {
+				byte[] qualifier = CellUtil.cloneQualifier(cell);
+				long amount = Bytes.toLong(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+				long[] sum = qualifiers.get(qualifier);
+				if (sum == null) {
+					qualifiers.put(qualifier, new long[] { amount });
+				} else {
+					sum[0] += amount;
+				}
+			}
+		}
+		if (pending.size() >= maxRows) {
+			sendPending();
+		}
+	}
+
+	@Override
+	public void mutate(List<? extends Mutation> mutations) throws IOException {
+		for (Mutation mutation : mutations) {
+			mutate(mutation);
+		}
+	}
+
+	// Passes the summed up Increments to the wrapped mutator.
+	private void sendPending() throws IOException {
+		for (Map.Entry<byte[], NavigableMap<byte[], NavigableMap<byte[], long[]>>> row : pending.entrySet()) {
+			Increment increment = new Increment(row.getKey());
+			for (Map.Entry<byte[], NavigableMap<byte[], long[]>> family : row.getValue().entrySet()) {
+				for (Map.Entry<byte[], long[]> column : family.getValue().entrySet()) {
+					increment.addColumn(family.getKey(), column.getKey(), column.getValue()[0]);
+				}
+			}
+			mutator.mutate(increment);
+		}
+		pending.clear();
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		sendPending();
+		mutator.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			sendPending();
+		} finally {
+			mutator.close();
+		}
+	}
+
+	@Override
+	public long getWriteBufferSize() {
+		return mutator.getWriteBufferSize();
+	}
+
+	/**
+	 * @return The number of Increments added to a pending one of the same
+	 *         row instead of being sent on their own.
+	 */
+	public synchronized long getCoalesced() {
+		return coalesced;
+	}
+}
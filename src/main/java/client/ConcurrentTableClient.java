@@ -0,0 +1,303 @@
+package client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.Table;
+
+// Runs blocking Table calls on a bounded executor and returns futures, so
+// that a caller can keep many more requests in flight than it has threads.
+// At most "client.concurrent.server.limit" calls run against one region
+// server at a time; further calls for that server wait in its queue without
+// holding a thread, so a slow server cannot occupy the whole executor while
+// the calls of the others are stuck behind it.
+//
+// The region of a call is located on the calling thread, which blocks only
+// when the location is not cached yet. Once the executor rejects calls, e.g.
+// after it was shut down, the waiting calls fail with the rejection.
+public class ConcurrentTableClient implements Closeable {
+
+	public static final String CONF_SERVER_LIMIT = "client.concurrent.server.limit";
+
+	// A call with the future it completes.
+	private abstract static class Task implements Runnable {
+		final CompletableFuture<?> result;
+
+		Task(CompletableFuture<?> result) {
+			this.result = result;
+		}
+	}
+
+	// The calls of one region server.
+	private static class Server {
+		int running = 0;
+		final Deque<Task> waiting = new ArrayDeque<Task>();
+	}
+
+	private final Connection connection;
+	private final TableName tableName;
+	private final ExecutorService executor;
+	private final int serverLimit;
+	private final RegionLocator locator;
+	private final ConcurrentHashMap<ServerName, Server> servers = new ConcurrentHashMap<ServerName, Server>();
+
+	/**
+	 * Creates a new client. The limit per server is read from the
+	 * connection's configuration.
+	 *
+	 * @param connection
+	 *            The connection to locate the regions and call with.
+	 * @param tableName
+	 *            The table.
+	 * @param executor
+	 *            The executor to run the calls on, shut down by the caller.
+	 * @throws IOException
+	 *             When creating the region locator fails.
+	 */
+	public ConcurrentTableClient(Connection connection, TableName tableName, ExecutorService executor)
+			throws IOException {
+		this(connection, tableName, executor, connection.getConfiguration().getInt(CONF_SERVER_LIMIT, 16));
+	}
+
+	/**
+	 * Creates a new client.
+	 *
+	 * @param connection
+	 *            The connection to locate the regions and call with.
+	 * @param tableName
+	 *            The table.
+	 * @param executor
+	 *            The executor to run the calls on, shut down by the caller.
+	 * @param serverLimit
+	 *            The number of calls to run against one region server at a
+	 *            time.
+	 * @throws IOException
+	 *             When creating the region locator fails.
+	 */
+	public ConcurrentTableClient(Connection connection, TableName tableName, ExecutorService executor,
+			int serverLimit) throws IOException {
+		this.connection = connection;
+		this.tableName = tableName;
+		this.executor = executor;
+		this.serverLimit = serverLimit;
+		this.locator = connection.getRegionLocator(tableName);
+	}
+
+	// A call against the table, run on a Table of its own as Tables are not
+	// thread-safe.
+	private interface Call<T> {
+		T call(Table table) throws IOException, InterruptedException;
+	}
+
+	private Server server(ServerName name) {
+		Server server = servers.get(name);
+		if (server == null) {
+			server = new Server();
+			Server existing = servers.putIfAbsent(name, server);
+			if (existing != null) {
+				server = existing;
+			}
+		}
+		return server;
+	}
+
+	// Runs the call once the server is below its limit.
+	private <T> CompletableFuture<T> submit(ServerName name, final Call<T> call) {
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		final Server server = server(name);
+		Task task = new Task(future) {
+			@Override
+			public void run() {
+				try (Table table = connection.getTable(tableName)) {
+					future.complete(call.call(table));
+				} catch (Exception e) {
+					future.completeExceptionally(e);
+				} finally {
+					finished(server);
+				}
+			}
+		};
+		synchronized (server) {
+			if (server.running >= serverLimit) {
+				server.waiting.add(task);
+				return future;
+			}
+			server.running++;
+		}
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+			finished(server);
+		}
+		return future;
+	}
+
+	// Starts the next waiting call of the server, if any. The calls the
+	// executor rejects fail, and the next one is tried.
+	private void finished(Server server) {
+		while (true) {
+			Task next;
+			synchronized (server) {
+				next = server.waiting.poll();
+				if (next == null) {
+					server.running--;
+					return;
+				}
+			}
+			try {
+				executor.execute(next);
+				return;
+			} catch (RejectedExecutionException e) {
+				next.result.completeExceptionally(e);
+			}
+		}
+	}
+
+	private ServerName locate(byte[] row) throws IOException {
+		return locator.getRegionLocation(row).getServerName();
+	}
+
+	private static <T> CompletableFuture<T> failed(Exception e) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(e);
+		return future;
+	}
+
+	/**
+	 * Reads a row.
+	 *
+	 * @param get
+	 *            The Get.
+	 * @return The future of the result.
+	 */
+	public CompletableFuture<Result> get(final Get get) {
+		try {
+			return submit(locate(get.getRow()), new Call<Result>() {
+				@Override
+				public Result call(Table table) throws IOException {
+					return table.get(get);
+				}
+			});
+		} catch (IOException e) {
+			return failed(e);
+		}
+	}
+
+	/**
+	 * Writes a row.
+	 *
+	 * @param put
+	 *            The Put.
+	 * @return The future completed once the Put was stored.
+	 */
+	public CompletableFuture<Void> put(final Put put) {
+		try {
+			return submit(locate(put.getRow()), new Call<Void>() {
+				@Override
+				public Void call(Table table) throws IOException {
+					table.put(put);
+					return null;
+				}
+			});
+		} catch (IOException e) {
+			return failed(e);
+		}
+	}
+
+	/**
+	 * Runs the actions, grouped by region server, each group within the
+	 * limit of its server.
+	 *
+	 * @param actions
+	 *            The Gets, Puts, Deletes etc.
+	 * @return The future of the results, in the order of the actions as
+	 *         with Table.batch. It fails if any group failed.
+	 */
+	public CompletableFuture<Object[]> batch(List<? extends Row> actions) {
+		final Object[] results = new Object[actions.size()];
+		Map<ServerName, List<Integer>> groups = new LinkedHashMap<ServerName, List<Integer>>();
+		try {
+			for (int i = 0; i < actions.size(); i++) {
+				ServerName name = locate(actions.get(i).getRow());
+				List<Integer> group = groups.get(name);
+				if (group == null) {
+					group = new ArrayList<Integer>();
+					groups.put(name, group);
+				}
+				group.add(i);
+			}
+		} catch (IOException e) {
+			return failed(e);
+		}
+
+		List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+		for (Map.Entry<ServerName, List<Integer>> entry : groups.entrySet()) {
+			final List<Integer> group = entry.getValue();
+			final List<Row> batch = new ArrayList<Row>(group.size());
+			for (int i : group) {
+				batch.add(actions.get(i));
+			}
+			futures.add(submit(entry.getKey(), new Call<Void>() {
+				@Override
+				public Void call(Table table) throws IOException, InterruptedException {
+					Object[] groupResults = new Object[batch.size()];
+					try {
+						table.batch(batch, groupResults);
+					} finally {
+						for (int j = 0; j < groupResults.length; j++) {
+							results[group.get(j)] = groupResults[j];
+						}
+					}
+					return null;
+				}
+			}));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(
+				new Function<Void, Object[]>() {
+					@Override
+					public Object[] apply(Void ignored) {
+						return results;
+					}
+				});
+	}
+
+	/**
+	 * @param name
+	 *            The region server.
+	 * @return The number of calls running or waiting for the server.
+	 */
+	public int getPending(ServerName name) {
+		Server server = servers.get(name);
+		if (server == null) {
+			return 0;
+		}
+		synchronized (server) {
+			return server.running + server.waiting.size();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		locator.close();
+	}
+}
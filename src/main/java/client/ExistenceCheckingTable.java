@@ -0,0 +1,157 @@
+package client;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Append;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.RowMutations;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.coprocessor.Batch;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+
+// A Table that answers existence checks from an ExistenceFilter: exists(),
+// existsAll() and Gets with setCheckExistenceOnly(true) only reach the
+// servers for keys the filter cannot rule out. The keys of its writes are
+// added to the filter before they are sent, so that a check running
+// concurrently with the write is never answered as absent locally. Like the
+// wrapped Table it is not thread-safe: every thread wraps its own Table around
+// the filter shared by all of them.
+public class ExistenceCheckingTable extends ForwardingTable {
+
+	private final ExistenceFilter filter;
+
+	/**
+	 * Creates a new table.
+	 *
+	 * @param table
+	 *            The table to read and write, closed with this one.
+	 * @param filter
+	 *            The filter of the table.
+	 */
+	public ExistenceCheckingTable(Table table, ExistenceFilter filter) {
+		super(table);
+		this.filter = filter;
+	}
+
+	public ExistenceFilter getFilter() {
+		return filter;
+	}
+
+	@Override
+	public boolean exists(Get get) throws IOException {
+		return filter.exists(get, table);
+	}
+
+	@Override
+	public boolean[] existsAll(List<Get> gets) throws IOException {
+		return filter.existsAll(gets, table);
+	}
+
+	@Override
+	public Result get(Get get) throws IOException {
+		if (!get.isCheckExistenceOnly()) {
+			return table.get(get);
+		}
+		return Result.create(Collections.<Cell> emptyList(), filter.exists(get, table));
+	}
+
+	@Override
+	public void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException {
+		filter.addAll(actions);
+		table.batch(actions, results);
+	}
+
+	@Override
+	@Deprecated
+	public Object[] batch(List<? extends Row> actions) throws IOException, InterruptedException {
+		filter.addAll(actions);
+		return table.batch(actions);
+	}
+
+	@Override
+	public <R> void batchCallback(List<? extends Row> actions, Object[] results, Batch.Callback<R> callback)
+			throws IOException, InterruptedException {
+		filter.addAll(actions);
+		table.batchCallback(actions, results, callback);
+	}
+
+	@Override
+	@Deprecated
+	public <R> Object[] batchCallback(List<? extends Row> actions, Batch.Callback<R> callback)
+			throws IOException, InterruptedException {
+		filter.addAll(actions);
+		return table.batchCallback(actions, callback);
+	}
+
+	@Override
+	public void put(Put put) throws IOException {
+		filter.add(put);
+		table.put(put);
+	}
+
+	@Override
+	public void put(List<Put> puts) throws IOException {
+		filter.addAll(puts);
+		table.put(puts);
+	}
+
+	@Override
+	public boolean checkAndPut(byte[] row, byte[] family, byte[] qualifier, byte[] value, Put put)
+			throws IOException {
+		filter.add(put);
+		return table.checkAndPut(row, family, qualifier, value, put);
+	}
+
+	@Override
+	public boolean checkAndPut(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			Put put) throws IOException {
+		filter.add(put);
+		return table.checkAndPut(row, family, qualifier, compareOp, value, put);
+	}
+
+	@Override
+	public boolean checkAndMutate(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			RowMutations mutation) throws IOException {
+		filter.add(mutation);
+		return table.checkAndMutate(row, family, qualifier, compareOp, value, mutation);
+	}
+
+	@Override
+	public void mutateRow(RowMutations rm) throws IOException {
+		filter.add(rm);
+		table.mutateRow(rm);
+	}
+
+	@Override
+	public Result append(Append append) throws IOException {
+		filter.add(append);
+		return table.append(append);
+	}
+
+	@Override
+	public Result increment(Increment increment) throws IOException {
+		filter.add(increment);
+		return table.increment(increment);
+	}
+
+	@Override
+	public long incrementColumnValue(byte[] row, byte[] family, byte[] qualifier, long amount) throws IOException {
+		filter.add(new Increment(row).addColumn(family, qualifier, amount));
+		return table.incrementColumnValue(row, family, qualifier, amount);
+	}
+
+	@Override
+	public long incrementColumnValue(byte[] row, byte[] family, byte[] qualifier, long amount, Durability durability)
+			throws IOException {
+		filter.add(new Increment(row).addColumn(family, qualifier, amount));
+		return table.incrementColumnValue(row, family, qualifier, amount, durability);
+	}
+}
@@ -0,0 +1,365 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Gauge;
+import com.yammer.metrics.core.MetricName;
+import com.yammer.metrics.core.MetricsRegistry;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.RowMutations;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.TableSnapshotScanner;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.util.ByteBloomFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Hash;
+
+// Answers existence checks of keys that were never written without asking
+// the region servers. Bloom filters of the row keys, and optionally of the
+// row and column pairs, are seeded from a scan or a snapshot of the table
+// and extended by the writes of the ExistenceCheckingTables using the filter.
+// A key missing from the filter is definitely absent; the others are checked
+// on the servers, and those found absent there are counted as false positives.
+//
+// Deleted keys stay in the filter, so they are checked on the servers. Writes
+// of other clients after the seed are not known, and would wrongly be
+// answered as absent: the filter suits tables written only through it, or
+// should be seeded again after such writes. Once it holds more keys than it
+// was sized for the false positive rate grows, but no key is ever dropped.
+public class ExistenceFilter {
+
+	public static final String GROUP = "ExistenceFilter";
+	public static final String CONF_BYTES = "client.exists.bytes";
+	public static final String CONF_ERROR_RATE = "client.exists.error";
+	public static final String CONF_COLUMNS = "client.exists.columns";
+
+	private final ByteBloomFilter rows;
+	// null unless the columns are tracked
+	private final ByteBloomFilter columns;
+
+	private final Counter absent;
+	private final Counter checked;
+	private final Counter falsePositives;
+
+	/**
+	 * Creates a new, empty filter.
+	 *
+	 * @param byteSize
+	 *            The memory to use for each bloom filter.
+	 * @param errorRate
+	 *            The target false positive rate, used to pick the number of
+	 *            keys the filters can hold.
+	 * @param trackColumns
+	 *            Whether to keep a second filter of the row and column pairs,
+	 *            for Gets of specific columns.
+	 * @param registry
+	 *            The registry to add the metrics to.
+	 * @param scope
+	 *            Distinguishes the metrics of several filters in the
+	 *            registry, usually the table name.
+	 */
+	public ExistenceFilter(int byteSize, double errorRate, boolean trackColumns, MetricsRegistry registry,
+			String scope) {
+		rows = ByteBloomFilter.createBySize(byteSize, errorRate, Hash.MURMUR_HASH, 0);
+		rows.allocBloom();
+		if (trackColumns) {
+			columns = ByteBloomFilter.createBySize(byteSize, errorRate, Hash.MURMUR_HASH, 0);
+			columns.allocBloom();
+		} else {
+			columns = null;
+		}
+		absent = registry.newCounter(new MetricName(GROUP, "checks", "absent", scope));
+		checked = registry.newCounter(new MetricName(GROUP, "checks", "checked", scope));
+		falsePositives = registry.newCounter(new MetricName(GROUP, "checks", "false-positives", scope));
+		registry.newGauge(new MetricName(GROUP, "checks", "false-positive-rate", scope), new Gauge<Double>() {
+			@Override
+			public Double value() {
+				return getFalsePositiveRate();
+			}
+		});
+	}
+
+	/**
+	 * Creates an empty filter with the settings from the configuration.
+	 *
+	 * @param conf
+	 *            The configuration.
+	 * @param registry
+	 *            The registry to add the metrics to.
+	 * @param scope
+	 *            Distinguishes the metrics of several filters in the
+	 *            registry, usually the table name.
+	 * @return The filter.
+	 */
+	public static ExistenceFilter create(Configuration conf, MetricsRegistry registry, String scope) {
+		return new ExistenceFilter(conf.getInt(CONF_BYTES, 16 * 1024 * 1024), conf.getFloat(CONF_ERROR_RATE, 0.01f),
+				conf.getBoolean(CONF_COLUMNS, false), registry, scope);
+	}
+
+	// The key of a column in the column filter, the lengths keep the row,
+	// family and qualifier apart.
+	private static byte[] columnKey(byte[] row, byte[] family, byte[] qualifier) {
+		return Bytes.add(Bytes.add(Bytes.toBytes((short) row.length), row), Bytes.add(
+				new byte[] { (byte) family.length }, family, qualifier));
+	}
+
+	private void addCell(Cell cell) {
+		rows.add(cell.getRowArray(), cell.getRowOffset(), cell.getRowLength());
+		if (columns != null) {
+			columns.add(columnKey(CellUtil.cloneRow(cell), CellUtil.cloneFamily(cell), CellUtil.cloneQualifier(cell)));
+		}
+	}
+
+	/**
+	 * Records the keys written by a mutation. Deletes are ignored, the keys
+	 * they remove stay in the filter.
+	 *
+	 * @param row
+	 *            A Put, Append, Increment or RowMutations; other Rows are
+	 *            ignored.
+	 */
+	public synchronized void add(Row row) {
+		if (row instanceof RowMutations) {
+			for (Mutation mutation : ((RowMutations) row).getMutations()) {
+				add(mutation);
+			}
+		} else if (row instanceof Mutation && !(row instanceof Delete)) {
+			for (List<Cell> cells : ((Mutation) row).getFamilyCellMap().values()) {
+				for (Cell cell : cells) {
+					addCell(cell);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Records the keys written by mutations.
+	 *
+	 * @param rows
+	 *            The mutations, see {@link #add(Row)}.
+	 */
+	public void addAll(List<? extends Row> rows) {
+		for (Row row : rows) {
+			add(row);
+		}
+	}
+
+	/**
+	 * Adds the keys read by a scanner.
+	 *
+	 * @param scanner
+	 *            The scanner, closed by the caller.
+	 * @return The number of rows read.
+	 * @throws IOException
+	 *             When scanning fails.
+	 */
+	public long seed(ResultScanner scanner) throws IOException {
+		long read = 0;
+		for (Result result : scanner) {
+			synchronized (this) {
+				for (Cell cell : result.rawCells()) {
+					addCell(cell);
+				}
+			}
+			read++;
+		}
+		return read;
+	}
+
+	// Only the keys are needed, have the servers drop the values, and all but
+	// the first column of each row when the columns are not tracked.
+	private Scan keyScan() {
+		Scan scan = new Scan();
+		if (columns == null) {
+			scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+		} else {
+			scan.setFilter(new KeyOnlyFilter());
+		}
+		scan.setCaching(1000);
+		scan.setCacheBlocks(false);
+		return scan;
+	}
+
+	/**
+	 * Adds the keys of all rows stored in the table.
+	 *
+	 * @param table
+	 *            The table to scan.
+	 * @return The number of rows read.
+	 * @throws IOException
+	 *             When scanning the table fails.
+	 */
+	public long seed(Table table) throws IOException {
+		try (ResultScanner scanner = table.getScanner(keyScan())) {
+			return seed(scanner);
+		}
+	}
+
+	/**
+	 * Adds the keys of all rows in a snapshot of the table, read from its
+	 * HFiles without going through the region servers.
+	 *
+	 * @param conf
+	 *            The configuration to read the snapshot with.
+	 * @param snapshot
+	 *            The name of the snapshot.
+	 * @param restoreDir
+	 *            The directory to restore the snapshot to, on the HBase
+	 *            filesystem.
+	 * @return The number of rows read.
+	 * @throws IOException
+	 *             When reading the snapshot fails.
+	 */
+	public long seed(Configuration conf, String snapshot, Path restoreDir) throws IOException {
+		try (ResultScanner scanner = new TableSnapshotScanner(conf, restoreDir, snapshot, keyScan())) {
+			return seed(scanner);
+		}
+	}
+
+	/**
+	 * Checks whether the Get may find anything, without asking the servers.
+	 *
+	 * @param get
+	 *            The Get.
+	 * @return <code>false</code> if the row, or all the columns asked for,
+	 *         were never written.
+	 */
+	public synchronized boolean mightExist(Get get) {
+		byte[] row = get.getRow();
+		if (!rows.contains(row, 0, row.length, null)) {
+			return false;
+		}
+		if (columns == null || !get.hasFamilies()) {
+			return true;
+		}
+		for (Map.Entry<byte[], NavigableSet<byte[]>> family : get.getFamilyMap().entrySet()) {
+			if (family.getValue() == null) {
+				// whole families are not tracked
+				return true;
+			}
+			for (byte[] qualifier : family.getValue()) {
+				byte[] key = columnKey(row, family.getKey(), qualifier);
+				if (columns.contains(key, 0, key.length, null)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the Get finds anything, asking the servers only if the
+	 * filter cannot rule it out.
+	 *
+	 * @param get
+	 *            The Get.
+	 * @param table
+	 *            The table to check possible hits with.
+	 * @return Whether the Get finds anything.
+	 * @throws IOException
+	 *             When checking on the servers fails.
+	 */
+	public boolean exists(Get get, Table table) throws IOException {
+		if (!mightExist(get)) {
+			absent.inc();
+			return false;
+		}
+		checked.inc();
+		boolean exists = table.exists(get);
+		if (!exists) {
+			falsePositives.inc();
+		}
+		return exists;
+	}
+
+	/**
+	 * Checks whether the Gets find anything, asking the servers in one batch
+	 * for those the filter cannot rule out.
+	 *
+	 * @param gets
+	 *            The Gets.
+	 * @param table
+	 *            The table to check possible hits with.
+	 * @return Whether each Get finds anything, in the order of the Gets.
+	 * @throws IOException
+	 *             When checking on the servers fails.
+	 */
+	public boolean[] existsAll(List<Get> gets, Table table) throws IOException {
+		boolean[] exists = new boolean[gets.size()];
+		List<Integer> possible = new ArrayList<Integer>();
+		List<Get> checks = new ArrayList<Get>();
+		for (int i = 0; i < exists.length; i++) {
+			if (mightExist(gets.get(i))) {
+				possible.add(i);
+				checks.add(gets.get(i));
+			}
+		}
+		absent.inc(exists.length - checks.size());
+		if (checks.isEmpty()) {
+			return exists;
+		}
+		checked.inc(checks.size());
+		boolean[] found = table.existsAll(checks);
+		for (int j = 0; j < found.length; j++) {
+			exists[possible.get(j)] = found[j];
+			if (!found[j]) {
+				falsePositives.inc();
+			}
+		}
+		return exists;
+	}
+
+	/**
+	 * @return The share of absent keys that were still checked on the
+	 *         servers, 0 before the first absent key.
+	 */
+	public double getFalsePositiveRate() {
+		long negatives = absent.count() + falsePositives.count();
+		return negatives == 0 ? 0 : (double) falsePositives.count() / negatives;
+	}
+
+	/**
+	 * @return The false positive rate of the row filter expected from the
+	 *         number of keys added to it.
+	 */
+	public synchronized double getExpectedFalsePositiveRate() {
+		return rows.actualErrorRate();
+	}
+
+	public long getAbsent() {
+		return absent.count();
+	}
+
+	public long getChecked() {
+		return checked.count();
+	}
+
+	public long getFalsePositives() {
+		return falsePositives.count();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("absent=%d, checked=%d, false positives=%d, false positive rate=%.4f (expected %.4f)",
+				absent.count(), checked.count(), falsePositives.count(), getFalsePositiveRate(),
+				getExpectedFalsePositiveRate());
+	}
+}
@@ -0,0 +1,243 @@
+package client;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.Descriptors.MethodDescriptor;
+import com.google.protobuf.Message;
+import com.google.protobuf.Service;
+import com.google.protobuf.ServiceException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Append;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Durability;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.client.RowMutations;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.coprocessor.Batch;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.ipc.CoprocessorRpcChannel;
+
+// A Table that passes all calls to another one, to be extended by
+// decorators that override only the calls they change.
+public class ForwardingTable implements Table {
+
+	protected final Table table;
+
+	/**
+	 * Creates a new table.
+	 *
+	 * @param table
+	 *            The table to pass the calls to, closed with this one.
+	 */
+	public ForwardingTable(Table table) {
+		this.table = table;
+	}
+
+	@Override
+	public TableName getName() {
+		return table.getName();
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return table.getConfiguration();
+	}
+
+	@Override
+	public HTableDescriptor getTableDescriptor() throws IOException {
+		return table.getTableDescriptor();
+	}
+
+	@Override
+	public boolean exists(Get get) throws IOException {
+		return table.exists(get);
+	}
+
+	@Override
+	public boolean[] existsAll(List<Get> gets) throws IOException {
+		return table.existsAll(gets);
+	}
+
+	@Override
+	public Result get(Get get) throws IOException {
+		return table.get(get);
+	}
+
+	@Override
+	public Result[] get(List<Get> gets) throws IOException {
+		return table.get(gets);
+	}
+
+	@Override
+	public ResultScanner getScanner(Scan scan) throws IOException {
+		return table.getScanner(scan);
+	}
+
+	@Override
+	public ResultScanner getScanner(byte[] family) throws IOException {
+		return table.getScanner(family);
+	}
+
+	@Override
+	public ResultScanner getScanner(byte[] family, byte[] qualifier) throws IOException {
+		return table.getScanner(family, qualifier);
+	}
+
+	@Override
+	public void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException {
+		table.batch(actions, results);
+	}
+
+	@Override
+	@Deprecated
+	public Object[] batch(List<? extends Row> actions) throws IOException, InterruptedException {
+		return table.batch(actions);
+	}
+
+	@Override
+	public <R> void batchCallback(List<? extends Row> actions, Object[] results, Batch.Callback<R> callback)
+			throws IOException, InterruptedException {
+		table.batchCallback(actions, results, callback);
+	}
+
+	@Override
+	@Deprecated
+	public <R> Object[] batchCallback(List<? extends Row> actions, Batch.Callback<R> callback)
+			throws IOException, InterruptedException {
+		return table.batchCallback(actions, callback);
+	}
+
+	@Override
+	public void put(Put put) throws IOException {
+		table.put(put);
+	}
+
+	@Override
+	public void put(List<Put> puts) throws IOException {
+		table.put(puts);
+	}
+
+	@Override
+	public boolean checkAndPut(byte[] row, byte[] family, byte[] qualifier, byte[] value, Put put)
+			throws IOException {
+		return table.checkAndPut(row, family, qualifier, value, put);
+	}
+
+	@Override
+	public boolean checkAndPut(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			Put put) throws IOException {
+		return table.checkAndPut(row, family, qualifier, compareOp, value, put);
+	}
+
+	@Override
+	public void delete(Delete delete) throws IOException {
+		table.delete(delete);
+	}
+
+	@Override
+	public void delete(List<Delete> deletes) throws IOException {
+		table.delete(deletes);
+	}
+
+	@Override
+	public boolean checkAndDelete(byte[] row, byte[] family, byte[] qualifier, byte[] value, Delete delete)
+			throws IOException {
+		return table.checkAndDelete(row, family, qualifier, value, delete);
+	}
+
+	@Override
+	public boolean checkAndDelete(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			Delete delete) throws IOException {
+		return table.checkAndDelete(row, family, qualifier, compareOp, value, delete);
+	}
+
+	@Override
+	public boolean checkAndMutate(byte[] row, byte[] family, byte[] qualifier, CompareOp compareOp, byte[] value,
+			RowMutations mutation) throws IOException {
+		return table.checkAndMutate(row, family, qualifier, compareOp, value, mutation);
+	}
+
+	@Override
+	public void mutateRow(RowMutations rm) throws IOException {
+		table.mutateRow(rm);
+	}
+
+	@Override
+	public Result append(Append append) throws IOException {
+		return table.append(append);
+	}
+
+	@Override
+	public Result increment(Increment increment) throws IOException {
+		return table.increment(increment);
+	}
+
+	@Override
+	public long incrementColumnValue(byte[] row, byte[] family, byte[] qualifier, long amount) throws IOException {
+		return table.incrementColumnValue(row, family, qualifier, amount);
+	}
+
+	@Override
+	public long incrementColumnValue(byte[] row, byte[] family, byte[] qualifier, long amount, Durability durability)
+			throws IOException {
+		return table.incrementColumnValue(row, family, qualifier, amount, durability);
+	}
+
+	@Override
+	public void close() throws IOException {
+		table.close();
+	}
+
+	@Override
+	public CoprocessorRpcChannel coprocessorService(byte[] row) {
+		return table.coprocessorService(row);
+	}
+
+	@Override
+	public <T extends Service, R> Map<byte[], R> coprocessorService(Class<T> service, byte[] startKey, byte[] endKey,
+			Batch.Call<T, R> callable) throws ServiceException, Throwable {
+		return table.coprocessorService(service, startKey, endKey, callable);
+	}
+
+	@Override
+	public <T extends Service, R> void coprocessorService(Class<T> service, byte[] startKey, byte[] endKey,
+			Batch.Call<T, R> callable, Batch.Callback<R> callback) throws ServiceException, Throwable {
+		table.coprocessorService(service, startKey, endKey, callable, callback);
+	}
+
+	@Override
+	@Deprecated
+	public long getWriteBufferSize() {
+		return table.getWriteBufferSize();
+	}
+
+	@Override
+	@Deprecated
+	public void setWriteBufferSize(long writeBufferSize) throws IOException {
+		table.setWriteBufferSize(writeBufferSize);
+	}
+
+	@Override
+	public <R extends Message> Map<byte[], R> batchCoprocessorService(MethodDescriptor methodDescriptor,
+			Message request, byte[] startKey, byte[] endKey, R responsePrototype) throws ServiceException, Throwable {
+		return table.batchCoprocessorService(methodDescriptor, request, startKey, endKey, responsePrototype);
+	}
+
+	@Override
+	public <R extends Message> void batchCoprocessorService(MethodDescriptor methodDescriptor, Message request,
+			byte[] startKey, byte[] endKey, R responsePrototype, Batch.Callback<R> callback)
+			throws ServiceException, Throwable {
+		table.batchCoprocessorService(methodDescriptor, request, startKey, endKey, responsePrototype, callback);
+	}
+}
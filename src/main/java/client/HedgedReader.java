@@ -0,0 +1,254 @@
+package client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Histogram;
+import com.yammer.metrics.core.MetricName;
+import com.yammer.metrics.core.MetricsRegistry;
+import com.yammer.metrics.core.Timer;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Consistency;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+
+// Reads rows of a table with region replicas so that a slow primary (GC
+// pause, compaction) does not set the tail latency. A Get is sent to the
+// primary first; if it has not answered within the configured percentile of
+// the recent primary latencies, or has failed, the same Get is sent to the
+// secondary replicas with Consistency.TIMELINE, and the first answer wins.
+// Answers of a secondary may miss the latest writes and are marked with
+// Result.isStale().
+//
+// The hedge delay follows the observed latencies, so only about
+// (1 - "client.hedge.percentile") of the reads are hedged, which bounds the
+// extra load on the servers. Until enough latencies are known the delay is
+// "client.hedge.initial.ms". On a table without replicas the Gets are only
+// sent to the primary.
+public class HedgedReader {
+
+	public static final String GROUP = "HedgedReader";
+	public static final String CONF_PERCENTILE = "client.hedge.percentile";
+	public static final String CONF_INITIAL_DELAY = "client.hedge.initial.ms";
+	public static final String CONF_MIN_DELAY = "client.hedge.min.ms";
+
+	// The number of primary latencies needed before the percentile is used.
+	private static final int MIN_SAMPLES = 100;
+
+	private final Connection connection;
+	private final TableName tableName;
+	private final ExecutorService executor;
+	private final int replicas;
+	private final double percentile;
+	private final long initialDelayMicros;
+	private final long minDelayMicros;
+
+	private final Histogram primaryLatency;
+	private final Timer latency;
+	private final Counter hedged;
+	private final Counter stale;
+
+	/**
+	 * Creates a new reader. The hedging settings are read from the
+	 * connection's configuration, the number of replicas from the table.
+	 *
+	 * @param connection
+	 *            The connection to read with.
+	 * @param tableName
+	 *            The table.
+	 * @param executor
+	 *            The executor to send the Gets on, it needs a thread for
+	 *            every replica of the reads in flight.
+	 * @param registry
+	 *            The registry to add the metrics to.
+	 * @throws IOException
+	 *             When reading the table descriptor fails.
+	 */
+	public HedgedReader(Connection connection, TableName tableName, ExecutorService executor,
+			MetricsRegistry registry) throws IOException {
+		this.connection = connection;
+		this.tableName = tableName;
+		this.executor = executor;
+		try (Table table = connection.getTable(tableName)) {
+			this.replicas = table.getTableDescriptor().getRegionReplication();
+		}
+		Configuration conf = connection.getConfiguration();
+		this.percentile = conf.getFloat(CONF_PERCENTILE, 0.95f);
+		this.initialDelayMicros = TimeUnit.MILLISECONDS.toMicros(conf.getLong(CONF_INITIAL_DELAY, 10));
+		this.minDelayMicros = TimeUnit.MILLISECONDS.toMicros(conf.getLong(CONF_MIN_DELAY, 1));
+
+		String scope = tableName.getNameAsString();
+		primaryLatency = registry.newHistogram(new MetricName(GROUP, "reads", "primary-latency-us", scope), true);
+		latency = registry.newTimer(new MetricName(GROUP, "reads", "latency", scope), TimeUnit.MILLISECONDS,
+				TimeUnit.SECONDS);
+		hedged = registry.newCounter(new MetricName(GROUP, "reads", "hedged", scope));
+		stale = registry.newCounter(new MetricName(GROUP, "reads", "stale", scope));
+	}
+
+	/**
+	 * @return The time to wait for the primary before hedging, in
+	 *         microseconds.
+	 */
+	public long getHedgeDelayMicros() {
+		if (primaryLatency.count() < MIN_SAMPLES) {
+			return initialDelayMicros;
+		}
+		return Math.max(minDelayMicros, (long) primaryLatency.getSnapshot().getValue(percentile));
+	}
+
+	// Sends the Get to one replica on the executor.
+	private CompletableFuture<Result> send(final Get get) {
+		final CompletableFuture<Result> future = new CompletableFuture<Result>();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					// Tables are lightweight and not thread-safe, one per Get.
+					try (Table table = connection.getTable(tableName)) {
+						future.complete(table.get(get));
+					} catch (IOException | RuntimeException e) {
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	// A future of the first successful answer, failed only when all failed.
+	private static CompletableFuture<Result> first(List<CompletableFuture<Result>> futures) {
+		final CompletableFuture<Result> first = new CompletableFuture<Result>();
+		final AtomicInteger remaining = new AtomicInteger(futures.size());
+		for (CompletableFuture<Result> future : futures) {
+			future.whenComplete(new BiConsumer<Result, Throwable>() {
+				@Override
+				public void accept(Result result, Throwable error) {
+					if (error == null) {
+						first.complete(result);
+					} else if (remaining.decrementAndGet() == 0) {
+						first.completeExceptionally(error);
+					}
+				}
+			});
+		}
+		return first;
+	}
+
+	// Sends the Get to the secondary replicas, the answer of the primary still
+	// counts if it comes first.
+	private CompletableFuture<Result> hedge(Get get, CompletableFuture<Result> primary) {
+		hedged.inc();
+		List<CompletableFuture<Result>> futures = new ArrayList<CompletableFuture<Result>>(replicas);
+		futures.add(primary);
+		for (int replica = 1; replica < replicas; replica++) {
+			Get secondaryGet = new Get(get);
+			secondaryGet.setConsistency(Consistency.TIMELINE);
+			secondaryGet.setReplicaId(replica);
+			futures.add(send(secondaryGet));
+		}
+		return first(futures);
+	}
+
+	/**
+	 * Reads a row, hedging with the secondary replicas when the primary is
+	 * slow or failed.
+	 *
+	 * @param get
+	 *            The Get, its consistency and replica id are ignored.
+	 * @return The result, marked stale if it came from a secondary.
+	 * @throws IOException
+	 *             When all replicas failed, or when interrupted.
+	 */
+	public Result get(Get get) throws IOException {
+		final long start = System.nanoTime();
+		Get primaryGet = new Get(get);
+		primaryGet.setConsistency(Consistency.STRONG);
+		primaryGet.setReplicaId(0);
+		CompletableFuture<Result> primary = send(primaryGet);
+		// The primary latency is recorded also when a secondary answered
+		// first, so that the delay is not biased towards fast reads.
+		primary.whenComplete(new BiConsumer<Result, Throwable>() {
+			@Override
+			public void accept(Result result, Throwable error) {
+				if (error == null) {
+					primaryLatency.update(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+				}
+			}
+		});
+
+		Result result;
+		try {
+			if (replicas > 1) {
+				try {
+					result = primary.get(getHedgeDelayMicros(), TimeUnit.MICROSECONDS);
+				} catch (TimeoutException | ExecutionException e) {
+					// A primary that failed within the delay (server down,
+					// region moving) is hedged as well as a slow one.
+					result = hedge(get, primary).get();
+				}
+			} else {
+				result = primary.get();
+			}
+		} catch (InterruptedException e) {
+			throw (IOException) new InterruptedIOException("Interrupted while reading " + tableName).initCause(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+		latency.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		if (result.isStale()) {
+			stale.inc();
+		}
+		return result;
+	}
+
+	/**
+	 * @return The primary latencies in microseconds.
+	 */
+	public Histogram getPrimaryLatency() {
+		return primaryLatency;
+	}
+
+	/**
+	 * @return The latencies of the reads, hedged or not.
+	 */
+	public Timer getLatency() {
+		return latency;
+	}
+
+	public long getHedged() {
+		return hedged.count();
+	}
+
+	public long getStale() {
+		return stale.count();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"reads=%d, ms p50=%.2f p99=%.2f p99.9=%.2f max=%.2f, hedged=%d, stale=%d, hedge delay=%d us",
+				latency.count(), latency.getSnapshot().getMedian(), latency.getSnapshot().get99thPercentile(),
+				latency.getSnapshot().get999thPercentile(), latency.max(), hedged.count(), stale.count(),
+				getHedgeDelayMicros());
+	}
+}
@@ -0,0 +1,235 @@
+package client;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorImpl;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+
+// A BufferedMutator that records WriteMetrics for every flush. The wrapped
+// mutator keeps its own write buffer size and sends a full buffer in the
+// background as usual; this class mirrors its size accounting to tell when
+// that happens, so that each batch can be attributed to the region servers
+// it went to. The latency of a background batch is the time the writer was
+// blocked sending it, which stays near zero until the client throttles the
+// writer because too many earlier batches are still in flight. An explicit
+// flush() is timed until all buffered mutations are stored.
+public class InstrumentedMutator implements BufferedMutator {
+
+	private final BufferedMutator mutator;
+	private final RegionLocator locator;
+	private final WriteMetrics metrics;
+	private long writeBufferSize;
+
+	// The mutations buffered since the last flush.
+	private long pendingSince = 0;
+	private long pendingMutations = 0;
+	private long pendingBytes = 0;
+	private final Map<String, Long> pendingServerBytes = new HashMap<String, Long>();
+
+	/**
+	 * Creates a new mutator.
+	 *
+	 * @param connection
+	 *            The connection to create the wrapped mutator with.
+	 * @param params
+	 *            The parameters of the mutator, passed on to the wrapped
+	 *            mutator.
+	 * @param metrics
+	 *            The metrics to record the flushes in.
+	 * @throws IOException
+	 *             When creating the mutator fails.
+	 */
+	public InstrumentedMutator(Connection connection, BufferedMutatorParams params, WriteMetrics metrics)
+			throws IOException {
+		this.metrics = metrics;
+
+		final ExceptionListener listener = params.getListener();
+		BufferedMutatorParams wrapped = new BufferedMutatorParams(params.getTableName())
+				.listener(new ExceptionListener() {
+					@Override
+					public void onException(RetriesExhaustedWithDetailsException e, BufferedMutator mutator)
+							throws RetriesExhaustedWithDetailsException {
+						InstrumentedMutator.this.metrics.failed(e.getNumExceptions());
+						failed(e);
+						if (listener != null) {
+							listener.onException(e, mutator);
+						} else {
+							throw e;
+						}
+					}
+				});
+		if (params.getWriteBufferSize() > 0) {
+			wrapped.writeBufferSize(params.getWriteBufferSize());
+		}
+		if (params.getMaxKeyValueSize() > 0) {
+			wrapped.maxKeyValueSize(params.getMaxKeyValueSize());
+		}
+		if (params.getPool() != null) {
+			wrapped.pool(params.getPool());
+		}
+		this.mutator = connection.getBufferedMutator(wrapped);
+		this.writeBufferSize = mutator.getWriteBufferSize();
+		this.locator = connection.getRegionLocator(params.getTableName());
+	}
+
+	@Override
+	public TableName getName() {
+		return mutator.getName();
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return mutator.getConfiguration();
+	}
+
+	@Override
+	public synchronized void mutate(Mutation mutation) throws IOException {
+		long size = mutation.heapSize();
+		// The location is served from the connection's region cache.
+		String server = locator.getRegionLocation(mutation.getRow()).getHostnamePort();
+
+		if (pendingMutations == 0) {
+			pendingSince = System.nanoTime();
+		}
+		pendingMutations++;
+		pendingBytes += size;
+		Long bytes = pendingServerBytes.get(server);
+		pendingServerBytes.put(server, bytes == null ? size : bytes + size);
+
+		if (pendingBytes <= writeBufferSize) {
+			mutator.mutate(mutation);
+			return;
+		}
+		// The wrapped mutator sends its buffer in the background now, it
+		// only blocks while too many earlier batches are in flight.
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			mutator.mutate(mutation);
+			success = true;
+		} finally {
+			sent(System.nanoTime() - start, success);
+		}
+	}
+
+	@Override
+	public void mutate(List<? extends Mutation> mutations) throws IOException {
+		for (Mutation mutation : mutations) {
+			mutate(mutation);
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		if (pendingMutations == 0) {
+			return;
+		}
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			mutator.flush();
+			success = true;
+		} finally {
+			sent(System.nanoTime() - start, success);
+		}
+	}
+
+	// Records the buffered mutations as one batch and starts a new one.
+	private void sent(long nanos, boolean success) throws IOException {
+		long mutations = pendingMutations;
+		long bytes = pendingBytes;
+		metrics.flushed(nanos, mutations, bytes);
+		for (Map.Entry<String, Long> entry : pendingServerBytes.entrySet()) {
+			metrics.sent(entry.getKey(), entry.getValue());
+		}
+		pendingMutations = 0;
+		pendingBytes = 0;
+		pendingServerBytes.clear();
+		flushed(nanos, mutations, bytes, success);
+	}
+
+	/**
+	 * Called after every flush, with the lock of the mutator held.
+	 *
+	 * @param nanos
+	 *            The time the writer was blocked by the flush.
+	 * @param mutations
+	 *            The number of mutations flushed.
+	 * @param bytes
+	 *            The estimated size of the mutations.
+	 * @param success
+	 *            <code>false</code> if the flush threw an exception.
+	 * @throws IOException
+	 *             When acting on the flush fails.
+	 */
+	protected void flushed(long nanos, long mutations, long bytes, boolean success) throws IOException {
+	}
+
+	/**
+	 * Called when mutations failed after all retries, before the exception
+	 * is passed on to the listener.
+	 *
+	 * @param e
+	 *            The exception with the failed mutations and their causes.
+	 */
+	protected void failed(RetriesExhaustedWithDetailsException e) {
+	}
+
+	/**
+	 * @return How long the oldest buffered mutation has been waiting, 0 if
+	 *         the buffer is empty.
+	 */
+	protected synchronized long getPendingNanos() {
+		return pendingMutations == 0 ? 0 : System.nanoTime() - pendingSince;
+	}
+
+	/**
+	 * Changes the size at which the buffered mutations are flushed.
+	 *
+	 * @param writeBufferSize
+	 *            The new size in bytes.
+	 * @throws IOException
+	 *             When the wrapped mutator flushes the mutations above the
+	 *             smaller size and that fails.
+	 */
+	@SuppressWarnings("deprecation")
+	protected synchronized void setWriteBufferSize(long writeBufferSize) throws IOException {
+		// The size cannot be changed through the BufferedMutator interface.
+		if (mutator instanceof BufferedMutatorImpl) {
+			((BufferedMutatorImpl) mutator).setWriteBufferSize(writeBufferSize);
+		}
+		this.writeBufferSize = writeBufferSize;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			try {
+				mutator.close();
+			} finally {
+				locator.close();
+			}
+		}
+	}
+
+	@Override
+	public synchronized long getWriteBufferSize() {
+		return writeBufferSize;
+	}
+
+	public WriteMetrics getMetrics() {
+		return metrics;
+	}
+}
@@ -0,0 +1,173 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+
+// A multi-get that does not wait for the slowest server. Table.get(List)
+// returns only once every region has answered; here the Gets are grouped by
+// the region server hosting their row, each group is sent as its own batch on
+// the executor, and every Get gets a future completed as soon as its group
+// returns. The caller can wait for all of them, or for a while and use the
+// results that have arrived by then.
+//
+// A failed group fails the futures of its Gets only. Groups still running
+// after a timeout are not cancelled, their results are dropped.
+public class ParallelMultiGet {
+
+	private final Connection connection;
+	private final TableName tableName;
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new multi-get.
+	 *
+	 * @param connection
+	 *            The connection to locate the regions and read with.
+	 * @param tableName
+	 *            The table to read.
+	 * @param executor
+	 *            The executor to send the groups on, its number of threads
+	 *            bounds the servers read from concurrently.
+	 */
+	public ParallelMultiGet(Connection connection, TableName tableName, ExecutorService executor) {
+		this.connection = connection;
+		this.tableName = tableName;
+		this.executor = executor;
+	}
+
+	// The futures of one multi-get, in the order of the Gets.
+	public static class Results {
+		private final List<CompletableFuture<Result>> futures;
+		private final CompletableFuture<Void> all;
+
+		Results(List<CompletableFuture<Result>> futures) {
+			this.futures = Collections.unmodifiableList(futures);
+			this.all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}
+
+		/**
+		 * @return The future of each Get, in the order of the Gets.
+		 */
+		public List<CompletableFuture<Result>> getFutures() {
+			return futures;
+		}
+
+		/**
+		 * @return A future completed when all Gets have completed, failed if
+		 *         any of them failed.
+		 */
+		public CompletableFuture<Void> all() {
+			return all;
+		}
+
+		/**
+		 * Waits for the results until all have arrived or the timeout passed.
+		 *
+		 * @param timeout
+		 *            The longest time to wait.
+		 * @param unit
+		 *            The unit of the timeout.
+		 * @return The result of each Get, in the order of the Gets;
+		 *         <code>null</code> for a Get that has not completed in time
+		 *         or failed.
+		 * @throws InterruptedException
+		 *             When interrupted while waiting.
+		 */
+		public Result[] await(long timeout, TimeUnit unit) throws InterruptedException {
+			try {
+				all.get(timeout, unit);
+			} catch (ExecutionException | TimeoutException e) {
+				// use what has arrived
+			}
+			Result[] results = new Result[futures.size()];
+			for (int i = 0; i < results.length; i++) {
+				CompletableFuture<Result> future = futures.get(i);
+				if (future.isDone() && !future.isCompletedExceptionally()) {
+					results[i] = future.getNow(null);
+				}
+			}
+			return results;
+		}
+	}
+
+	/**
+	 * Sends the Gets, grouped by region server, without waiting for them.
+	 *
+	 * @param gets
+	 *            The Gets.
+	 * @return The futures of the results.
+	 * @throws IOException
+	 *             When locating the regions fails.
+	 */
+	public Results get(List<Get> gets) throws IOException {
+		List<CompletableFuture<Result>> futures = new ArrayList<CompletableFuture<Result>>(gets.size());
+		Map<ServerName, List<Integer>> groups = new LinkedHashMap<ServerName, List<Integer>>();
+		try (RegionLocator locator = connection.getRegionLocator(tableName)) {
+			for (int i = 0; i < gets.size(); i++) {
+				futures.add(new CompletableFuture<Result>());
+				HRegionLocation location = locator.getRegionLocation(gets.get(i).getRow());
+				List<Integer> group = groups.get(location.getServerName());
+				if (group == null) {
+					group = new ArrayList<Integer>();
+					groups.put(location.getServerName(), group);
+				}
+				group.add(i);
+			}
+		}
+		for (List<Integer> group : groups.values()) {
+			send(gets, group, futures);
+		}
+		return new Results(futures);
+	}
+
+	// Reads the Gets at the given indexes as one batch on the executor and
+	// completes their futures.
+	private void send(final List<Get> gets, final List<Integer> group, final List<CompletableFuture<Result>> futures) {
+		final List<Get> batch = new ArrayList<Get>(group.size());
+		for (int i : group) {
+			batch.add(gets.get(i));
+		}
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				// Tables are lightweight and not thread-safe, one per batch.
+				try (Table table = connection.getTable(tableName)) {
+					Result[] results = table.get(batch);
+					for (int j = 0; j < results.length; j++) {
+						futures.get(group.get(j)).complete(results[j]);
+					}
+				} catch (IOException | RuntimeException e) {
+					for (int i : group) {
+						futures.get(i).completeExceptionally(e);
+					}
+				}
+			}
+		};
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			for (int i : group) {
+				futures.get(i).completeExceptionally(e);
+			}
+		}
+	}
+}
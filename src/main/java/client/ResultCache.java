@@ -0,0 +1,289 @@
+package client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Gauge;
+import com.yammer.metrics.core.MetricName;
+import com.yammer.metrics.core.MetricsRegistry;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Consistency;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+
+// A read-through cache of Get results for one table, shared by the
+// CachingTables of all threads. The entries are kept per row, each holding
+// the Results of the column sets and max versions read from that row, so
+// that a write to the row drops all of them at once. Up to "client.cache.rows"
+// rows are kept, the least recently used are evicted first, and a row expires
+// "client.cache.ttl.ms" after it was first cached.
+//
+// Writes through a CachingTable invalidate their rows once they completed; a
+// read racing with the write only stores its Result if the row has not been
+// invalidated meanwhile. Writes of other clients are only seen after the TTL.
+// Only plain Gets are cached: no filter, time range, row offset, limit per
+// family, existence check or timeline consistency.
+public class ResultCache {
+
+	public static final String GROUP = "ResultCache";
+	public static final String CONF_MAX_ROWS = "client.cache.rows";
+	public static final String CONF_TTL = "client.cache.ttl.ms";
+
+	// The cached Results of a row by column set.
+	private static class Row {
+		final ConcurrentMap<ByteBuffer, Result> results = new ConcurrentHashMap<ByteBuffer, Result>();
+	}
+
+	private final Cache<ByteBuffer, Row> rows;
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter bypassed;
+	private final Counter invalidations;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param maxRows
+	 *            The number of rows to keep.
+	 * @param ttlMillis
+	 *            The time after which a cached row expires.
+	 * @param registry
+	 *            The registry to add the metrics to.
+	 * @param scope
+	 *            Distinguishes the metrics of several caches in the
+	 *            registry, usually the table name.
+	 */
+	public ResultCache(long maxRows, long ttlMillis, MetricsRegistry registry, String scope) {
+		rows = CacheBuilder.newBuilder().maximumSize(maxRows).expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+				.build();
+		hits = registry.newCounter(new MetricName(GROUP, "reads", "hits", scope));
+		misses = registry.newCounter(new MetricName(GROUP, "reads", "misses", scope));
+		bypassed = registry.newCounter(new MetricName(GROUP, "reads", "bypassed", scope));
+		invalidations = registry.newCounter(new MetricName(GROUP, "writes", "invalidations", scope));
+		registry.newGauge(new MetricName(GROUP, "reads", "hit-rate", scope), new Gauge<Double>() {
+			@Override
+			public Double value() {
+				return getHitRate();
+			}
+		});
+	}
+
+	/**
+	 * Creates an empty cache with the bounds from the configuration.
+	 *
+	 * @param conf
+	 *            The configuration.
+	 * @param registry
+	 *            The registry to add the metrics to.
+	 * @param scope
+	 *            Distinguishes the metrics of several caches in the
+	 *            registry, usually the table name.
+	 * @return The cache.
+	 */
+	public static ResultCache create(Configuration conf, MetricsRegistry registry, String scope) {
+		return new ResultCache(conf.getLong(CONF_MAX_ROWS, 100000), conf.getLong(CONF_TTL, 60000), registry, scope);
+	}
+
+	/**
+	 * @return Whether the result of the Get can be cached.
+	 */
+	public static boolean isCacheable(Get get) {
+		return get.getFilter() == null && get.getTimeRange().isAllTime() && !get.isCheckExistenceOnly()
+				&& get.getConsistency() == Consistency.STRONG && get.getMaxResultsPerColumnFamily() < 0
+				&& get.getRowOffsetPerColumnFamily() == 0;
+	}
+
+	// The column set and max versions of a Get, the families and qualifiers
+	// are already sorted.
+	private static ByteBuffer columns(Get get) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(get.getMaxVersions());
+			for (Map.Entry<byte[], NavigableSet<byte[]>> family : get.getFamilyMap().entrySet()) {
+				out.writeInt(family.getKey().length);
+				out.write(family.getKey());
+				if (family.getValue() == null) {
+					out.writeInt(-1);
+					continue;
+				}
+				out.writeInt(family.getValue().size());
+				for (byte[] qualifier : family.getValue()) {
+					out.writeInt(qualifier.length);
+					out.write(qualifier);
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}
+
+	private Row row(ByteBuffer key) {
+		Row row = new Row();
+		Row existing = rows.asMap().putIfAbsent(key, row);
+		return existing != null ? existing : row;
+	}
+
+	// Keeps the Result unless the row was invalidated since it was read.
+	private void store(ByteBuffer key, Row row, ByteBuffer columns, Result result) {
+		if (rows.getIfPresent(key) == row) {
+			row.results.put(columns, result);
+		}
+	}
+
+	/**
+	 * Returns the cached result of the Get, reading it from the table if it
+	 * is not cached.
+	 *
+	 * @param get
+	 *            The Get.
+	 * @param table
+	 *            The table to read misses from.
+	 * @return The result.
+	 * @throws IOException
+	 *             When reading from the table fails.
+	 */
+	public Result get(Get get, Table table) throws IOException {
+		if (!isCacheable(get)) {
+			bypassed.inc();
+			return table.get(get);
+		}
+		ByteBuffer key = ByteBuffer.wrap(get.getRow());
+		ByteBuffer columns = columns(get);
+		Row row = row(key);
+		Result result = row.results.get(columns);
+		if (result != null) {
+			hits.inc();
+			return result;
+		}
+		misses.inc();
+		result = table.get(get);
+		store(key, row, columns, result);
+		return result;
+	}
+
+	/**
+	 * Returns the cached results of the Gets, reading the others from the
+	 * table in one batch.
+	 *
+	 * @param gets
+	 *            The Gets.
+	 * @param table
+	 *            The table to read misses from.
+	 * @return The results, in the order of the Gets.
+	 * @throws IOException
+	 *             When reading from the table fails.
+	 */
+	public Result[] get(List<Get> gets, Table table) throws IOException {
+		Result[] results = new Result[gets.size()];
+		List<Integer> missed = new ArrayList<Integer>();
+		ByteBuffer[] keys = new ByteBuffer[results.length];
+		ByteBuffer[] columns = new ByteBuffer[results.length];
+		Row[] missedRows = new Row[results.length];
+		for (int i = 0; i < results.length; i++) {
+			Get get = gets.get(i);
+			if (!isCacheable(get)) {
+				bypassed.inc();
+				missed.add(i);
+				continue;
+			}
+			keys[i] = ByteBuffer.wrap(get.getRow());
+			columns[i] = columns(get);
+			Row row = row(keys[i]);
+			results[i] = row.results.get(columns[i]);
+			if (results[i] != null) {
+				hits.inc();
+			} else {
+				misses.inc();
+				missedRows[i] = row;
+				missed.add(i);
+			}
+		}
+		if (missed.isEmpty()) {
+			return results;
+		}
+		List<Get> reads = new ArrayList<Get>(missed.size());
+		for (int i : missed) {
+			reads.add(gets.get(i));
+		}
+		Result[] read = table.get(reads);
+		for (int j = 0; j < read.length; j++) {
+			int i = missed.get(j);
+			results[i] = read[j];
+			if (missedRows[i] != null) {
+				store(keys[i], missedRows[i], columns[i], read[j]);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Drops the cached results of a row.
+	 *
+	 * @param row
+	 *            The row key.
+	 */
+	public void invalidate(byte[] row) {
+		rows.invalidate(ByteBuffer.wrap(row));
+		invalidations.inc();
+	}
+
+	/**
+	 * Drops all cached results.
+	 */
+	public void invalidateAll() {
+		rows.invalidateAll();
+	}
+
+	/**
+	 * @return The share of cacheable Gets answered from the cache, 0 before
+	 *         the first one.
+	 */
+	public double getHitRate() {
+		long total = hits.count() + misses.count();
+		return total == 0 ? 0 : (double) hits.count() / total;
+	}
+
+	public long getHits() {
+		return hits.count();
+	}
+
+	public long getMisses() {
+		return misses.count();
+	}
+
+	public long getBypassed() {
+		return bypassed.count();
+	}
+
+	public long getInvalidations() {
+		return invalidations.count();
+	}
+
+	/**
+	 * @return The number of cached rows.
+	 */
+	public long size() {
+		return rows.size();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("rows=%d, hits=%d, misses=%d, hit rate=%.3f, bypassed=%d, invalidations=%d", size(),
+				hits.count(), misses.count(), getHitRate(), bypassed.count(), invalidations.count());
+	}
+}
@@ -0,0 +1,237 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.yammer.metrics.core.Counter;
+import com.yammer.metrics.core.Histogram;
+import com.yammer.metrics.core.MetricName;
+import com.yammer.metrics.core.MetricsRegistry;
+import com.yammer.metrics.core.Timer;
+import com.yammer.metrics.reporting.JmxReporter;
+
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+// Metrics of the client write path: flush latency, batch sizes, failed
+// mutations and the bytes sent to each region server. The metrics live in a
+// registry that long-running clients can expose over JMX. MapReduce tasks
+// copy them into job counters instead; as counters of all tasks are summed,
+// the latency and batch size distributions are kept in fixed buckets there.
+// Only the "client.metrics.server.counters" servers a task sent the most
+// bytes to get a counter of their own, the rest are summed up in one, so
+// that large clusters stay below the job's limit on counters.
+public class WriteMetrics {
+
+	public static final String GROUP = "WriteMetrics";
+	public static final String CONF_SERVER_COUNTERS = "client.metrics.server.counters";
+
+	// Upper bounds of the latency buckets in milliseconds.
+	private static final long[] LATENCY_BUCKETS = { 1, 10, 100, 1000, 10000 };
+	// Upper bounds of the batch size buckets in bytes.
+	private static final long[] SIZE_BUCKETS = { 64 * 1024, 1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024 };
+
+	private final MetricsRegistry registry;
+	private final String scope;
+	private final Timer flushes;
+	private final Histogram batchMutations;
+	private final Histogram batchBytes;
+	private final Counter retriesExhausted;
+	private final Counter failedMutations;
+	private final Map<String, Counter> serverBytes = new ConcurrentHashMap<String, Counter>();
+
+	private final AtomicLongArray latencyCounts = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+	private final AtomicLongArray sizeCounts = new AtomicLongArray(SIZE_BUCKETS.length + 1);
+
+	/**
+	 * Creates the metrics in a new registry.
+	 *
+	 * @param scope
+	 *            Distinguishes the metrics of several writers in the
+	 *            registry, usually the table name.
+	 */
+	public WriteMetrics(String scope) {
+		this(new MetricsRegistry(), scope);
+	}
+
+	/**
+	 * Creates the metrics in the given registry.
+	 *
+	 * @param registry
+	 *            The registry to add the metrics to.
+	 * @param scope
+	 *            Distinguishes the metrics of several writers in the
+	 *            registry, usually the table name.
+	 */
+	public WriteMetrics(MetricsRegistry registry, String scope) {
+		this.registry = registry;
+		this.scope = scope;
+		flushes = registry.newTimer(name("flush-latency"), TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
+		batchMutations = registry.newHistogram(name("batch-mutations"), true);
+		batchBytes = registry.newHistogram(name("batch-bytes"), true);
+		retriesExhausted = registry.newCounter(name("retries-exhausted"));
+		failedMutations = registry.newCounter(name("failed-mutations"));
+	}
+
+	private MetricName name(String name) {
+		return new MetricName(GROUP, "writes", name, scope);
+	}
+
+	/**
+	 * Records a completed flush.
+	 *
+	 * @param nanos
+	 *            The time the flush took.
+	 * @param mutations
+	 *            The number of mutations sent.
+	 * @param bytes
+	 *            The estimated size of the mutations sent.
+	 */
+	public void flushed(long nanos, long mutations, long bytes) {
+		flushes.update(nanos, TimeUnit.NANOSECONDS);
+		batchMutations.update(mutations);
+		batchBytes.update(bytes);
+		latencyCounts.incrementAndGet(bucket(LATENCY_BUCKETS, TimeUnit.NANOSECONDS.toMillis(nanos)));
+		sizeCounts.incrementAndGet(bucket(SIZE_BUCKETS, bytes));
+	}
+
+	/**
+	 * Records the bytes sent to a region server.
+	 *
+	 * @param server
+	 *            The host and port of the server.
+	 * @param bytes
+	 *            The estimated size of the mutations.
+	 */
+	public void sent(String server, long bytes) {
+		Counter counter = serverBytes.get(server);
+		if (counter == null) {
+			// The registry returns the existing counter if another thread
+			// created it in the meantime.
+			counter = registry.newCounter(new MetricName(GROUP, "servers", "bytes-sent", server));
+			serverBytes.put(server, counter);
+		}
+		counter.inc(bytes);
+	}
+
+	/**
+	 * Records mutations that failed after all retries.
+	 *
+	 * @param mutations
+	 *            The number of failed mutations.
+	 */
+	public void failed(int mutations) {
+		retriesExhausted.inc();
+		failedMutations.inc(mutations);
+	}
+
+	private static int bucket(long[] bounds, long value) {
+		for (int i = 0; i < bounds.length; i++) {
+			if (value <= bounds[i]) {
+				return i;
+			}
+		}
+		return bounds.length;
+	}
+
+	private static String bucketName(String prefix, long[] bounds, int i, String unit) {
+		return i < bounds.length ? prefix + "_LE_" + bounds[i] + unit : prefix + "_GT_" + bounds[i - 1] + unit;
+	}
+
+	public Timer getFlushes() {
+		return flushes;
+	}
+
+	public Histogram getBatchMutations() {
+		return batchMutations;
+	}
+
+	public Histogram getBatchBytes() {
+		return batchBytes;
+	}
+
+	public long getFailedMutations() {
+		return failedMutations.count();
+	}
+
+	public MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Starts exposing the metrics as MBeans.
+	 *
+	 * @return The reporter, to be shut down by the caller.
+	 */
+	public JmxReporter startJmx() {
+		JmxReporter reporter = new JmxReporter(registry);
+		reporter.start();
+		return reporter;
+	}
+
+	/**
+	 * Adds the metrics to the counters of the task, where they are summed
+	 * up for the whole job.
+	 *
+	 * @param context
+	 *            The task context.
+	 */
+	public void addTo(TaskAttemptContext context) {
+		context.getCounter(GROUP, "FLUSHES").increment(flushes.count());
+		context.getCounter(GROUP, "FLUSH_MS").increment((long) flushes.sum());
+		context.getCounter(GROUP, "MUTATIONS").increment((long) batchMutations.sum());
+		context.getCounter(GROUP, "BYTES").increment((long) batchBytes.sum());
+		context.getCounter(GROUP, "RETRIES_EXHAUSTED").increment(retriesExhausted.count());
+		context.getCounter(GROUP, "FAILED_MUTATIONS").increment(failedMutations.count());
+		for (int i = 0; i < latencyCounts.length(); i++) {
+			context.getCounter(GROUP, bucketName("FLUSH", LATENCY_BUCKETS, i, "MS")).increment(latencyCounts.get(i));
+		}
+		for (int i = 0; i < sizeCounts.length(); i++) {
+			context.getCounter(GROUP, bucketName("BATCH", SIZE_BUCKETS, i, "B")).increment(sizeCounts.get(i));
+		}
+		List<Map.Entry<String, Counter>> servers = new ArrayList<Map.Entry<String, Counter>>(serverBytes.entrySet());
+		Collections.sort(servers, new Comparator<Map.Entry<String, Counter>>() {
+			@Override
+			public int compare(Map.Entry<String, Counter> a, Map.Entry<String, Counter> b) {
+				return Long.compare(b.getValue().count(), a.getValue().count());
+			}
+		});
+		int limit = context.getConfiguration().getInt(CONF_SERVER_COUNTERS, 10);
+		long other = 0;
+		for (int i = 0; i < servers.size(); i++) {
+			if (i < limit) {
+				context.getCounter(GROUP, "BYTES_TO_" + servers.get(i).getKey()).increment(
+						servers.get(i).getValue().count());
+			} else {
+				other += servers.get(i).getValue().count();
+			}
+		}
+		if (other > 0) {
+			context.getCounter(GROUP, "BYTES_TO_OTHER_SERVERS").increment(other);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"flushes=%d, flush ms mean=%.1f p99=%.1f max=%.1f, batch mutations mean=%.0f, batch bytes mean=%.0f, failed=%d, bytes per server=%s",
+				flushes.count(), flushes.mean(), flushes.getSnapshot().get99thPercentile(), flushes.max(),
+				batchMutations.mean(), batchBytes.mean(), failedMutations.count(), serverBytesSummary());
+	}
+
+	private String serverBytesSummary() {
+		StringBuilder sb = new StringBuilder("{");
+		for (Map.Entry<String, Counter> entry : serverBytes.entrySet()) {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(entry.getKey()).append('=').append(entry.getValue().count());
+		}
+		return sb.append('}').toString();
+	}
+}
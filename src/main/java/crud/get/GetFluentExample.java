@@ -3,10 +3,11 @@ package crud.get;
 import java.util.ArrayList;
 import java.util.List;
 
+import admin.TableProvisioner;
+import admin.TableSpec;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
-import org.apache.hadoop.hbase.HColumnDescriptor;
-import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
@@ -29,23 +30,12 @@ public class GetFluentExample {
 		try (Connection connection = ConnectionFactory.createConnection(configuration)) {
 			admin = connection.getAdmin();	
 			
-			// delete old table if exist
-			if (admin.tableExists(tableName)){
-				admin.disableTable(tableName);
-				admin.deleteTable(tableName);
-			}
-			
-			// HTableDescriptor contains the details about an HBase table such as 
-			// the descriptors of all the column families
-			HTableDescriptor desc = new HTableDescriptor(tableName);
-			
-			// An HColumnDescriptor contains information about a column family such as the number of versions, compression settings,
-			// etc. It is used as input when creating a table or adding a column.
-			HColumnDescriptor coldef1 = new HColumnDescriptor("data");
-			HColumnDescriptor coldef2 = new HColumnDescriptor("another_colfamily");
-			desc.addFamily(coldef1);
-			desc.addFamily(coldef2);
-			admin.createTable(desc);
+			// delete old table if exist, and create it with two families.
+			// The TableSpec holds the settings of the families such as the
+			// number of versions, compression settings, etc., which end up
+			// in an HColumnDescriptor for each family.
+			new TableProvisioner(admin).recreate(tableName,
+					TableSpec.fromConfiguration(configuration, "data", "another_colfamily"));
 			
 			// Instantiate a new table reference.
 			// Instantiate a new client.
@@ -0,0 +1,75 @@
+package crud.get;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import admin.TableProvisioner;
+import admin.TableSpec;
+import client.ParallelMultiGet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+public class GetParallelExample {
+
+	static Admin admin = null;
+	static TableName tableName = TableName.valueOf("Users");
+
+	public static void main(String[] args) throws Exception {
+		Configuration configuration = HBaseConfiguration.create();
+
+		try (Connection connection = ConnectionFactory.createConnection(configuration)) {
+			admin = connection.getAdmin();
+
+			// delete old table if exist, and create it with the "data" family.
+			new TableProvisioner(admin).recreate(tableName, TableSpec.fromConfiguration(configuration, "data"));
+
+			List<Get> gets = new ArrayList<Get>();
+			try (Table table = connection.getTable(tableName)) {
+				List<Put> puts = new ArrayList<Put>();
+				for (int i = 0; i < 1000; i++) {
+					Put put = new Put(Bytes.toBytes("row" + i));
+					put.addColumn(Bytes.toBytes("data"), Bytes.toBytes("json"),
+							Bytes.toBytes("{\"email\":\"user" + i + "@gmail.com\"}"));
+					puts.add(put);
+					gets.add(new Get(Bytes.toBytes("row" + i)));
+				}
+				table.put(puts);
+			}
+
+			// Unlike table.get(gets) in GetFluentExample, each region server's
+			// Gets are sent on their own, up to 8 servers at a time.
+			ExecutorService executor = Executors.newFixedThreadPool(8);
+			try {
+				ParallelMultiGet multiGet = new ParallelMultiGet(connection, tableName, executor);
+				ParallelMultiGet.Results results = multiGet.get(gets);
+
+				// Single results can be used as soon as they arrive.
+				System.out.println("First: " + results.getFutures().get(0).get());
+
+				// Wait at most 100 ms, Gets of slower servers are null.
+				int missing = 0;
+				for (Result result : results.await(100, TimeUnit.MILLISECONDS)) {
+					if (result == null) {
+						missing++;
+					}
+				}
+				System.out.println("Missing after 100 ms: " + missing + " of " + gets.size());
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+}
@@ -1,9 +1,10 @@
 package crud.get;
 
+import admin.TableProvisioner;
+import admin.TableSpec;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
-import org.apache.hadoop.hbase.HColumnDescriptor;
-import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
@@ -26,16 +27,9 @@ public class GetTryWithResourcesExample {
 		
 		try (Connection connection = ConnectionFactory.createConnection(configuration)) {
 			admin = connection.getAdmin();	
-			if (!admin.tableExists(tableName)){
-				
-				// HTableDescriptor contains the details about an HBase table such as 
-				// the descriptors of all the column families
-				HTableDescriptor desc = new HTableDescriptor(tableName);
-				
-				HColumnDescriptor coldef = new HColumnDescriptor("data");
-				desc.addFamily(coldef);
-				admin.createTable(desc);
-			}
+			
+			// create the table with the "data" family, unless it exists.
+			new TableProvisioner(admin).create(tableName, TableSpec.fromConfiguration(configuration, "data"));
 			
 			// Instantiate a new table reference.
 			try (Table table = connection.getTable(tableName)) {
@@ -0,0 +1,66 @@
+package crud.put;
+
+import admin.TableProvisioner;
+import admin.TableSpec;
+import client.AdaptiveMutator;
+import client.WriteMetrics;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+public class PutAdaptiveBufferExample {
+	
+	static Admin admin = null;
+	static TableName tableName = TableName.valueOf("Users");
+	
+	public static void main(String[] args) throws Exception {
+		Configuration configuration = HBaseConfiguration.create();
+		
+		// Buffered data must be visible after at most 500 ms.
+		configuration.setLong(AdaptiveMutator.CONF_MAX_STALENESS, 500);
+		
+		try (Connection connection = ConnectionFactory.createConnection(configuration)) {
+			admin = connection.getAdmin();	
+			
+			// delete old table if exist, and create it with the "data" family.
+			new TableProvisioner(admin).recreate(tableName, TableSpec.fromConfiguration(configuration, "data"));
+
+			// Unlike the fixed buffer in PutWriteBufferExample1, the write buffer
+			// grows while flushes are fast and shrinks under server back-pressure.
+			BufferedMutatorParams params = new BufferedMutatorParams(tableName);
+			
+			try (Table table = connection.getTable(tableName);
+				AdaptiveMutator mutator = new AdaptiveMutator(connection, params, new WriteMetrics("Users"))) {
+
+				Put put1 = new Put(Bytes.toBytes("row1"));
+				put1.addColumn(Bytes.toBytes("data"), Bytes.toBytes("json"),
+						Bytes.toBytes("{\"fname\":\"Eiyar\",\"lname\":\"Goldman\",\"email\":\"email@gmail.com\"}")); 
+				mutator.mutate(put1);
+				
+				Get get = new Get(Bytes.toBytes("row1"));
+				
+				// The put is still buffered, this will print "Result: keyvalues=NONE".
+				System.out.println("Result: " + table.get(get));
+				
+				// No explicit flush, wait for the staleness bound to pass.
+				Thread.sleep(1000);
+				
+				// Now the row is persisted and can be loaded.
+				Result res = table.get(get);
+				System.out.println("Result: " + res);
+				System.out.println("Buffer: " + mutator.getWriteBufferSize() + " bytes, interval: "
+						+ mutator.getFlushInterval() + " ms, writes: " + mutator.getMetrics());
+			}
+		}
+	}
+}
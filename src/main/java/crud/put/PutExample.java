@@ -1,9 +1,10 @@
 package crud.put;
 
+import admin.TableProvisioner;
+import admin.TableSpec;
+
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.HBaseConfiguration;
-import org.apache.hadoop.hbase.HColumnDescriptor;
-import org.apache.hadoop.hbase.HTableDescriptor;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.Connection;
@@ -23,18 +24,10 @@ public class PutExample {
 		try (Connection connection = ConnectionFactory.createConnection(configuration)) {
 			admin = connection.getAdmin();	
 			
-			// delete old table if exist
-			if (admin.tableExists(tableName)){
-				admin.disableTable(tableName);
-				admin.deleteTable(tableName);
-			}
-			
-			// HTableDescriptor contains the details about an HBase table such as 
-			// the descriptors of all the column families
-			HTableDescriptor desc = new HTableDescriptor(tableName);
-			HColumnDescriptor coldef = new HColumnDescriptor("data");
-			desc.addFamily(coldef);
-			admin.createTable(desc);
+			// delete old table if exist, and create it with the "data" family.
+			// The TableSpec holds the family settings (block encoding,
+			// compression, bloom filter, ...), see "table.spec.*".
+			new TableProvisioner(admin).recreate(tableName, TableSpec.fromConfiguration(configuration, "data"));
 			
 			// Instantiate a new table reference.
 			// Instantiate a new client.
@@ -0,0 +1,43 @@
+package tableAsDataSource;
+
+import java.util.List;
+
+import org.apache.hadoop.hbase.Cell;
+
+// The logic of an analysis that counts cells by a key, independent of where
+// it runs: AnalyzeMapper and AnalyzeReducer use it in the MapReduce job,
+// LocalAnalyzer in threads of the client.
+// Instances may keep state between calls, use one per task or thread.
+public interface Analysis {
+
+	/**
+	 * Picks the cells of a row to count, the others are skipped.
+	 *
+	 * @param row
+	 *            The cells of the row.
+	 * @return The cells to map.
+	 */
+	List<Cell> cells(List<Cell> row);
+
+	/**
+	 * Finds the key to count a cell under.
+	 *
+	 * @param cell
+	 *            The cell.
+	 * @return The key.
+	 * @throws IllegalArgumentException
+	 *             When the cell holds no valid record.
+	 */
+	String map(Cell cell);
+
+	/**
+	 * Combines two partial counts of a key.
+	 *
+	 * @param count
+	 *            The count so far.
+	 * @param other
+	 *            Another count of the same key.
+	 * @return The combined count.
+	 */
+	long reduce(long count, long other);
+}
@@ -1,6 +1,11 @@
 package tableAsDataSource;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import tablesAsDataSink.InstrumentedTableOutputFormat;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -16,23 +21,32 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.mapreduce.TableMapReduceUtil;
 import org.apache.hadoop.hbase.mapreduce.TableMapper;
+import org.apache.hadoop.hbase.mapreduce.TableReducer;
+import org.apache.hadoop.hbase.protobuf.generated.HBaseProtos.SnapshotDescription;
 import org.apache.hadoop.hbase.util.Bytes;
-import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.Mapper;
 import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.KeyValueTextInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.partition.TotalOrderPartitioner;
 import org.apache.hadoop.util.GenericOptionsParser;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
 // MapReduce job that reads the imported data and analyzes it.
 public class AnalyzeData {
@@ -41,14 +55,31 @@ public class AnalyzeData {
 	public static final String NAME = "AnalyzeData";
 
 	public enum Counters {
-		ROWS, COLS, ERROR, VALID
+		ROWS, COLS, ERROR, VALID, EMITTED, SHUFFLE_BYTES, SHUFFLE_BYTES_SAVED
 	}
 
 	// Extend the supplied TableMapper class, setting your own output key and
 	// value types.
-	static class AnalyzeMapper extends TableMapper<Text, IntWritable> {
-		private JSONParser parser = new JSONParser();
-		private IntWritable ONE = new IntWritable(1);
+	static class AnalyzeMapper extends TableMapper<Text, LongWritable> {
+		private final Analysis analysis = new EmailAnalysis();
+
+		// Counts per author, summed up in the mapper instead of emitting a
+		// (author, 1) pair per cell. Spilled when it holds too many authors.
+		private final Map<String, Count> counts = new HashMap<String, Count>();
+		private int maxEntries;
+		private final Text outKey = new Text();
+		private final LongWritable outValue = new LongWritable();
+
+		// The count of an author and the serialized size of one pair.
+		private static class Count {
+			long count;
+			int bytes;
+		}
+
+		@Override
+		protected void setup(Context context) throws IOException, InterruptedException {
+			maxEntries = context.getConfiguration().getInt("conf.aggregate.entries", 100000);
+		}
 
 		/**
 		 * Maps the input.
@@ -66,32 +97,70 @@ public class AnalyzeData {
 		protected void map(ImmutableBytesWritable row, Result columns, Context context)
 				throws IOException, InterruptedException {
 			context.getCounter(Counters.ROWS).increment(1);
-			String value = null;
+			Cell cell = null;
 
 			try {
-				for (Cell cell : columns.listCells()) {
+				for (Cell current : analysis.cells(columns.listCells())) {
+					cell = current;
 					context.getCounter(Counters.COLS).increment(1);
-					value = Bytes.toStringBinary(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
-					JSONObject json = (JSONObject) parser.parse(value);
-
-					// Parse the JSON data, extract the author and count the
-					// occurrence.
-					String email = (String) json.get("email");
+					String email = analysis.map(cell);
 					if (context.getConfiguration().get("conf.debug") != null)
 						System.out.println("Email: " + email);
-					context.write(new Text(email), ONE);
+					count(email, context);
 					context.getCounter(Counters.VALID).increment(1);
 				}
 			} catch (Exception e) {
 				e.printStackTrace();
-				System.err.println("Row: " + Bytes.toStringBinary(row.get()) + ", JSON: " + value);
+				System.err.println("Row: " + Bytes.toStringBinary(row.get()) + ", JSON: "
+						+ (cell == null ? null : Bytes.toStringBinary(cell.getValueArray(), cell.getValueOffset(),
+								cell.getValueLength())));
 				context.getCounter(Counters.ERROR).increment(1);
 			}
 		}
+
+		private void count(String email, Context context) throws IOException, InterruptedException {
+			Count count = counts.get(email);
+			if (count == null) {
+				if (counts.size() >= maxEntries) {
+					spill(context);
+				}
+				count = new Count();
+				// The size of a serialized (Text, LongWritable) pair.
+				int length = Text.encode(email).limit();
+				count.bytes = WritableUtils.getVIntSize(length) + length + Bytes.SIZEOF_LONG;
+				counts.put(email, count);
+			}
+			count.count = analysis.reduce(count.count, 1);
+			// What emitting a pair per occurrence would have shuffled.
+			context.getCounter(Counters.SHUFFLE_BYTES_SAVED).increment(count.bytes);
+		}
+
+		// Emits the aggregated counts and starts over.
+		private void spill(Context context) throws IOException, InterruptedException {
+			long bytes = 0;
+			for (Map.Entry<String, Count> entry : counts.entrySet()) {
+				outKey.set(entry.getKey());
+				outValue.set(entry.getValue().count);
+				context.write(outKey, outValue);
+				bytes += entry.getValue().bytes;
+			}
+			context.getCounter(Counters.EMITTED).increment(counts.size());
+			context.getCounter(Counters.SHUFFLE_BYTES).increment(bytes);
+			context.getCounter(Counters.SHUFFLE_BYTES_SAVED).increment(-bytes);
+			counts.clear();
+		}
+
+		@Override
+		protected void cleanup(Context context) throws IOException, InterruptedException {
+			spill(context);
+		}
 	}
 
-	// extend a Hadoop Reducer class, assigning the proper types.
-	static class AnalyzeReducer extends Reducer<Text, IntWritable, Text, IntWritable> {
+	// extend a Hadoop Reducer class, assigning the proper types. As it sums
+	// up the incoming counts, it is used as the combiner as well.
+	static class AnalyzeReducer extends Reducer<Text, LongWritable, Text, LongWritable> {
+		private final Analysis analysis = new EmailAnalysis();
+		private final LongWritable result = new LongWritable();
 
 		/**
 		 * Aggregates the counts.
@@ -108,14 +177,99 @@ public class AnalyzeData {
 		 *             When the task is aborted.
 		 */
 		@Override
-		protected void reduce(Text key, Iterable<IntWritable> values, Context context)
+		protected void reduce(Text key, Iterable<LongWritable> values, Context context)
 				throws IOException, InterruptedException {
-			int count = 0;
-			for (IntWritable one : values)
-				count++;
+			long count = 0;
+			for (LongWritable value : values)
+				count = analysis.reduce(count, value.get());
 			if (context.getConfiguration().get("conf.debug") != null)
 				System.out.println("Author: " + key.toString() + ", Count: " + count);
-			context.write(key, new IntWritable(count));
+			result.set(count);
+			context.write(key, result);
+		}
+	}
+
+	// Adds the authors to a sketch and emits the sketch once at the end of
+	// the task, instead of the authors.
+	static class ApproxMapper extends TableMapper<NullWritable, EmailSketch> {
+		private final Analysis analysis = new EmailAnalysis();
+		private EmailSketch sketch;
+
+		@Override
+		protected void setup(Context context) throws IOException, InterruptedException {
+			sketch = EmailSketch.create(context.getConfiguration());
+		}
+
+		@Override
+		protected void map(ImmutableBytesWritable row, Result columns, Context context)
+				throws IOException, InterruptedException {
+			context.getCounter(Counters.ROWS).increment(1);
+			for (Cell cell : analysis.cells(columns.listCells())) {
+				context.getCounter(Counters.COLS).increment(1);
+				try {
+					sketch.add(analysis.map(cell));
+					context.getCounter(Counters.VALID).increment(1);
+				} catch (IllegalArgumentException e) {
+					context.getCounter(Counters.ERROR).increment(1);
+				}
+			}
+		}
+
+		@Override
+		protected void cleanup(Context context) throws IOException, InterruptedException {
+			context.write(NullWritable.get(), sketch);
+			context.getCounter(Counters.EMITTED).increment(1);
+		}
+	}
+
+	// Merges the sketches of all mappers and writes the estimated number of
+	// distinct authors followed by the top authors.
+	static class ApproxReducer extends Reducer<NullWritable, EmailSketch, Text, LongWritable> {
+
+		@Override
+		protected void reduce(NullWritable key, Iterable<EmailSketch> values, Context context)
+				throws IOException, InterruptedException {
+			EmailSketch merged = null;
+			for (EmailSketch sketch : values) {
+				if (merged == null) {
+					// The framework reuses the value instance, keep a copy.
+					merged = WritableUtils.clone(sketch, context.getConfiguration());
+				} else {
+					merged.merge(sketch);
+				}
+			}
+			context.write(new Text("#distinct"), new LongWritable(merged.getDistinct()));
+			context.write(new Text("#total"), new LongWritable(merged.getTotal()));
+			for (Map.Entry<String, Long> entry : merged.getTop()) {
+				context.write(new Text(entry.getKey()), new LongWritable(entry.getValue()));
+			}
+		}
+	}
+
+	// Sums up the counts like AnalyzeReducer, and adds them to the counts in
+	// the counters table.
+	static class CountersReducer extends TableReducer<Text, LongWritable, ImmutableBytesWritable> {
+		private final Analysis analysis = new EmailAnalysis();
+
+		@Override
+		protected void reduce(Text key, Iterable<LongWritable> values, Context context)
+				throws IOException, InterruptedException {
+			long count = 0;
+			for (LongWritable value : values)
+				count = analysis.reduce(count, value.get());
+			context.write(null, CountersTable.increment(key.getBytes(), 0, key.getLength(), count));
+		}
+	}
+
+	// Reads the counts of a previous run, or of the cells added since, for
+	// AnalyzeReducer to add them up.
+	static class MergeMapper extends Mapper<Text, Text, Text, LongWritable> {
+		private final LongWritable count = new LongWritable();
+
+		@Override
+		protected void map(Text email, Text value, Context context) throws IOException, InterruptedException {
+			count.set(Long.parseLong(value.toString()));
+			context.write(email, count);
 		}
 	}
 
@@ -135,13 +289,74 @@ public class AnalyzeData {
 		o.setRequired(true);
 		options.addOption(o);
 
-		o = new Option("c", "column", true, "column to read data from (must exist)");
+		o = new Option("c", "column", true, "column to read data from, e.g. data:json or data:email (must exist); without it every column of "
+				+ "the table is read, and of rows with an email column only that one is counted");
 		o.setArgName("family:qualifier");
 		options.addOption(o);
 
 		o = new Option("o", "output", true, "the directory to write to");
 		o.setArgName("path-in-HDFS");
-		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("x", "counters", true,
+				"add the counts to this table instead of writing them to files, created if needed (not with -a); "
+						+ "Increments are not idempotent, the counts of a failed and retried reduce attempt "
+						+ "are added twice");
+		o.setArgName("table-name");
+		options.addOption(o);
+
+		o = new Option("a", "approx", false,
+				"estimate the distinct and the top authors with sketches instead of counting all authors");
+		options.addOption(o);
+
+		o = new Option("e", "error", true, "relative error of the distinct count in approx mode (default: 0.01)");
+		o.setArgName("error");
+		options.addOption(o);
+
+		o = new Option("k", "top", true, "number of top authors in approx mode (default: 100)");
+		o.setArgName("count");
+		options.addOption(o);
+
+		o = new Option("s", "snapshot", true,
+				"read the HFiles of this snapshot instead of the live table, taken first if it does not exist "
+						+ "(an existing one must be of -t); with -w a new snapshot <snapshot-name>-<time> is "
+						+ "taken and deleted by every run");
+		o.setArgName("snapshot-name");
+		options.addOption(o);
+
+		o = new Option("r", "restore-dir", true,
+				"directory to restore the snapshot to, on the HBase filesystem (default: /tmp/AnalyzeData-<snapshot>)");
+		o.setArgName("path-in-HDFS");
+		options.addOption(o);
+
+		o = new Option("w", "watermark", true, "count only the cells written since the last run recorded in this "
+				+ "file, and add them to the counts of that run (not with -a); each run writes its counts to a new "
+				+ "subdirectory of -o, named after the time it counted up to");
+		o.setArgName("path-in-HDFS");
+		options.addOption(o);
+
+		o = new Option("u", "reducers", true,
+				"number of reducers, the output stays sorted across them; all counts of an author go to one "
+						+ "reducer, frequent authors are not split (default: 1, always 1 with -a)");
+		o.setArgName("count");
+		options.addOption(o);
+
+		o = new Option("n", "caching", true, "rows fetched per scanner RPC (default: 500)");
+		o.setArgName("rows");
+		options.addOption(o);
+
+		o = new Option("b", "batch", true, "max columns per Result, for very wide rows (default: no limit)");
+		o.setArgName("columns");
+		options.addOption(o);
+
+		o = new Option("z", "split-size", true,
+				"divide regions larger than this into several splits, 0 for one split per region (default: 1024)");
+		o.setArgName("MB");
+		options.addOption(o);
+
+		o = new Option("p", "sample", true,
+				"place the boundaries of divided regions at sampled row keys, e.g. 0.001 (default: key range)");
+		o.setArgName("rate");
 		options.addOption(o);
 
 		CommandLineParser parser = new PosixParser();
@@ -149,6 +364,12 @@ public class AnalyzeData {
 
 		try {
 			cmd = parser.parse(options, args);
+			if (!cmd.hasOption("o") && !cmd.hasOption("x")) {
+				throw new ParseException("Missing option: o or x");
+			}
+			if (cmd.hasOption("a") && (cmd.hasOption("w") || cmd.hasOption("x"))) {
+				throw new ParseException("Option a cannot be combined with w or x");
+			}
 		} catch (Exception e) {
 			System.err.println("ERROR: " + e.getMessage() + "\n");
 			HelpFormatter formatter = new HelpFormatter();
@@ -163,6 +384,93 @@ public class AnalyzeData {
 		return cmd;
 	}
 
+	/**
+	 * Sets up the table mapper phase using the supplied utility. Reads
+	 * either the live table, with large regions divided over several
+	 * mappers, or the HFiles of a snapshot of it directly, which keeps the
+	 * load off the region servers.
+	 *
+	 * @param cmd
+	 *            The command line, with the snapshot options.
+	 * @param snapshot
+	 *            The snapshot to read, <code>null</code> to read the live
+	 *            table.
+	 * @param table
+	 *            The table to read.
+	 * @param scan
+	 *            The scan to read the table with.
+	 * @param mapper
+	 *            The mapper class.
+	 * @param outputKey
+	 *            The key class of the mapper output.
+	 * @param outputValue
+	 *            The value class of the mapper output.
+	 * @param job
+	 *            The job to set up.
+	 * @throws IOException
+	 *             When taking the snapshot or setting up the job fails.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static void initMapperJob(CommandLine cmd, String snapshot, String table, Scan scan,
+			Class<? extends TableMapper> mapper, Class<?> outputKey, Class<?> outputValue, Job job) throws IOException {
+		if (snapshot != null) {
+			takeSnapshot(job.getConfiguration(), TableName.valueOf(table), snapshot);
+			// The snapshot's regions are restored as references below this
+			// directory, which must be on the same filesystem as HBase.
+			Path restoreDir = new Path(cmd.getOptionValue("r", "/tmp/" + NAME + "-" + snapshot));
+			TableMapReduceUtil.initTableSnapshotMapperJob(snapshot, scan, mapper, outputKey, outputValue, job, true,
+					restoreDir);
+		} else {
+			TableMapReduceUtil.initTableMapperJob(table, scan, mapper, outputKey, outputValue, job, true,
+					SubSplitTableInputFormat.class);
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the table, unless one with the name exists.
+	 *
+	 * @param conf
+	 *            The configuration to connect with.
+	 * @param tableName
+	 *            The table.
+	 * @param snapshot
+	 *            The name of the snapshot.
+	 * @throws IOException
+	 *             When taking the snapshot fails, or the existing snapshot
+	 *             is of another table.
+	 */
+	private static void takeSnapshot(Configuration conf, TableName tableName, String snapshot) throws IOException {
+		try (Connection connection = ConnectionFactory.createConnection(conf); Admin admin = connection.getAdmin()) {
+			for (SnapshotDescription existing : admin.listSnapshots(Pattern.quote(snapshot))) {
+				if (!TableName.valueOf(existing.getTable()).equals(tableName)) {
+					throw new IOException("Snapshot " + snapshot + " is of table " + existing.getTable() + ", not "
+							+ tableName);
+				}
+				LOG.info("Reusing snapshot " + snapshot);
+				return;
+			}
+			LOG.info("Taking snapshot " + snapshot + " of " + tableName);
+			admin.snapshot(snapshot, tableName);
+		}
+	}
+
+	/**
+	 * Deletes a snapshot.
+	 *
+	 * @param conf
+	 *            The configuration to connect with.
+	 * @param snapshot
+	 *            The name of the snapshot.
+	 * @throws IOException
+	 *             When deleting the snapshot fails.
+	 */
+	private static void deleteSnapshot(Configuration conf, String snapshot) throws IOException {
+		try (Connection connection = ConnectionFactory.createConnection(conf); Admin admin = connection.getAdmin()) {
+			LOG.info("Deleting snapshot " + snapshot);
+			admin.deleteSnapshot(snapshot);
+		}
+	}
+
 	/**
 	 * Main entry point.
 	 *
@@ -182,9 +490,47 @@ public class AnalyzeData {
 		String table = cmd.getOptionValue("t");
 		String column = cmd.getOptionValue("c");
 		String output = cmd.getOptionValue("o");
+		if (cmd.hasOption("z"))
+			conf.setLong(SubSplitTableInputFormat.CONF_SPLIT_SIZE, Long.parseLong(cmd.getOptionValue("z")) * 1024 * 1024);
+		if (cmd.hasOption("p"))
+			conf.setFloat(SubSplitTableInputFormat.CONF_SPLIT_SAMPLE, Float.parseFloat(cmd.getOptionValue("p")));
 
-		// Create and configure a Scan instance.
+		// Create and configure a Scan instance. Fetch many rows per RPC and
+		// keep the one-time full scan out of the block cache.
 		Scan scan = new Scan();
+		scan.setCaching(Integer.parseInt(cmd.getOptionValue("n", "500")));
+		scan.setCacheBlocks(false);
+		if (cmd.hasOption("b"))
+			scan.setBatch(Integer.parseInt(cmd.getOptionValue("b")));
+
+		// In incremental mode, only read the cells written since the last
+		// run. The upper bound becomes the watermark of the next run. The
+		// counts of every run go to a directory of their own below the
+		// output, as the one of the previous run is still read.
+		Path outputPath = output != null ? new Path(output) : null;
+		Path jobOutput = outputPath;
+		String counters = cmd.getOptionValue("x");
+		Path watermarkFile = null;
+		Watermark previous = null;
+		String snapshot = cmd.getOptionValue("s");
+		long now = System.currentTimeMillis();
+		if (cmd.hasOption("w")) {
+			// A reused snapshot would miss the cells written since it was
+			// taken, while the watermark still moves past them. Every run
+			// takes a snapshot of its own instead, after the upper bound was
+			// fixed, so that it holds all cells of the time range.
+			if (snapshot != null) {
+				snapshot = snapshot + "-" + now;
+			}
+			watermarkFile = new Path(cmd.getOptionValue("w"));
+			previous = Watermark.read(watermarkFile.getFileSystem(conf), watermarkFile);
+			scan.setTimeRange(previous.getTimestamp(), now);
+			if (counters == null) {
+				outputPath = new Path(outputPath, Long.toString(now));
+				jobOutput = previous.getOutput() != null ? outputPath.suffix("-delta") : outputPath;
+			}
+			LOG.info("Counting cells written from " + previous.getTimestamp() + " to " + now);
+		}
 		if (column != null) {
 			byte[][] colkey = KeyValue.parseColumn(Bytes.toBytes(column));
 			if (colkey.length > 1) {
@@ -196,16 +542,122 @@ public class AnalyzeData {
 
 		Job job = Job.getInstance(conf, "Analyze data in " + table);
 		job.setJarByClass(AnalyzeData.class);
+		int reducers = 1;
+		Path partitions = null;
 
-		// Set up the table mapper phase using the supplied utility.
-		TableMapReduceUtil.initTableMapperJob(table, scan, AnalyzeMapper.class, Text.class, IntWritable.class, job);
+		if (cmd.hasOption("a")) {
+			// One sketch per mapper, merged by a single reducer. The
+			// count bounds (conf.approx.epsilon/delta) can be set with -D.
+			if (cmd.hasOption("e"))
+				job.getConfiguration().setFloat(EmailSketch.CONF_DISTINCT_ERROR,
+						Float.parseFloat(cmd.getOptionValue("e")));
+			if (cmd.hasOption("k"))
+				job.getConfiguration().setInt(EmailSketch.CONF_TOP, Integer.parseInt(cmd.getOptionValue("k")));
+			initMapperJob(cmd, snapshot, table, scan, ApproxMapper.class, NullWritable.class, EmailSketch.class, job);
+			job.setReducerClass(ApproxReducer.class);
+			job.setOutputKeyClass(Text.class);
+			job.setOutputValueClass(LongWritable.class);
+			job.setNumReduceTasks(1);
+		} else {
+			initMapperJob(cmd, snapshot, table, scan, AnalyzeMapper.class, Text.class, LongWritable.class, job);
 
-		// Configure the reduce phase using the normal Hadoop syntax.
+			// Configure the reduce phase using the normal Hadoop syntax.
+			job.setCombinerClass(AnalyzeReducer.class);
+			reducers = Integer.parseInt(cmd.getOptionValue("u", "1"));
+			if (counters != null) {
+				// One Increment per author and reducer.
+				CountersTable.provision(conf, TableName.valueOf(counters));
+				TableMapReduceUtil.initTableReducerJob(counters, CountersReducer.class, job);
+				job.setOutputFormatClass(InstrumentedTableOutputFormat.class);
+				// A speculative attempt would add its counts a second time.
+				job.setReduceSpeculativeExecution(false);
+			} else {
+				job.setReducerClass(AnalyzeReducer.class);
+				job.setOutputKeyClass(Text.class);
+				job.setOutputValueClass(LongWritable.class);
+			}
+			// With several reducers, sample the authors for partitions that
+			// keep the output sorted across the part files.
+			if (reducers > 1 && counters == null) {
+				partitions = outputPath.suffix("-partitions");
+				reducers = PartitionSampler.writePartitionFile(job, reducers, partitions);
+				if (reducers > 1) {
+					job.setPartitionerClass(TotalOrderPartitioner.class);
+				}
+			}
+			job.setNumReduceTasks(reducers);
+		}
+		if (counters == null) {
+			FileOutputFormat.setOutputPath(job, jobOutput);
+		}
+		boolean success = job.waitForCompletion(true);
+		if (watermarkFile != null && snapshot != null) {
+			deleteSnapshot(conf, snapshot);
+		}
+
+		if (success && watermarkFile != null) {
+			if (previous.getOutput() != null && counters == null) {
+				success = merge(conf, previous.getOutput(), jobOutput, outputPath, reducers, partitions);
+				jobOutput.getFileSystem(conf).delete(jobOutput, true);
+			}
+			if (success) {
+				// The counters table holds the counts of all runs.
+				new Watermark(now, counters != null ? null : outputPath.getFileSystem(conf).makeQualified(outputPath))
+						.write(watermarkFile.getFileSystem(conf), watermarkFile);
+				// Merged into the new counts, which replace them.
+				if (previous.getOutput() != null && counters == null) {
+					previous.getOutput().getFileSystem(conf).delete(previous.getOutput(), true);
+				}
+			}
+		}
+		if (partitions != null) {
+			partitions.getFileSystem(conf).delete(partitions, false);
+		}
+		System.exit(success ? 0 : 1);
+	}
+
+	/**
+	 * Adds up the counts of a previous run and the counts of the cells
+	 * written since then.
+	 *
+	 * @param conf
+	 *            The job configuration.
+	 * @param previous
+	 *            The output of the previous run.
+	 * @param delta
+	 *            The output of the current run.
+	 * @param output
+	 *            The directory to write the merged counts to.
+	 * @param reducers
+	 *            The number of reducers.
+	 * @param partitions
+	 *            The partition file of the analysis, used with more than one
+	 *            reducer.
+	 * @return <code>true</code> if the merge succeeded.
+	 * @throws Exception
+	 *             When running the job fails.
+	 */
+	private static boolean merge(Configuration conf, Path previous, Path delta, Path output, int reducers,
+			Path partitions) throws Exception {
+		if (!previous.getFileSystem(conf).exists(previous)) {
+			throw new IOException("The counts of the previous run are gone: " + previous);
+		}
+		Job job = Job.getInstance(conf, "Merge counts of " + previous + " and " + delta);
+		job.setJarByClass(AnalyzeData.class);
+		job.setInputFormatClass(KeyValueTextInputFormat.class);
+		FileInputFormat.addInputPath(job, previous);
+		FileInputFormat.addInputPath(job, delta);
+		job.setMapperClass(MergeMapper.class);
+		job.setCombinerClass(AnalyzeReducer.class);
 		job.setReducerClass(AnalyzeReducer.class);
 		job.setOutputKeyClass(Text.class);
-		job.setOutputValueClass(IntWritable.class);
-		job.setNumReduceTasks(1);
-		FileOutputFormat.setOutputPath(job, new Path(output));
-		System.exit(job.waitForCompletion(true) ? 0 : 1);
+		job.setOutputValueClass(LongWritable.class);
+		if (reducers > 1) {
+			TotalOrderPartitioner.setPartitionFile(job.getConfiguration(), partitions);
+			job.setPartitionerClass(TotalOrderPartitioner.class);
+		}
+		job.setNumReduceTasks(reducers);
+		FileOutputFormat.setOutputPath(job, output);
+		return job.waitForCompletion(true);
 	}
 }
@@ -0,0 +1,129 @@
+package tableAsDataSource;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+// Estimates how often items occur in a fixed amount of memory. The estimate
+// never undercounts, and overcounts by at most epsilon times the total count
+// with probability 1 - delta. Sketches of the same size are merged by adding
+// up their counters.
+public class CountMinSketch implements Writable {
+
+	private int depth;
+	private int width;
+	private long[] counts;
+	private long total;
+
+	/**
+	 * Creates an empty sketch to read one into.
+	 */
+	public CountMinSketch() {
+	}
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param epsilon
+	 *            The overcount bound, relative to the total count.
+	 * @param delta
+	 *            The probability of exceeding the bound.
+	 */
+	public CountMinSketch(double epsilon, double delta) {
+		if (epsilon <= 0 || delta <= 0 || delta >= 1) {
+			throw new IllegalArgumentException("Invalid bounds: epsilon=" + epsilon + ", delta=" + delta);
+		}
+		width = (int) Math.ceil(Math.E / epsilon);
+		depth = (int) Math.ceil(Math.log(1 / delta));
+		counts = new long[depth * width];
+	}
+
+	// The counter of the item in a row, from two independent hashes.
+	private int index(int row, long hash1, long hash2) {
+		long hash = hash1 + row * hash2;
+		return row * width + (int) ((hash & Long.MAX_VALUE) % width);
+	}
+
+	/**
+	 * Adds occurrences of an item.
+	 *
+	 * @param hash1
+	 *            A 64-bit hash of the item.
+	 * @param hash2
+	 *            A second, independent 64-bit hash of the item.
+	 * @param count
+	 *            The number of occurrences.
+	 */
+	public void add(long hash1, long hash2, long count) {
+		for (int row = 0; row < depth; row++) {
+			counts[index(row, hash1, hash2)] += count;
+		}
+		total += count;
+	}
+
+	/**
+	 * Estimates how often an item occurred.
+	 *
+	 * @param hash1
+	 *            The first hash of the item.
+	 * @param hash2
+	 *            The second hash of the item.
+	 * @return The estimated count, never less than the actual one.
+	 */
+	public long estimate(long hash1, long hash2) {
+		long min = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			min = Math.min(min, counts[index(row, hash1, hash2)]);
+		}
+		return min;
+	}
+
+	/**
+	 * Adds the counts of another sketch.
+	 *
+	 * @param other
+	 *            A sketch created with the same bounds.
+	 */
+	public void merge(CountMinSketch other) {
+		if (other.depth != depth || other.width != width) {
+			throw new IllegalArgumentException("Cannot merge " + other.depth + "x" + other.width + " into " + depth
+					+ "x" + width);
+		}
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		total += other.total;
+	}
+
+	/**
+	 * @return The sum of all counts added.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(depth);
+		out.writeInt(width);
+		WritableUtils.writeVLong(out, total);
+		// Most counters of a sketch are small or zero.
+		for (long count : counts) {
+			WritableUtils.writeVLong(out, count);
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		depth = in.readInt();
+		width = in.readInt();
+		total = WritableUtils.readVLong(in);
+		counts = new long[depth * width];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = WritableUtils.readVLong(in);
+		}
+	}
+}
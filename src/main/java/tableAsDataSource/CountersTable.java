@@ -0,0 +1,60 @@
+package tableAsDataSource;
+
+import java.io.IOException;
+
+import admin.TableProvisioner;
+import admin.TableSpec;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// The table the counts per author can be written to instead of files: one
+// row per author with the count in data:count, updated with Increments.
+// Online readers get a count with a single Get, and incremental runs add to
+// the counts of the previous ones.
+public class CountersTable {
+
+	public static final byte[] FAMILY = Bytes.toBytes("data");
+	public static final byte[] QUALIFIER = Bytes.toBytes("count");
+
+	/**
+	 * Creates the table if it does not exist, with the settings from the
+	 * "table.spec.*" configuration.
+	 *
+	 * @param conf
+	 *            The configuration to connect with.
+	 * @param tableName
+	 *            The table.
+	 * @throws IOException
+	 *             When creating the table fails.
+	 */
+	public static void provision(Configuration conf, TableName tableName) throws IOException {
+		try (Connection connection = ConnectionFactory.createConnection(conf); Admin admin = connection.getAdmin()) {
+			new TableProvisioner(admin).create(tableName, TableSpec.fromConfiguration(conf, Bytes.toString(FAMILY)));
+		}
+	}
+
+	/**
+	 * Creates the Increment adding to the count of an author.
+	 *
+	 * @param key
+	 *            The author as UTF-8.
+	 * @param offset
+	 *            The offset of the author in the array.
+	 * @param length
+	 *            The length of the author.
+	 * @param count
+	 *            The amount to add.
+	 * @return The Increment.
+	 */
+	public static Increment increment(byte[] key, int offset, int length, long count) {
+		Increment increment = new Increment(key, offset, length);
+		increment.addColumn(FAMILY, QUALIFIER, count);
+		return increment;
+	}
+}
@@ -0,0 +1,52 @@
+package tableAsDataSource;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// Counts the records per author. The author is either the whole cell, when
+// imported with one column per field, or the "email" field of the JSON
+// record in the cell. Of a row with one column per field only the email
+// column is counted, the other fields (age, address) are not records.
+public class EmailAnalysis implements Analysis {
+
+	private static final byte[] EMAIL = Bytes.toBytes("email");
+
+	private final JsonFieldExtractor extractor = new JsonFieldExtractor("email");
+
+	@Override
+	public List<Cell> cells(List<Cell> row) {
+		for (Cell cell : row) {
+			if (CellUtil.matchingQualifier(cell, EMAIL)) {
+				return Collections.singletonList(cell);
+			}
+		}
+		return row;
+	}
+
+	@Override
+	public String map(Cell cell) {
+		if (CellUtil.matchingQualifier(cell, EMAIL)) {
+			// The data was imported with one column per field, the cell
+			// holds the author as-is.
+			return Bytes.toString(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+		}
+		// Find the author in the JSON data in place.
+		if (!extractor.extract(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength())) {
+			throw new IllegalArgumentException("Invalid JSON record");
+		}
+		String email = extractor.getString(0);
+		if (email == null) {
+			throw new IllegalArgumentException("No email in record");
+		}
+		return email;
+	}
+
+	@Override
+	public long reduce(long count, long other) {
+		return count + other;
+	}
+}
@@ -0,0 +1,251 @@
+package tableAsDataSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import tableAsDataSource.generated.EmailCountProtos;
+
+import com.google.protobuf.ByteString;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.PosixParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Coprocessor;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.client.coprocessor.Batch;
+import org.apache.hadoop.hbase.ipc.BlockingRpcCallback;
+import org.apache.hadoop.hbase.ipc.ServerRpcController;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+// Counts the authors of the imported data with the EmailCountEndpoint
+// coprocessor instead of a MapReduce job. All regions are asked in parallel,
+// each returns only its partial counts, which are merged here. A region
+// returns at most "-p" authors per response and is asked again for the
+// rest, so that a region with many authors does not build one huge response.
+public class EmailCountClient {
+	private static final Log LOG = LogFactory.getLog(EmailCountClient.class);
+
+	public static final String NAME = "EmailCountClient";
+
+	/**
+	 * The result of counting a table.
+	 */
+	public static class Counts {
+		public final Map<String, Long> counts = new HashMap<String, Long>();
+		public long regions = 0;
+		public long rows = 0;
+		public long cells = 0;
+		public long errors = 0;
+
+		void add(EmailCountProtos.EmailCountResponse response) {
+			rows += response.getRows();
+			cells += response.getCells();
+			errors += response.getErrors();
+			for (EmailCountProtos.EmailCount count : response.getCountsList()) {
+				Long current = counts.get(count.getEmail());
+				counts.put(count.getEmail(), current == null ? count.getCount() : current + count.getCount());
+			}
+		}
+
+		void add(Counts other) {
+			regions += other.regions;
+			rows += other.rows;
+			cells += other.cells;
+			errors += other.errors;
+			for (Map.Entry<String, Long> entry : other.counts.entrySet()) {
+				Long current = counts.get(entry.getKey());
+				counts.put(entry.getKey(), current == null ? entry.getValue() : current + entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Counts the authors in all regions of a table.
+	 *
+	 * @param table
+	 *            The table, the endpoint must be loaded for it.
+	 * @param family
+	 *            The column family to read.
+	 * @param qualifier
+	 *            The column to read, or <code>null</code> for the whole
+	 *            family.
+	 * @param maxEmails
+	 *            The most authors a region returns per response.
+	 * @return The merged counts.
+	 * @throws Throwable
+	 *             When calling a region fails.
+	 */
+	public static Counts count(Table table, byte[] family, byte[] qualifier, int maxEmails) throws Throwable {
+		EmailCountProtos.EmailCountRequest.Builder builder = EmailCountProtos.EmailCountRequest.newBuilder()
+				.setFamily(ByteString.copyFrom(family)).setMaxEmails(maxEmails);
+		if (qualifier != null) {
+			builder.setQualifier(ByteString.copyFrom(qualifier));
+		}
+		final EmailCountProtos.EmailCountRequest request = builder.build();
+
+		// The calls run in parallel on the connection's pool, one per region,
+		// each asking its region for page after page.
+		Map<byte[], Counts> results = table.coprocessorService(EmailCountProtos.EmailCountService.class, null, null,
+				new Batch.Call<EmailCountProtos.EmailCountService, Counts>() {
+					@Override
+					public Counts call(EmailCountProtos.EmailCountService counter) throws IOException {
+						Counts region = new Counts();
+						region.regions = 1;
+						EmailCountProtos.EmailCountRequest page = request;
+						while (true) {
+							ServerRpcController controller = new ServerRpcController();
+							BlockingRpcCallback<EmailCountProtos.EmailCountResponse> rpcCallback = new BlockingRpcCallback<EmailCountProtos.EmailCountResponse>();
+							counter.getCounts(controller, page, rpcCallback);
+							EmailCountProtos.EmailCountResponse response = rpcCallback.get();
+							if (controller.failedOnException()) {
+								throw controller.getFailedOn();
+							}
+							region.add(response);
+							if (!response.hasNextRow()) {
+								return region;
+							}
+							page = request.toBuilder().setStartRow(response.getNextRow()).build();
+						}
+					}
+				});
+
+		Counts counts = new Counts();
+		for (Counts region : results.values()) {
+			counts.add(region);
+		}
+		return counts;
+	}
+
+	/**
+	 * Loads the endpoint for a table, the table is disabled while it is
+	 * modified.
+	 *
+	 * @param admin
+	 *            The admin to modify the table with.
+	 * @param tableName
+	 *            The table.
+	 * @param jar
+	 *            The jar with the endpoint and its dependencies, usually in
+	 *            HDFS.
+	 * @throws IOException
+	 *             When modifying the table fails.
+	 */
+	public static void install(Admin admin, TableName tableName, Path jar) throws IOException {
+		HTableDescriptor desc = admin.getTableDescriptor(tableName);
+		String className = EmailCountEndpoint.class.getName();
+		if (desc.hasCoprocessor(className)) {
+			desc.removeCoprocessor(className);
+		}
+		desc.addCoprocessor(className, jar, Coprocessor.PRIORITY_USER, null);
+		admin.disableTable(tableName);
+		try {
+			admin.modifyTable(tableName, desc);
+		} finally {
+			admin.enableTable(tableName);
+		}
+		LOG.info("Loaded " + className + " from " + jar + " for " + tableName);
+	}
+
+	/**
+	 * Parse the command line parameters.
+	 *
+	 * @param args
+	 *            The parameters to parse.
+	 * @return The parsed command line.
+	 */
+	private static CommandLine parseArgs(String[] args) {
+		Options options = new Options();
+		Option o = new Option("t", "table", true, "table to read from (must exist)");
+		o.setArgName("table-name");
+		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("c", "column", true, "column to read data from, e.g. data:json or data:email (default: data)");
+		o.setArgName("family:qualifier");
+		options.addOption(o);
+
+		o = new Option("p", "page", true, "most authors a region returns per response (default: 10000)");
+		o.setArgName("authors");
+		options.addOption(o);
+
+		o = new Option("l", "load", true, "load the endpoint from this jar before counting");
+		o.setArgName("path-in-HDFS");
+		options.addOption(o);
+
+		CommandLineParser parser = new PosixParser();
+		CommandLine cmd = null;
+
+		try {
+			cmd = parser.parse(options, args);
+		} catch (Exception e) {
+			System.err.println("ERROR: " + e.getMessage() + "\n");
+			HelpFormatter formatter = new HelpFormatter();
+			formatter.printHelp(NAME + " ", options, true);
+			System.exit(-1);
+		}
+		return cmd;
+	}
+
+	/**
+	 * Main entry point.
+	 *
+	 * @param args
+	 *            The command line parameters.
+	 * @throws Throwable
+	 *             When counting fails.
+	 */
+	public static void main(String[] args) throws Throwable {
+		Configuration conf = HBaseConfiguration.create();
+		String[] otherArgs = new GenericOptionsParser(conf, args).getRemainingArgs();
+		CommandLine cmd = parseArgs(otherArgs);
+		TableName tableName = TableName.valueOf(cmd.getOptionValue("t"));
+		byte[][] colkey = KeyValue.parseColumn(Bytes.toBytes(cmd.getOptionValue("c", "data")));
+
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Table table = connection.getTable(tableName)) {
+			if (cmd.hasOption("l")) {
+				try (Admin admin = connection.getAdmin()) {
+					install(admin, tableName, new Path(cmd.getOptionValue("l")));
+				}
+			}
+
+			long start = System.currentTimeMillis();
+			Counts counts = count(table, colkey[0], colkey.length > 1 ? colkey[1] : null,
+					Integer.parseInt(cmd.getOptionValue("p", "10000")));
+			long time = System.currentTimeMillis() - start;
+
+			List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(counts.counts.entrySet());
+			Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+				@Override
+				public int compare(Map.Entry<String, Long> a, Map.Entry<String, Long> b) {
+					return a.getKey().compareTo(b.getKey());
+				}
+			});
+			for (Map.Entry<String, Long> entry : entries) {
+				System.out.println(entry.getKey() + "\t" + entry.getValue());
+			}
+			System.err.println("Counted " + counts.rows + " rows, " + counts.cells + " cells (" + counts.errors
+					+ " errors) in " + counts.regions + " regions in " + time + " ms");
+		}
+	}
+}
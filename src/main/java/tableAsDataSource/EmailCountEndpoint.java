@@ -0,0 +1,156 @@
+package tableAsDataSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import tableAsDataSource.generated.EmailCountProtos;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.RpcCallback;
+import com.google.protobuf.RpcController;
+import com.google.protobuf.Service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.Coprocessor;
+import org.apache.hadoop.hbase.CoprocessorEnvironment;
+import org.apache.hadoop.hbase.DoNotRetryIOException;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.coprocessor.CoprocessorException;
+import org.apache.hadoop.hbase.coprocessor.CoprocessorService;
+import org.apache.hadoop.hbase.coprocessor.RegionCoprocessorEnvironment;
+import org.apache.hadoop.hbase.protobuf.ResponseConverter;
+import org.apache.hadoop.hbase.regionserver.HRegion;
+import org.apache.hadoop.hbase.regionserver.InternalScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// Coprocessor endpoint that does the work of AnalyzeData inside the region
+// server: it scans the region locally, extracts the author of each record and
+// returns only the counts per author. See EmailCountClient for the caller.
+//
+// A region with many authors is returned in pages: the response ends after
+// the row that reached the max_emails of the request, and its next_row is
+// where the next request continues. The counts of the pages add up.
+//
+// The jar of this project has to be available to the region servers, e.g. in
+// HDFS when loaded with EmailCountClient -l.
+public class EmailCountEndpoint extends EmailCountProtos.EmailCountService implements Coprocessor,
+		CoprocessorService {
+	private static final Log LOG = LogFactory.getLog(EmailCountEndpoint.class);
+
+	private RegionCoprocessorEnvironment env;
+
+	@Override
+	public void start(CoprocessorEnvironment env) throws IOException {
+		if (env instanceof RegionCoprocessorEnvironment) {
+			this.env = (RegionCoprocessorEnvironment) env;
+		} else {
+			throw new CoprocessorException("Must be loaded on a table region!");
+		}
+	}
+
+	@Override
+	public void stop(CoprocessorEnvironment env) throws IOException {
+	}
+
+	@Override
+	public Service getService() {
+		return this;
+	}
+
+	/**
+	 * Counts the authors of the records in the region, or a page of them.
+	 *
+	 * @param controller
+	 *            Carries an exception back to the client.
+	 * @param request
+	 *            The column to read and the page.
+	 * @param done
+	 *            Receives the response.
+	 */
+	@Override
+	public void getCounts(RpcController controller, EmailCountProtos.EmailCountRequest request,
+			RpcCallback<EmailCountProtos.EmailCountResponse> done) {
+		Scan scan = new Scan();
+		if (request.hasQualifier()) {
+			scan.addColumn(request.getFamily().toByteArray(), request.getQualifier().toByteArray());
+		} else {
+			scan.addFamily(request.getFamily().toByteArray());
+		}
+		// A one-time full scan, keep the block cache for the online traffic.
+		scan.setCacheBlocks(false);
+		int maxEmails = request.hasMaxEmails() ? request.getMaxEmails() : Integer.MAX_VALUE;
+
+		Analysis analysis = new EmailAnalysis();
+		Map<String, Long> counts = new HashMap<String, Long>();
+		long rows = 0;
+		long cells = 0;
+		long errors = 0;
+		EmailCountProtos.EmailCountResponse response = null;
+		InternalScanner scanner = null;
+		try {
+			if (request.hasStartRow()) {
+				byte[] startRow = request.getStartRow().toByteArray();
+				// The region split or moved between the pages, the rows
+				// after the start row may be in another region now.
+				if (!HRegion.rowIsInRange(env.getRegion().getRegionInfo(), startRow)) {
+					throw new DoNotRetryIOException("Row " + Bytes.toStringBinary(startRow) + " is not in region "
+							+ env.getRegion().getRegionInfo().getRegionNameAsString() + " anymore, count again");
+				}
+				scan.setStartRow(startRow);
+			}
+			scanner = env.getRegion().getScanner(scan);
+			List<Cell> results = new ArrayList<Cell>();
+			byte[] lastRow = null;
+			boolean more;
+			do {
+				results.clear();
+				more = scanner.next(results);
+				if (!results.isEmpty()) {
+					rows++;
+					lastRow = CellUtil.cloneRow(results.get(0));
+				}
+				for (Cell cell : analysis.cells(results)) {
+					cells++;
+					String email;
+					try {
+						email = analysis.map(cell);
+					} catch (IllegalArgumentException e) {
+						errors++;
+						continue;
+					}
+					Long count = counts.get(email);
+					counts.put(email, count == null ? 1 : analysis.reduce(count, 1));
+				}
+			} while (more && (lastRow == null || counts.size() < maxEmails));
+
+			EmailCountProtos.EmailCountResponse.Builder builder = EmailCountProtos.EmailCountResponse.newBuilder()
+					.setRows(rows).setCells(cells).setErrors(errors);
+			if (more) {
+				// The smallest row after the last one counted.
+				builder.setNextRow(ByteString.copyFrom(Bytes.add(lastRow, new byte[1])));
+			}
+			for (Map.Entry<String, Long> entry : counts.entrySet()) {
+				builder.addCounts(EmailCountProtos.EmailCount.newBuilder().setEmail(entry.getKey())
+						.setCount(entry.getValue()));
+			}
+			response = builder.build();
+		} catch (IOException e) {
+			ResponseConverter.setControllerException(controller, e);
+		} finally {
+			if (scanner != null) {
+				try {
+					scanner.close();
+				} catch (IOException e) {
+					LOG.warn("Closing the scanner failed", e);
+				}
+			}
+		}
+		done.run(response);
+	}
+}
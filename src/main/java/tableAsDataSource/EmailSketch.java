@@ -0,0 +1,209 @@
+package tableAsDataSource;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+// The approximate analysis of the authors: a HyperLogLog for the number of
+// distinct authors, and a Count-Min sketch with the current top authors for
+// the heavy hitters. Its size depends only on the configured error bounds,
+// not on the data, so each mapper emits one sketch of constant size.
+// Instances are not thread-safe, use one per task or thread.
+public class EmailSketch implements Writable {
+
+	public static final String CONF_DISTINCT_ERROR = "conf.approx.distinct.error";
+	public static final String CONF_EPSILON = "conf.approx.epsilon";
+	public static final String CONF_DELTA = "conf.approx.delta";
+	public static final String CONF_TOP = "conf.approx.top";
+
+	private static final HashFunction HASH = Hashing.murmur3_128();
+
+	private HyperLogLog distinct;
+	private CountMinSketch frequencies;
+	private int top;
+
+	// The candidates for the top authors with their estimated counts, kept
+	// at no more than "top" entries.
+	private final Map<String, Long> candidates = new HashMap<String, Long>();
+	private String minCandidate;
+	private long minCount;
+
+	/**
+	 * Creates an empty sketch to read one into.
+	 */
+	public EmailSketch() {
+	}
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param distinctError
+	 *            The relative standard error of the distinct count.
+	 * @param epsilon
+	 *            The overcount bound of the author counts, relative to the
+	 *            total count.
+	 * @param delta
+	 *            The probability of exceeding the overcount bound.
+	 * @param top
+	 *            The number of top authors to keep.
+	 */
+	public EmailSketch(double distinctError, double epsilon, double delta, int top) {
+		this.distinct = new HyperLogLog(HyperLogLog.precisionFor(distinctError));
+		this.frequencies = new CountMinSketch(epsilon, delta);
+		this.top = top;
+	}
+
+	/**
+	 * Creates a sketch with the bounds from the configuration.
+	 *
+	 * @param conf
+	 *            The configuration.
+	 * @return The empty sketch.
+	 */
+	public static EmailSketch create(Configuration conf) {
+		return new EmailSketch(conf.getFloat(CONF_DISTINCT_ERROR, 0.01f), conf.getFloat(CONF_EPSILON, 0.001f),
+				conf.getFloat(CONF_DELTA, 0.01f), conf.getInt(CONF_TOP, 100));
+	}
+
+	/**
+	 * Adds an occurrence of an author.
+	 *
+	 * @param email
+	 *            The author.
+	 */
+	public void add(String email) {
+		byte[] hash = HASH.hashBytes(Bytes.toBytes(email)).asBytes();
+		long hash1 = Bytes.toLong(hash, 0);
+		long hash2 = Bytes.toLong(hash, Bytes.SIZEOF_LONG);
+		distinct.add(hash1);
+		frequencies.add(hash1, hash2, 1);
+		offer(email, frequencies.estimate(hash1, hash2));
+	}
+
+	private long estimate(String email) {
+		byte[] hash = HASH.hashBytes(Bytes.toBytes(email)).asBytes();
+		return frequencies.estimate(Bytes.toLong(hash, 0), Bytes.toLong(hash, Bytes.SIZEOF_LONG));
+	}
+
+	// Updates the candidates, replacing the smallest one when the author
+	// has overtaken it.
+	private void offer(String email, long count) {
+		if (candidates.containsKey(email)) {
+			candidates.put(email, count);
+			if (email.equals(minCandidate)) {
+				minCandidate = null;
+			}
+			return;
+		}
+		if (candidates.size() < top) {
+			candidates.put(email, count);
+			minCandidate = null;
+			return;
+		}
+		if (minCandidate == null) {
+			// Only rescanned when the smallest candidate changed.
+			minCount = Long.MAX_VALUE;
+			for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+				if (entry.getValue() < minCount) {
+					minCandidate = entry.getKey();
+					minCount = entry.getValue();
+				}
+			}
+		}
+		if (count > minCount) {
+			candidates.remove(minCandidate);
+			candidates.put(email, count);
+			minCandidate = null;
+		}
+	}
+
+	/**
+	 * Adds the authors of another sketch. The candidates of both are
+	 * estimated again against the merged counts.
+	 *
+	 * @param other
+	 *            A sketch created with the same bounds.
+	 */
+	public void merge(EmailSketch other) {
+		distinct.merge(other.distinct);
+		frequencies.merge(other.frequencies);
+		List<String> emails = new ArrayList<String>(candidates.keySet());
+		emails.addAll(other.candidates.keySet());
+		candidates.clear();
+		minCandidate = null;
+		for (String email : emails) {
+			offer(email, estimate(email));
+		}
+	}
+
+	/**
+	 * @return The estimated number of distinct authors.
+	 */
+	public long getDistinct() {
+		return distinct.cardinality();
+	}
+
+	/**
+	 * @return The total number of occurrences added.
+	 */
+	public long getTotal() {
+		return frequencies.getTotal();
+	}
+
+	/**
+	 * @return The top authors with their estimated counts, largest first.
+	 */
+	public List<Map.Entry<String, Long>> getTop() {
+		List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(candidates.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+			@Override
+			public int compare(Map.Entry<String, Long> a, Map.Entry<String, Long> b) {
+				int diff = b.getValue().compareTo(a.getValue());
+				return diff != 0 ? diff : a.getKey().compareTo(b.getKey());
+			}
+		});
+		return entries;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		distinct.write(out);
+		frequencies.write(out);
+		WritableUtils.writeVInt(out, top);
+		WritableUtils.writeVInt(out, candidates.size());
+		for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+			Text.writeString(out, entry.getKey());
+			WritableUtils.writeVLong(out, entry.getValue());
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		distinct = new HyperLogLog();
+		distinct.readFields(in);
+		frequencies = new CountMinSketch();
+		frequencies.readFields(in);
+		top = WritableUtils.readVInt(in);
+		candidates.clear();
+		minCandidate = null;
+		int size = WritableUtils.readVInt(in);
+		for (int i = 0; i < size; i++) {
+			candidates.put(Text.readString(in), WritableUtils.readVLong(in));
+		}
+	}
+}
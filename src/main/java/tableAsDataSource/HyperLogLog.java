@@ -0,0 +1,120 @@
+package tableAsDataSource;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.io.Writable;
+
+// Estimates the number of distinct items in a fixed amount of memory: 2^p
+// one-byte registers, with a relative standard error of 1.04 / sqrt(2^p).
+// Sketches with the same precision are merged by taking the maximum of each
+// register, which gives the estimate of the union.
+public class HyperLogLog implements Writable {
+
+	private int precision;
+	private byte[] registers;
+
+	/**
+	 * Creates an empty sketch to read one into.
+	 */
+	public HyperLogLog() {
+	}
+
+	/**
+	 * Creates an empty sketch.
+	 *
+	 * @param precision
+	 *            The number of index bits, between 4 and 18.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("Precision must be between 4 and 18: " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Computes the precision needed for a relative standard error.
+	 *
+	 * @param error
+	 *            The error, e.g. 0.01 for 1%.
+	 * @return The precision, capped to the supported range.
+	 */
+	public static int precisionFor(double error) {
+		int precision = (int) Math.ceil(Math.log(Math.pow(1.04 / error, 2)) / Math.log(2));
+		return Math.max(4, Math.min(18, precision));
+	}
+
+	/**
+	 * Adds an item.
+	 *
+	 * @param hash
+	 *            A 64-bit hash of the item.
+	 */
+	public void add(long hash) {
+		int index = (int) (hash >>> (64 - precision));
+		// The position of the first 1 bit in the remaining bits.
+		int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+		if (rank > registers[index]) {
+			registers[index] = (byte) rank;
+		}
+	}
+
+	/**
+	 * Adds the items of another sketch.
+	 *
+	 * @param other
+	 *            A sketch with the same precision.
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+		}
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * @return The estimated number of distinct items added.
+	 */
+	public long cardinality() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// Few items, linear counting is more accurate.
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		out.writeByte(precision);
+		out.write(registers);
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		precision = in.readByte();
+		registers = new byte[1 << precision];
+		in.readFully(registers);
+	}
+}
@@ -0,0 +1,320 @@
+package tableAsDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+// Finds a few top-level fields of a UTF-8 encoded JSON object in place,
+// without parsing the record into objects. The values are returned as
+// offsets into the scanned buffer, e.g. a cell's value array, and only
+// decoded to Strings on request. Scanning stops once all requested fields
+// have been found, so the rest of the record is not validated; the first
+// occurrence of a duplicate key wins.
+// Instances are not thread-safe, use one per task or thread.
+public class JsonFieldExtractor {
+
+	private final byte[][] names;
+	private final int[] offsets;
+	private final int[] lengths;
+	private final boolean[] strings;
+	private final boolean[] escaped;
+	private byte[] buffer;
+	private int found;
+
+	// The end of the last token read, set by the scanning methods.
+	private int end;
+	private boolean hasEscape;
+
+	/**
+	 * Creates an extractor for the given keys.
+	 *
+	 * @param fields
+	 *            The top-level keys to look for.
+	 */
+	public JsonFieldExtractor(String... fields) {
+		names = new byte[fields.length][];
+		for (int i = 0; i < fields.length; i++) {
+			names[i] = Bytes.toBytes(fields[i]);
+		}
+		offsets = new int[fields.length];
+		lengths = new int[fields.length];
+		strings = new boolean[fields.length];
+		escaped = new boolean[fields.length];
+	}
+
+	/**
+	 * Scans a record for the fields.
+	 *
+	 * @param buf
+	 *            The buffer holding the record.
+	 * @param offset
+	 *            The offset of the record in the buffer.
+	 * @param length
+	 *            The length of the record.
+	 * @return <code>false</code> if the record is not a JSON object, as far
+	 *         as it was scanned.
+	 */
+	public boolean extract(byte[] buf, int offset, int length) {
+		buffer = buf;
+		found = 0;
+		Arrays.fill(offsets, -1);
+		int limit = offset + length;
+
+		int pos = skipWhitespace(buf, offset, limit);
+		if (pos >= limit || buf[pos] != '{') {
+			return false;
+		}
+		pos = skipWhitespace(buf, pos + 1, limit);
+		if (pos < limit && buf[pos] == '}') {
+			return true;
+		}
+		while (pos < limit) {
+			// "key"
+			if (buf[pos] != '"' || !scanString(buf, pos + 1, limit)) {
+				return false;
+			}
+			int field = match(buf, pos + 1, end - 1, hasEscape);
+			pos = skipWhitespace(buf, end, limit);
+			if (pos >= limit || buf[pos] != ':') {
+				return false;
+			}
+			pos = skipWhitespace(buf, pos + 1, limit);
+			if (pos >= limit) {
+				return false;
+			}
+
+			// value
+			boolean string = buf[pos] == '"';
+			if (string ? !scanString(buf, pos + 1, limit) : !scanValue(buf, pos, limit)) {
+				return false;
+			}
+			if (field >= 0 && offsets[field] < 0) {
+				offsets[field] = string ? pos + 1 : pos;
+				lengths[field] = string ? end - pos - 2 : end - pos;
+				strings[field] = string;
+				escaped[field] = string && hasEscape;
+				if (++found == names.length) {
+					return true;
+				}
+			}
+
+			pos = skipWhitespace(buf, end, limit);
+			if (pos >= limit) {
+				return false;
+			}
+			if (buf[pos] == '}') {
+				return true;
+			}
+			if (buf[pos] != ',') {
+				return false;
+			}
+			pos = skipWhitespace(buf, pos + 1, limit);
+		}
+		return false;
+	}
+
+	// Returns the index of the requested field with this key, or -1.
+	private int match(byte[] buf, int from, int to, boolean escapedKey) {
+		if (escapedKey) {
+			byte[] key = Bytes.toBytes(decode(buf, from, to - from));
+			for (int i = 0; i < names.length; i++) {
+				if (Bytes.equals(names[i], key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		for (int i = 0; i < names.length; i++) {
+			if (Bytes.equals(names[i], 0, names[i].length, buf, from, to - from)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int skipWhitespace(byte[] buf, int pos, int limit) {
+		while (pos < limit && (buf[pos] == ' ' || buf[pos] == '\t' || buf[pos] == '\n' || buf[pos] == '\r')) {
+			pos++;
+		}
+		return pos;
+	}
+
+	// Scans the rest of a string after the opening quote. Sets end past the
+	// closing quote.
+	private boolean scanString(byte[] buf, int pos, int limit) {
+		hasEscape = false;
+		while (pos < limit) {
+			byte b = buf[pos];
+			if (b == '"') {
+				end = pos + 1;
+				return true;
+			}
+			if (b == '\\') {
+				hasEscape = true;
+				pos++;
+			}
+			pos++;
+		}
+		return false;
+	}
+
+	// Scans a number, literal, object or array. Sets end past the value.
+	private boolean scanValue(byte[] buf, int pos, int limit) {
+		byte first = buf[pos];
+		if (first != '{' && first != '[') {
+			int start = pos;
+			while (pos < limit && buf[pos] != ',' && buf[pos] != '}' && buf[pos] != ']' && buf[pos] != ' '
+					&& buf[pos] != '\t' && buf[pos] != '\n' && buf[pos] != '\r') {
+				pos++;
+			}
+			end = pos;
+			return pos > start;
+		}
+		int depth = 0;
+		while (pos < limit) {
+			byte b = buf[pos];
+			if (b == '"') {
+				if (!scanString(buf, pos + 1, limit)) {
+					return false;
+				}
+				pos = end;
+				continue;
+			}
+			if (b == '{' || b == '[') {
+				depth++;
+			} else if (b == '}' || b == ']') {
+				if (--depth == 0) {
+					end = pos + 1;
+					return true;
+				}
+			}
+			pos++;
+		}
+		return false;
+	}
+
+	/**
+	 * @param field
+	 *            The index of the field, in the order given to the
+	 *            constructor.
+	 * @return <code>true</code> if the last record has the field.
+	 */
+	public boolean isFound(int field) {
+		return offsets[field] >= 0;
+	}
+
+	/**
+	 * @param field
+	 *            The index of the field.
+	 * @return <code>true</code> if the value is a JSON string.
+	 */
+	public boolean isString(int field) {
+		return strings[field];
+	}
+
+	/**
+	 * @param field
+	 *            The index of the field.
+	 * @return <code>true</code> if the value is a string containing escapes,
+	 *         its bytes are then not the decoded value.
+	 */
+	public boolean isEscaped(int field) {
+		return escaped[field];
+	}
+
+	/**
+	 * @param field
+	 *            The index of the field.
+	 * @return The offset of the value in the scanned buffer; for strings
+	 *         after the opening quote.
+	 */
+	public int getOffset(int field) {
+		return offsets[field];
+	}
+
+	/**
+	 * @param field
+	 *            The index of the field.
+	 * @return The length of the value; for strings without the quotes.
+	 */
+	public int getLength(int field) {
+		return lengths[field];
+	}
+
+	/**
+	 * @return The buffer of the last record.
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Decodes a string field.
+	 *
+	 * @param field
+	 *            The index of the field.
+	 * @return The value, or <code>null</code> if the field is missing or not
+	 *         a string.
+	 * @throws IllegalArgumentException
+	 *             When the string has an invalid escape.
+	 */
+	public String getString(int field) {
+		if (!isFound(field) || !strings[field]) {
+			return null;
+		}
+		if (!escaped[field]) {
+			return new String(buffer, offsets[field], lengths[field], StandardCharsets.UTF_8);
+		}
+		return decode(buffer, offsets[field], lengths[field]);
+	}
+
+	private static String decode(byte[] buf, int offset, int length) {
+		StringBuilder sb = new StringBuilder(length);
+		int start = offset;
+		int limit = offset + length;
+		for (int pos = offset; pos < limit; pos++) {
+			if (buf[pos] != '\\') {
+				continue;
+			}
+			sb.append(new String(buf, start, pos - start, StandardCharsets.UTF_8));
+			if (++pos >= limit) {
+				throw new IllegalArgumentException("Incomplete escape");
+			}
+			switch (buf[pos]) {
+			case '"':
+			case '\\':
+			case '/':
+				sb.append((char) buf[pos]);
+				break;
+			case 'b':
+				sb.append('\b');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 't':
+				sb.append('\t');
+				break;
+			case 'u':
+				if (pos + 4 >= limit) {
+					throw new IllegalArgumentException("Incomplete unicode escape");
+				}
+				sb.append((char) Integer.parseInt(new String(buf, pos + 1, 4, StandardCharsets.US_ASCII), 16));
+				pos += 4;
+				break;
+			default:
+				throw new IllegalArgumentException("Invalid escape \\" + (char) buf[pos]);
+			}
+			start = pos + 1;
+		}
+		sb.append(new String(buf, start, limit - start, StandardCharsets.UTF_8));
+		return sb.toString();
+	}
+}
@@ -0,0 +1,363 @@
+package tableAsDataSource;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.PosixParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.RegionSizeCalculator;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+// Runs the analysis of AnalyzeData in the client instead of as a MapReduce
+// job, which for small tables takes longer to set up than to scan. Each
+// region, or key range of a large region, is scanned by a task on a thread
+// pool, applying the same Analysis as AnalyzeMapper and AnalyzeReducer. The
+// output has the same lines, in the same order, as the job's.
+public class LocalAnalyzer {
+	private static final Log LOG = LogFactory.getLog(LocalAnalyzer.class);
+
+	public static final String NAME = "LocalAnalyzer";
+
+	/**
+	 * The counts of a key range, or of the whole table.
+	 */
+	public static class Counts {
+		public final Map<String, Long> counts = new HashMap<String, Long>();
+		public long rows = 0;
+		public long cells = 0;
+		public long errors = 0;
+
+		void add(Counts other, Analysis analysis) {
+			rows += other.rows;
+			cells += other.cells;
+			errors += other.errors;
+			for (Map.Entry<String, Long> entry : other.counts.entrySet()) {
+				Long count = counts.get(entry.getKey());
+				counts.put(entry.getKey(), count == null ? entry.getValue() : analysis.reduce(count,
+						entry.getValue()));
+			}
+		}
+	}
+
+	// Scans one key range.
+	private static class Range implements Callable<Counts> {
+		private final Connection connection;
+		private final TableName tableName;
+		private final Scan scan;
+
+		Range(Connection connection, TableName tableName, Scan scan) {
+			this.connection = connection;
+			this.tableName = tableName;
+			this.scan = scan;
+		}
+
+		@Override
+		public Counts call() throws IOException {
+			Analysis analysis = new EmailAnalysis();
+			Counts counts = new Counts();
+			try (Table table = connection.getTable(tableName); ResultScanner scanner = table.getScanner(scan)) {
+				for (Result columns : scanner) {
+					counts.rows++;
+					// Like AnalyzeMapper, an invalid cell ends its row.
+					try {
+						for (Cell cell : analysis.cells(columns.listCells())) {
+							counts.cells++;
+							String key = analysis.map(cell);
+							Long count = counts.counts.get(key);
+							counts.counts.put(key, count == null ? 1 : analysis.reduce(count, 1));
+						}
+					} catch (IllegalArgumentException e) {
+						counts.errors++;
+					}
+				}
+			}
+			return counts;
+		}
+	}
+
+	/**
+	 * Computes the key ranges to scan, one per region, with regions larger
+	 * than the split size divided like SubSplitTableInputFormat does.
+	 *
+	 * @param connection
+	 *            The connection to look up the regions with.
+	 * @param tableName
+	 *            The table.
+	 * @param splitSize
+	 *            The size in bytes above which regions are divided, 0 for
+	 *            one range per region.
+	 * @return The start and stop keys of the ranges.
+	 * @throws IOException
+	 *             When looking up the regions fails.
+	 */
+	public static List<byte[][]> ranges(Connection connection, TableName tableName, long splitSize)
+			throws IOException {
+		List<byte[][]> ranges = new ArrayList<byte[][]>();
+		try (RegionLocator locator = connection.getRegionLocator(tableName); Admin admin = connection.getAdmin()) {
+			RegionSizeCalculator sizes = new RegionSizeCalculator(locator, admin);
+			for (HRegionLocation location : locator.getAllRegionLocations()) {
+				HRegionInfo region = location.getRegionInfo();
+				long size = sizes.getRegionSize(region.getRegionName());
+				int pieces = splitSize > 0 ? (int) Math.min(Integer.MAX_VALUE, (size + splitSize - 1) / splitSize) : 1;
+				byte[] start = region.getStartKey();
+				if (pieces > 1) {
+					for (byte[] key : SubSplitTableInputFormat.rangeKeys(start, region.getEndKey(), pieces)) {
+						ranges.add(new byte[][] { start, key });
+						start = key;
+					}
+				}
+				ranges.add(new byte[][] { start, region.getEndKey() });
+			}
+		}
+		return ranges;
+	}
+
+	/**
+	 * Analyzes a table.
+	 *
+	 * @param connection
+	 *            The connection to scan with, shared by the tasks.
+	 * @param tableName
+	 *            The table.
+	 * @param scan
+	 *            The columns and scanner settings, without start and stop
+	 *            row.
+	 * @param threads
+	 *            The number of ranges to scan at the same time.
+	 * @param splitSize
+	 *            The size in bytes above which regions are divided, 0 for
+	 *            one range per region.
+	 * @return The merged counts.
+	 * @throws IOException
+	 *             When scanning a range fails.
+	 * @throws InterruptedException
+	 *             When interrupted while waiting for the tasks.
+	 */
+	public static Counts analyze(Connection connection, TableName tableName, Scan scan, int threads, long splitSize)
+			throws IOException, InterruptedException {
+		List<byte[][]> ranges = ranges(connection, tableName, splitSize);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Counts>> futures = new ArrayList<Future<Counts>>();
+			for (byte[][] range : ranges) {
+				Scan rangeScan = new Scan(scan);
+				rangeScan.setStartRow(range[0]);
+				rangeScan.setStopRow(range[1]);
+				futures.add(pool.submit(new Range(connection, tableName, rangeScan)));
+			}
+			LOG.info("Scanning " + ranges.size() + " ranges with " + threads + " threads");
+
+			Analysis analysis = new EmailAnalysis();
+			Counts counts = new Counts();
+			for (Future<Counts> future : futures) {
+				try {
+					counts.add(future.get(), analysis);
+				} catch (ExecutionException e) {
+					throw new IOException("Scanning a range failed", e.getCause());
+				}
+			}
+			return counts;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Adds the counts to the counts in the counters table.
+	 *
+	 * @param connection
+	 *            The connection to write with.
+	 * @param tableName
+	 *            The counters table.
+	 * @param counts
+	 *            The counts to add.
+	 * @throws IOException
+	 *             When writing fails.
+	 */
+	public static void writeCounters(Connection connection, TableName tableName, Counts counts) throws IOException {
+		// One Increment per author, there is nothing to add up.
+		try (BufferedMutator mutator = connection.getBufferedMutator(tableName)) {
+			for (Map.Entry<String, Long> entry : counts.counts.entrySet()) {
+				byte[] key = Bytes.toBytes(entry.getKey());
+				mutator.mutate(CountersTable.increment(key, 0, key.length, entry.getValue()));
+			}
+		}
+	}
+
+	/**
+	 * Writes the counts as lines of author and count, sorted by the UTF-8
+	 * bytes of the authors, the order of the Text keys in the job's output.
+	 *
+	 * @param counts
+	 *            The counts.
+	 * @param file
+	 *            The local file to write to, <code>null</code> for the
+	 *            standard output.
+	 * @throws IOException
+	 *             When writing fails.
+	 */
+	private static void write(Counts counts, String file) throws IOException {
+		Map<byte[], Long> sorted = new TreeMap<byte[], Long>(Bytes.BYTES_COMPARATOR);
+		for (Map.Entry<String, Long> entry : counts.counts.entrySet()) {
+			sorted.put(Bytes.toBytes(entry.getKey()), entry.getValue());
+		}
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(file != null ? new FileOutputStream(file)
+				: System.out, StandardCharsets.UTF_8));
+		try {
+			for (Map.Entry<byte[], Long> entry : sorted.entrySet()) {
+				out.print(Bytes.toString(entry.getKey()));
+				out.print('\t');
+				out.print(entry.getValue());
+				out.print('\n');
+			}
+		} finally {
+			out.flush();
+			if (file != null) {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * Parse the command line parameters.
+	 *
+	 * @param args
+	 *            The parameters to parse.
+	 * @return The parsed command line.
+	 */
+	private static CommandLine parseArgs(String[] args) {
+		Options options = new Options();
+		Option o = new Option("t", "table", true, "table to read from (must exist)");
+		o.setArgName("table-name");
+		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("c", "column", true, "column to read data from, e.g. data:json or data:email (must exist)");
+		o.setArgName("family:qualifier");
+		options.addOption(o);
+
+		o = new Option("o", "output", true, "the local file to write to (default: standard output)");
+		o.setArgName("path");
+		options.addOption(o);
+
+		o = new Option("x", "counters", true,
+				"add the counts to this table instead of writing them out, created if needed");
+		o.setArgName("table-name");
+		options.addOption(o);
+
+		o = new Option("w", "threads", true, "number of ranges to scan in parallel (default: 2 per core)");
+		o.setArgName("threads");
+		options.addOption(o);
+
+		o = new Option("z", "split-size", true,
+				"divide regions larger than this into several ranges, 0 for one range per region (default: 256)");
+		o.setArgName("MB");
+		options.addOption(o);
+
+		o = new Option("n", "caching", true, "rows fetched per scanner RPC (default: 500)");
+		o.setArgName("rows");
+		options.addOption(o);
+
+		CommandLineParser parser = new PosixParser();
+		CommandLine cmd = null;
+
+		try {
+			cmd = parser.parse(options, args);
+		} catch (Exception e) {
+			System.err.println("ERROR: " + e.getMessage() + "\n");
+			HelpFormatter formatter = new HelpFormatter();
+			formatter.printHelp(NAME + " ", options, true);
+			System.exit(-1);
+		}
+		return cmd;
+	}
+
+	/**
+	 * Main entry point.
+	 *
+	 * @param args
+	 *            The command line parameters.
+	 * @throws Exception
+	 *             When the analysis fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		Configuration conf = HBaseConfiguration.create();
+		String[] otherArgs = new GenericOptionsParser(conf, args).getRemainingArgs();
+		CommandLine cmd = parseArgs(otherArgs);
+		TableName tableName = TableName.valueOf(cmd.getOptionValue("t"));
+		String column = cmd.getOptionValue("c");
+		int threads = Integer.parseInt(cmd.getOptionValue("w",
+				String.valueOf(Runtime.getRuntime().availableProcessors() * 2)));
+		long splitSize = Long.parseLong(cmd.getOptionValue("z", "256")) * 1024 * 1024;
+
+		// The same scan settings as AnalyzeData.
+		Scan scan = new Scan();
+		scan.setCaching(Integer.parseInt(cmd.getOptionValue("n", "500")));
+		scan.setCacheBlocks(false);
+		if (column != null) {
+			byte[][] colkey = KeyValue.parseColumn(Bytes.toBytes(column));
+			if (colkey.length > 1) {
+				scan.addColumn(colkey[0], colkey[1]);
+			} else {
+				scan.addFamily(colkey[0]);
+			}
+		}
+
+		String counters = cmd.getOptionValue("x");
+		if (counters != null) {
+			CountersTable.provision(conf, TableName.valueOf(counters));
+		}
+
+		long start = System.currentTimeMillis();
+		Counts counts;
+		try (Connection connection = ConnectionFactory.createConnection(conf)) {
+			counts = analyze(connection, tableName, scan, threads, splitSize);
+			if (counters != null) {
+				writeCounters(connection, TableName.valueOf(counters), counts);
+			}
+		}
+		long time = System.currentTimeMillis() - start;
+
+		if (counters == null) {
+			write(counts, cmd.getOptionValue("o"));
+		}
+		System.err.println("Analyzed " + counts.rows + " rows, " + counts.cells + " cells (" + counts.errors
+				+ " errors) in " + time + " ms");
+	}
+}
@@ -0,0 +1,147 @@
+package tableAsDataSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.partition.TotalOrderPartitioner;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.hadoop.util.ReflectionUtils;
+
+// Builds the partition file for a TotalOrderPartitioner over the authors, so
+// that several reducers write globally sorted output. Like the SplitSampler
+// of InputSampler it reads the first rows of every region, which are random
+// authors as the row keys are hashes, but it samples the map output keys
+// (the authors), not the row keys of the input. The rows are read through
+// the input format of the job, so a job reading a snapshot is sampled from
+// the snapshot's HFiles, not from the region servers.
+//
+// The boundaries are placed between distinct authors: the mappers sum up the
+// counts per author, so a reducer receives about one record per author and
+// mapper, however often the author occurs. Frequent authors therefore do not
+// skew the reducers, while a sample weighted by occurrences would give them
+// too wide a key range.
+public class PartitionSampler {
+	private static final Log LOG = LogFactory.getLog(PartitionSampler.class);
+
+	public static final String CONF_SAMPLE_ROWS = "conf.sample.rows";
+
+	/**
+	 * Samples the authors of the job's input: the first rows of every region
+	 * of the live table, or of the snapshot if the job reads one, which keeps
+	 * the sampling off the region servers.
+	 *
+	 * @param job
+	 *            The job, with the table mapper already set up.
+	 * @param rows
+	 *            The number of rows to read per region.
+	 * @return The distinct sampled authors, as UTF-8 in Text order.
+	 * @throws IOException
+	 *             When reading the input fails.
+	 * @throws InterruptedException
+	 *             When interrupted while reading the input.
+	 */
+	public static TreeSet<byte[]> sample(Job job, int rows) throws IOException, InterruptedException {
+		// One split per region, large regions are not divided (and sampled)
+		// here a second time.
+		Configuration conf = new Configuration(job.getConfiguration());
+		conf.setLong(SubSplitTableInputFormat.CONF_SPLIT_SIZE, 0);
+		InputFormat<?, ?> format;
+		try {
+			format = ReflectionUtils.newInstance(job.getInputFormatClass(), conf);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Cannot load the input format of " + job.getJobName(), e);
+		}
+
+		Analysis analysis = new EmailAnalysis();
+		TreeSet<byte[]> sample = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+		for (InputSplit split : format.getSplits(Job.getInstance(conf))) {
+			TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+			try (RecordReader<?, ?> reader = format.createRecordReader(split, context)) {
+				reader.initialize(split, context);
+				for (int i = 0; i < rows && reader.nextKeyValue(); i++) {
+					for (Cell cell : analysis.cells(((Result) reader.getCurrentValue()).listCells())) {
+						try {
+							sample.add(Bytes.toBytes(analysis.map(cell)));
+						} catch (IllegalArgumentException e) {
+							// invalid records are counted by the job
+						}
+					}
+				}
+			}
+		}
+		return sample;
+	}
+
+	/**
+	 * Picks the boundaries between the partitions.
+	 *
+	 * @param sample
+	 *            The distinct sampled keys, sorted.
+	 * @param partitions
+	 *            The number of partitions wanted.
+	 * @return The boundaries, strictly increasing; for only as many
+	 *         partitions as the sample has keys if it has fewer.
+	 */
+	public static List<byte[]> boundaries(TreeSet<byte[]> sample, int partitions) {
+		List<byte[]> keys = new ArrayList<byte[]>(sample);
+		List<byte[]> boundaries = new ArrayList<byte[]>();
+		partitions = Math.min(partitions, keys.size());
+		for (int i = 1; i < partitions; i++) {
+			boundaries.add(keys.get((int) ((long) i * keys.size() / partitions)));
+		}
+		return boundaries;
+	}
+
+	/**
+	 * Samples the job's input and writes the partition file, setting it in
+	 * the job configuration.
+	 *
+	 * @param job
+	 *            The job, with the table mapper already set up.
+	 * @param reducers
+	 *            The number of reducers wanted.
+	 * @param file
+	 *            The partition file to write.
+	 * @return The number of reducers to run, less than asked for if the
+	 *         table has too few distinct authors.
+	 * @throws IOException
+	 *             When sampling or writing fails.
+	 * @throws InterruptedException
+	 *             When interrupted while sampling.
+	 */
+	public static int writePartitionFile(Job job, int reducers, Path file) throws IOException, InterruptedException {
+		Configuration conf = job.getConfiguration();
+		TreeSet<byte[]> sample = sample(job, conf.getInt(CONF_SAMPLE_ROWS, 1000));
+		List<byte[]> boundaries = boundaries(sample, reducers);
+		LOG.info("Sampled " + sample.size() + " distinct authors for " + (boundaries.size() + 1) + " partitions");
+
+		Text key = new Text();
+		try (SequenceFile.Writer writer = SequenceFile.createWriter(conf, SequenceFile.Writer.file(file),
+				SequenceFile.Writer.keyClass(Text.class), SequenceFile.Writer.valueClass(NullWritable.class))) {
+			for (byte[] boundary : boundaries) {
+				key.set(boundary);
+				writer.append(key, NullWritable.get());
+			}
+		}
+		TotalOrderPartitioner.setPartitionFile(conf, file);
+		return boundaries.size() + 1;
+	}
+}
@@ -0,0 +1,160 @@
+package tableAsDataSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import admin.TableProvisioner;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.RandomRowFilter;
+import org.apache.hadoop.hbase.mapreduce.TableInputFormat;
+import org.apache.hadoop.hbase.mapreduce.TableSplit;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+
+// A TableInputFormat that divides large regions into several key ranges, so
+// that the number of mappers follows the size of the data instead of the
+// number of regions, and a single large region does not hold up the job.
+//
+// A region of n times "conf.split.size" bytes gets n splits. The boundaries
+// are either computed from the region's start and end keys, which suits
+// uniformly distributed (hashed) row keys, or, with "conf.split.sample" set,
+// taken from a random sample of the region's row keys. Sampling reads the
+// region on the server once but returns only the sampled keys.
+public class SubSplitTableInputFormat extends TableInputFormat {
+	private static final Log LOG = LogFactory.getLog(SubSplitTableInputFormat.class);
+
+	public static final String CONF_SPLIT_SIZE = "conf.split.size";
+	public static final String CONF_SPLIT_SAMPLE = "conf.split.sample";
+
+	@Override
+	public List<InputSplit> getSplits(JobContext context) throws IOException {
+		List<InputSplit> splits = super.getSplits(context);
+		Configuration conf = context.getConfiguration();
+		long splitSize = conf.getLong(CONF_SPLIT_SIZE, 1024L * 1024 * 1024);
+		float sample = conf.getFloat(CONF_SPLIT_SAMPLE, 0);
+		if (splitSize <= 0) {
+			return splits;
+		}
+
+		List<InputSplit> result = new ArrayList<InputSplit>();
+		Connection connection = null;
+		try {
+			for (InputSplit split : splits) {
+				TableSplit region = (TableSplit) split;
+				int pieces = (int) Math.min(Integer.MAX_VALUE, (region.getLength() + splitSize - 1) / splitSize);
+				if (pieces <= 1) {
+					result.add(region);
+					continue;
+				}
+				byte[][] keys;
+				if (sample > 0) {
+					if (connection == null) {
+						connection = ConnectionFactory.createConnection(conf);
+					}
+					keys = sampleKeys(connection, region, sample, pieces);
+				} else {
+					keys = rangeKeys(region.getStartRow(), region.getEndRow(), pieces);
+				}
+				result.addAll(subSplits(region, keys));
+			}
+		} finally {
+			if (connection != null) {
+				connection.close();
+			}
+		}
+		LOG.info("Divided " + splits.size() + " region splits into " + result.size() + " splits");
+		return result;
+	}
+
+	/**
+	 * Computes boundaries that divide a key range into equal parts,
+	 * assuming the keys are evenly distributed over the byte values.
+	 *
+	 * @param start
+	 *            The first key of the range, empty for the start of the
+	 *            table.
+	 * @param end
+	 *            The key after the range, empty for the end of the table.
+	 * @param pieces
+	 *            The number of parts.
+	 * @return The keys between the parts, fewer if the range is too narrow.
+	 */
+	public static byte[][] rangeKeys(byte[] start, byte[] end, int pieces) {
+		if (end.length == 0) {
+			end = new byte[Math.max(start.length, Bytes.SIZEOF_LONG)];
+			Arrays.fill(end, (byte) 0xff);
+		}
+		if (Bytes.compareTo(start, end) >= 0) {
+			return new byte[0][];
+		}
+		// Includes start and end as the first and last key.
+		byte[][] keys = Bytes.split(start, end, pieces - 1);
+		if (keys == null) {
+			return new byte[0][];
+		}
+		List<byte[]> inner = new ArrayList<byte[]>();
+		for (int i = 1; i < keys.length - 1; i++) {
+			byte[] previous = inner.isEmpty() ? start : inner.get(inner.size() - 1);
+			if (Bytes.compareTo(previous, keys[i]) < 0 && Bytes.compareTo(keys[i], end) < 0) {
+				inner.add(keys[i]);
+			}
+		}
+		return inner.toArray(new byte[inner.size()][]);
+	}
+
+	private static byte[][] sampleKeys(Connection connection, TableSplit region, float rate, int pieces)
+			throws IOException {
+		Scan scan = new Scan(region.getStartRow(), region.getEndRow());
+		scan.setFilter(new FilterList(new RandomRowFilter(rate), new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+		scan.setCaching(1000);
+		scan.setCacheBlocks(false);
+		List<byte[]> sample = new ArrayList<byte[]>();
+		try (Table table = connection.getTable(region.getTable()); ResultScanner scanner = table.getScanner(scan)) {
+			for (Result result : scanner) {
+				sample.add(result.getRow());
+			}
+		}
+		if (sample.size() < pieces) {
+			// Too few keys to place the boundaries, the rate is too low for
+			// this region.
+			LOG.warn("Sampled only " + sample.size() + " keys in region " + Bytes.toStringBinary(region.getStartRow())
+					+ ", using the key range instead");
+			return rangeKeys(region.getStartRow(), region.getEndRow(), pieces);
+		}
+		byte[][] keys = TableProvisioner.sampleSplits(sample, pieces);
+		// The first sampled key may be the region's start key.
+		if (keys.length > 0 && Bytes.equals(keys[0], region.getStartRow())) {
+			keys = Arrays.copyOfRange(keys, 1, keys.length);
+		}
+		return keys;
+	}
+
+	private static List<TableSplit> subSplits(TableSplit region, byte[][] keys) {
+		List<TableSplit> splits = new ArrayList<TableSplit>();
+		TableName table = region.getTable();
+		long length = region.getLength() / (keys.length + 1);
+		byte[] start = region.getStartRow();
+		for (byte[] key : keys) {
+			splits.add(new TableSplit(table, start, key, region.getRegionLocation(), length));
+			start = key;
+		}
+		splits.add(new TableSplit(table, start, region.getEndRow(), region.getRegionLocation(), length));
+		return splits;
+	}
+}
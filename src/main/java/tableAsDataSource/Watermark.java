@@ -0,0 +1,94 @@
+package tableAsDataSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.fs.FileContext;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Options;
+import org.apache.hadoop.fs.Path;
+
+// The state of an incremental analysis: the time up to which the table has
+// been analyzed, and where the counts of that run were written. The next run
+// only reads cells written since then and merges them into those counts.
+// Stored as a one-line text file, "<timestamp>\t<output path>", or only the
+// timestamp when the counts are added to a counters table instead.
+public class Watermark {
+
+	private final long timestamp;
+	private final Path output;
+
+	/**
+	 * Creates a watermark.
+	 *
+	 * @param timestamp
+	 *            The time up to which (exclusive) cells have been counted.
+	 * @param output
+	 *            The directory with the counts, <code>null</code> if none.
+	 */
+	public Watermark(long timestamp, Path output) {
+		this.timestamp = timestamp;
+		this.output = output;
+	}
+
+	/**
+	 * Reads a watermark.
+	 *
+	 * @param fs
+	 *            The filesystem of the file.
+	 * @param file
+	 *            The file to read.
+	 * @return The watermark, or one at time 0 without output if the file
+	 *         does not exist yet.
+	 * @throws IOException
+	 *             When reading the file fails or it is invalid.
+	 */
+	public static Watermark read(FileSystem fs, Path file) throws IOException {
+		if (!fs.exists(file)) {
+			return new Watermark(0, null);
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(file), StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			if (line == null) {
+				throw new IOException("Empty watermark in " + file);
+			}
+			String[] fields = line.split("\t", 2);
+			return new Watermark(Long.parseLong(fields[0]), fields.length > 1 ? new Path(fields[1]) : null);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid watermark in " + file, e);
+		}
+	}
+
+	/**
+	 * Writes the watermark, replacing the file.
+	 *
+	 * @param fs
+	 *            The filesystem of the file.
+	 * @param file
+	 *            The file to write.
+	 * @throws IOException
+	 *             When writing the file fails.
+	 */
+	public void write(FileSystem fs, Path file) throws IOException {
+		// Written next to the file and renamed over it in one step, so that
+		// a failed write or a crash keeps the previous watermark.
+		Path tmp = file.suffix(".tmp");
+		try (Writer writer = new OutputStreamWriter(fs.create(tmp, true), StandardCharsets.UTF_8)) {
+			writer.write(output == null ? timestamp + "\n" : timestamp + "\t" + output + "\n");
+		}
+		FileContext.getFileContext(fs.getUri(), fs.getConf()).rename(fs.makeQualified(tmp), fs.makeQualified(file),
+				Options.Rename.OVERWRITE);
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Path getOutput() {
+		return output;
+	}
+}
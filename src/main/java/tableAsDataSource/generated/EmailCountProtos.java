@@ -0,0 +1,2887 @@
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: src/main/protobuf/EmailCount.proto
+
+package tableAsDataSource.generated;
+
+public final class EmailCountProtos {
+  private EmailCountProtos() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+  }
+  public interface EmailCountRequestOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // required bytes family = 1;
+    /**
+     * <code>required bytes family = 1;</code>
+     *
+     * <pre>
+     * The column holding the JSON records, or the email itself when the data
+     * was imported with one column per field. Without a qualifier all columns
+     * of the family are read.
+     * </pre>
+     */
+    boolean hasFamily();
+    /**
+     * <code>required bytes family = 1;</code>
+     *
+     * <pre>
+     * The column holding the JSON records, or the email itself when the data
+     * was imported with one column per field. Without a qualifier all columns
+     * of the family are read.
+     * </pre>
+     */
+    com.google.protobuf.ByteString getFamily();
+
+    // optional bytes qualifier = 2;
+    /**
+     * <code>optional bytes qualifier = 2;</code>
+     */
+    boolean hasQualifier();
+    /**
+     * <code>optional bytes qualifier = 2;</code>
+     */
+    com.google.protobuf.ByteString getQualifier();
+
+    // optional bytes start_row = 3;
+    /**
+     * <code>optional bytes start_row = 3;</code>
+     *
+     * <pre>
+     * The row to continue from, the start of the region if not set.
+     * </pre>
+     */
+    boolean hasStartRow();
+    /**
+     * <code>optional bytes start_row = 3;</code>
+     *
+     * <pre>
+     * The row to continue from, the start of the region if not set.
+     * </pre>
+     */
+    com.google.protobuf.ByteString getStartRow();
+
+    // optional int32 max_emails = 4;
+    /**
+     * <code>optional int32 max_emails = 4;</code>
+     *
+     * <pre>
+     * The most authors to return in one response, the response ends after
+     * the row that reached it. Unlimited if not set.
+     * </pre>
+     */
+    boolean hasMaxEmails();
+    /**
+     * <code>optional int32 max_emails = 4;</code>
+     *
+     * <pre>
+     * The most authors to return in one response, the response ends after
+     * the row that reached it. Unlimited if not set.
+     * </pre>
+     */
+    int getMaxEmails();
+  }
+  /**
+   * Protobuf type {@code EmailCountRequest}
+   */
+  public static final class EmailCountRequest extends
+      com.google.protobuf.GeneratedMessage
+      implements EmailCountRequestOrBuilder {
+    // Use EmailCountRequest.newBuilder() to construct.
+    private EmailCountRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EmailCountRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EmailCountRequest defaultInstance;
+    public static EmailCountRequest getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EmailCountRequest getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EmailCountRequest(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              bitField0_ |= 0x00000001;
+              family_ = input.readBytes();
+              break;
+            }
+            case 18: {
+              bitField0_ |= 0x00000002;
+              qualifier_ = input.readBytes();
+              break;
+            }
+            case 26: {
+              bitField0_ |= 0x00000004;
+              startRow_ = input.readBytes();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              maxEmails_ = input.readInt32();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountRequest_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.class, tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<EmailCountRequest> PARSER =
+        new com.google.protobuf.AbstractParser<EmailCountRequest>() {
+      public EmailCountRequest parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new EmailCountRequest(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<EmailCountRequest> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // required bytes family = 1;
+    public static final int FAMILY_FIELD_NUMBER = 1;
+    private com.google.protobuf.ByteString family_;
+    /**
+     * <code>required bytes family = 1;</code>
+     *
+     * <pre>
+     * The column holding the JSON records, or the email itself when the data
+     * was imported with one column per field. Without a qualifier all columns
+     * of the family are read.
+     * </pre>
+     */
+    public boolean hasFamily() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required bytes family = 1;</code>
+     *
+     * <pre>
+     * The column holding the JSON records, or the email itself when the data
+     * was imported with one column per field. Without a qualifier all columns
+     * of the family are read.
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getFamily() {
+      return family_;
+    }
+
+    // optional bytes qualifier = 2;
+    public static final int QUALIFIER_FIELD_NUMBER = 2;
+    private com.google.protobuf.ByteString qualifier_;
+    /**
+     * <code>optional bytes qualifier = 2;</code>
+     */
+    public boolean hasQualifier() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional bytes qualifier = 2;</code>
+     */
+    public com.google.protobuf.ByteString getQualifier() {
+      return qualifier_;
+    }
+
+    // optional bytes start_row = 3;
+    public static final int START_ROW_FIELD_NUMBER = 3;
+    private com.google.protobuf.ByteString startRow_;
+    /**
+     * <code>optional bytes start_row = 3;</code>
+     *
+     * <pre>
+     * The row to continue from, the start of the region if not set.
+     * </pre>
+     */
+    public boolean hasStartRow() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional bytes start_row = 3;</code>
+     *
+     * <pre>
+     * The row to continue from, the start of the region if not set.
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getStartRow() {
+      return startRow_;
+    }
+
+    // optional int32 max_emails = 4;
+    public static final int MAX_EMAILS_FIELD_NUMBER = 4;
+    private int maxEmails_;
+    /**
+     * <code>optional int32 max_emails = 4;</code>
+     *
+     * <pre>
+     * The most authors to return in one response, the response ends after
+     * the row that reached it. Unlimited if not set.
+     * </pre>
+     */
+    public boolean hasMaxEmails() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional int32 max_emails = 4;</code>
+     *
+     * <pre>
+     * The most authors to return in one response, the response ends after
+     * the row that reached it. Unlimited if not set.
+     * </pre>
+     */
+    public int getMaxEmails() {
+      return maxEmails_;
+    }
+
+    private void initFields() {
+      family_ = com.google.protobuf.ByteString.EMPTY;
+      qualifier_ = com.google.protobuf.ByteString.EMPTY;
+      startRow_ = com.google.protobuf.ByteString.EMPTY;
+      maxEmails_ = 0;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      if (!hasFamily()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, family_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeBytes(2, qualifier_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeBytes(3, startRow_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeInt32(4, maxEmails_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(1, family_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(2, qualifier_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(3, startRow_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(4, maxEmails_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof tableAsDataSource.generated.EmailCountProtos.EmailCountRequest)) {
+        return super.equals(obj);
+      }
+      tableAsDataSource.generated.EmailCountProtos.EmailCountRequest other = (tableAsDataSource.generated.EmailCountProtos.EmailCountRequest) obj;
+
+      boolean result = true;
+      result = result && (hasFamily() == other.hasFamily());
+      if (hasFamily()) {
+        result = result && getFamily()
+            .equals(other.getFamily());
+      }
+      result = result && (hasQualifier() == other.hasQualifier());
+      if (hasQualifier()) {
+        result = result && getQualifier()
+            .equals(other.getQualifier());
+      }
+      result = result && (hasStartRow() == other.hasStartRow());
+      if (hasStartRow()) {
+        result = result && getStartRow()
+            .equals(other.getStartRow());
+      }
+      result = result && (hasMaxEmails() == other.hasMaxEmails());
+      if (hasMaxEmails()) {
+        result = result && (getMaxEmails()
+            == other.getMaxEmails());
+      }
+      result = result &&
+          getUnknownFields().equals(other.getUnknownFields());
+      return result;
+    }
+
+    private int memoizedHashCode = 0;
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptorForType().hashCode();
+      if (hasFamily()) {
+        hash = (37 * hash) + FAMILY_FIELD_NUMBER;
+        hash = (53 * hash) + getFamily().hashCode();
+      }
+      if (hasQualifier()) {
+        hash = (37 * hash) + QUALIFIER_FIELD_NUMBER;
+        hash = (53 * hash) + getQualifier().hashCode();
+      }
+      if (hasStartRow()) {
+        hash = (37 * hash) + START_ROW_FIELD_NUMBER;
+        hash = (53 * hash) + getStartRow().hashCode();
+      }
+      if (hasMaxEmails()) {
+        hash = (37 * hash) + MAX_EMAILS_FIELD_NUMBER;
+        hash = (53 * hash) + getMaxEmails();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(tableAsDataSource.generated.EmailCountProtos.EmailCountRequest prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code EmailCountRequest}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements tableAsDataSource.generated.EmailCountProtos.EmailCountRequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountRequest_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountRequest_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.class, tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.Builder.class);
+      }
+
+      // Construct using tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        family_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        qualifier_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        startRow_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        maxEmails_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountRequest_descriptor;
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountRequest getDefaultInstanceForType() {
+        return tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.getDefaultInstance();
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountRequest build() {
+        tableAsDataSource.generated.EmailCountProtos.EmailCountRequest result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountRequest buildPartial() {
+        tableAsDataSource.generated.EmailCountProtos.EmailCountRequest result = new tableAsDataSource.generated.EmailCountProtos.EmailCountRequest(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.family_ = family_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.qualifier_ = qualifier_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.startRow_ = startRow_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.maxEmails_ = maxEmails_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof tableAsDataSource.generated.EmailCountProtos.EmailCountRequest) {
+          return mergeFrom((tableAsDataSource.generated.EmailCountProtos.EmailCountRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(tableAsDataSource.generated.EmailCountProtos.EmailCountRequest other) {
+        if (other == tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.getDefaultInstance()) return this;
+        if (other.hasFamily()) {
+          setFamily(other.getFamily());
+        }
+        if (other.hasQualifier()) {
+          setQualifier(other.getQualifier());
+        }
+        if (other.hasStartRow()) {
+          setStartRow(other.getStartRow());
+        }
+        if (other.hasMaxEmails()) {
+          setMaxEmails(other.getMaxEmails());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasFamily()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        tableAsDataSource.generated.EmailCountProtos.EmailCountRequest parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (tableAsDataSource.generated.EmailCountProtos.EmailCountRequest) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // required bytes family = 1;
+      private com.google.protobuf.ByteString family_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>required bytes family = 1;</code>
+       *
+       * <pre>
+       * The column holding the JSON records, or the email itself when the data
+       * was imported with one column per field. Without a qualifier all columns
+       * of the family are read.
+       * </pre>
+       */
+      public boolean hasFamily() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required bytes family = 1;</code>
+       *
+       * <pre>
+       * The column holding the JSON records, or the email itself when the data
+       * was imported with one column per field. Without a qualifier all columns
+       * of the family are read.
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getFamily() {
+        return family_;
+      }
+      /**
+       * <code>required bytes family = 1;</code>
+       *
+       * <pre>
+       * The column holding the JSON records, or the email itself when the data
+       * was imported with one column per field. Without a qualifier all columns
+       * of the family are read.
+       * </pre>
+       */
+      public Builder setFamily(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        family_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required bytes family = 1;</code>
+       *
+       * <pre>
+       * The column holding the JSON records, or the email itself when the data
+       * was imported with one column per field. Without a qualifier all columns
+       * of the family are read.
+       * </pre>
+       */
+      public Builder clearFamily() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        family_ = getDefaultInstance().getFamily();
+        onChanged();
+        return this;
+      }
+
+      // optional bytes qualifier = 2;
+      private com.google.protobuf.ByteString qualifier_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes qualifier = 2;</code>
+       */
+      public boolean hasQualifier() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional bytes qualifier = 2;</code>
+       */
+      public com.google.protobuf.ByteString getQualifier() {
+        return qualifier_;
+      }
+      /**
+       * <code>optional bytes qualifier = 2;</code>
+       */
+      public Builder setQualifier(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        qualifier_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes qualifier = 2;</code>
+       */
+      public Builder clearQualifier() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        qualifier_ = getDefaultInstance().getQualifier();
+        onChanged();
+        return this;
+      }
+
+      // optional bytes start_row = 3;
+      private com.google.protobuf.ByteString startRow_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes start_row = 3;</code>
+       *
+       * <pre>
+       * The row to continue from, the start of the region if not set.
+       * </pre>
+       */
+      public boolean hasStartRow() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional bytes start_row = 3;</code>
+       *
+       * <pre>
+       * The row to continue from, the start of the region if not set.
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getStartRow() {
+        return startRow_;
+      }
+      /**
+       * <code>optional bytes start_row = 3;</code>
+       *
+       * <pre>
+       * The row to continue from, the start of the region if not set.
+       * </pre>
+       */
+      public Builder setStartRow(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        startRow_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes start_row = 3;</code>
+       *
+       * <pre>
+       * The row to continue from, the start of the region if not set.
+       * </pre>
+       */
+      public Builder clearStartRow() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        startRow_ = getDefaultInstance().getStartRow();
+        onChanged();
+        return this;
+      }
+
+      // optional int32 max_emails = 4;
+      private int maxEmails_ ;
+      /**
+       * <code>optional int32 max_emails = 4;</code>
+       *
+       * <pre>
+       * The most authors to return in one response, the response ends after
+       * the row that reached it. Unlimited if not set.
+       * </pre>
+       */
+      public boolean hasMaxEmails() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional int32 max_emails = 4;</code>
+       *
+       * <pre>
+       * The most authors to return in one response, the response ends after
+       * the row that reached it. Unlimited if not set.
+       * </pre>
+       */
+      public int getMaxEmails() {
+        return maxEmails_;
+      }
+      /**
+       * <code>optional int32 max_emails = 4;</code>
+       *
+       * <pre>
+       * The most authors to return in one response, the response ends after
+       * the row that reached it. Unlimited if not set.
+       * </pre>
+       */
+      public Builder setMaxEmails(int value) {
+        bitField0_ |= 0x00000008;
+        maxEmails_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 max_emails = 4;</code>
+       *
+       * <pre>
+       * The most authors to return in one response, the response ends after
+       * the row that reached it. Unlimited if not set.
+       * </pre>
+       */
+      public Builder clearMaxEmails() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        maxEmails_ = 0;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:EmailCountRequest)
+    }
+
+    static {
+      defaultInstance = new EmailCountRequest(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:EmailCountRequest)
+  }
+
+  public interface EmailCountOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // required string email = 1;
+    /**
+     * <code>required string email = 1;</code>
+     */
+    boolean hasEmail();
+    /**
+     * <code>required string email = 1;</code>
+     */
+    java.lang.String getEmail();
+    /**
+     * <code>required string email = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getEmailBytes();
+
+    // required int64 count = 2;
+    /**
+     * <code>required int64 count = 2;</code>
+     */
+    boolean hasCount();
+    /**
+     * <code>required int64 count = 2;</code>
+     */
+    long getCount();
+  }
+  /**
+   * Protobuf type {@code EmailCount}
+   */
+  public static final class EmailCount extends
+      com.google.protobuf.GeneratedMessage
+      implements EmailCountOrBuilder {
+    // Use EmailCount.newBuilder() to construct.
+    private EmailCount(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EmailCount(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EmailCount defaultInstance;
+    public static EmailCount getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EmailCount getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EmailCount(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              bitField0_ |= 0x00000001;
+              email_ = input.readBytes();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              count_ = input.readInt64();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCount_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCount_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              tableAsDataSource.generated.EmailCountProtos.EmailCount.class, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<EmailCount> PARSER =
+        new com.google.protobuf.AbstractParser<EmailCount>() {
+      public EmailCount parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new EmailCount(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<EmailCount> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // required string email = 1;
+    public static final int EMAIL_FIELD_NUMBER = 1;
+    private java.lang.Object email_;
+    /**
+     * <code>required string email = 1;</code>
+     */
+    public boolean hasEmail() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>required string email = 1;</code>
+     */
+    public java.lang.String getEmail() {
+      java.lang.Object ref = email_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          email_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>required string email = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getEmailBytes() {
+      java.lang.Object ref = email_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        email_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // required int64 count = 2;
+    public static final int COUNT_FIELD_NUMBER = 2;
+    private long count_;
+    /**
+     * <code>required int64 count = 2;</code>
+     */
+    public boolean hasCount() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>required int64 count = 2;</code>
+     */
+    public long getCount() {
+      return count_;
+    }
+
+    private void initFields() {
+      email_ = "";
+      count_ = 0L;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      if (!hasEmail()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      if (!hasCount()) {
+        memoizedIsInitialized = 0;
+        return false;
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeBytes(1, getEmailBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt64(2, count_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(1, getEmailBytes());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, count_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof tableAsDataSource.generated.EmailCountProtos.EmailCount)) {
+        return super.equals(obj);
+      }
+      tableAsDataSource.generated.EmailCountProtos.EmailCount other = (tableAsDataSource.generated.EmailCountProtos.EmailCount) obj;
+
+      boolean result = true;
+      result = result && (hasEmail() == other.hasEmail());
+      if (hasEmail()) {
+        result = result && getEmail()
+            .equals(other.getEmail());
+      }
+      result = result && (hasCount() == other.hasCount());
+      if (hasCount()) {
+        result = result && (getCount()
+            == other.getCount());
+      }
+      result = result &&
+          getUnknownFields().equals(other.getUnknownFields());
+      return result;
+    }
+
+    private int memoizedHashCode = 0;
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptorForType().hashCode();
+      if (hasEmail()) {
+        hash = (37 * hash) + EMAIL_FIELD_NUMBER;
+        hash = (53 * hash) + getEmail().hashCode();
+      }
+      if (hasCount()) {
+        hash = (37 * hash) + COUNT_FIELD_NUMBER;
+        hash = (53 * hash) + hashLong(getCount());
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCount parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(tableAsDataSource.generated.EmailCountProtos.EmailCount prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code EmailCount}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCount_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCount_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                tableAsDataSource.generated.EmailCountProtos.EmailCount.class, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder.class);
+      }
+
+      // Construct using tableAsDataSource.generated.EmailCountProtos.EmailCount.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        email_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        count_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCount_descriptor;
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount getDefaultInstanceForType() {
+        return tableAsDataSource.generated.EmailCountProtos.EmailCount.getDefaultInstance();
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount build() {
+        tableAsDataSource.generated.EmailCountProtos.EmailCount result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount buildPartial() {
+        tableAsDataSource.generated.EmailCountProtos.EmailCount result = new tableAsDataSource.generated.EmailCountProtos.EmailCount(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.email_ = email_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.count_ = count_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof tableAsDataSource.generated.EmailCountProtos.EmailCount) {
+          return mergeFrom((tableAsDataSource.generated.EmailCountProtos.EmailCount)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(tableAsDataSource.generated.EmailCountProtos.EmailCount other) {
+        if (other == tableAsDataSource.generated.EmailCountProtos.EmailCount.getDefaultInstance()) return this;
+        if (other.hasEmail()) {
+          bitField0_ |= 0x00000001;
+          email_ = other.email_;
+          onChanged();
+        }
+        if (other.hasCount()) {
+          setCount(other.getCount());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        if (!hasEmail()) {
+          
+          return false;
+        }
+        if (!hasCount()) {
+          
+          return false;
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        tableAsDataSource.generated.EmailCountProtos.EmailCount parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (tableAsDataSource.generated.EmailCountProtos.EmailCount) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // required string email = 1;
+      private java.lang.Object email_ = "";
+      /**
+       * <code>required string email = 1;</code>
+       */
+      public boolean hasEmail() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>required string email = 1;</code>
+       */
+      public java.lang.String getEmail() {
+        java.lang.Object ref = email_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          email_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>required string email = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getEmailBytes() {
+        java.lang.Object ref = email_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          email_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>required string email = 1;</code>
+       */
+      public Builder setEmail(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        email_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string email = 1;</code>
+       */
+      public Builder clearEmail() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        email_ = getDefaultInstance().getEmail();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required string email = 1;</code>
+       */
+      public Builder setEmailBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        email_ = value;
+        onChanged();
+        return this;
+      }
+
+      // required int64 count = 2;
+      private long count_ ;
+      /**
+       * <code>required int64 count = 2;</code>
+       */
+      public boolean hasCount() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>required int64 count = 2;</code>
+       */
+      public long getCount() {
+        return count_;
+      }
+      /**
+       * <code>required int64 count = 2;</code>
+       */
+      public Builder setCount(long value) {
+        bitField0_ |= 0x00000002;
+        count_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>required int64 count = 2;</code>
+       */
+      public Builder clearCount() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        count_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:EmailCount)
+    }
+
+    static {
+      defaultInstance = new EmailCount(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:EmailCount)
+  }
+
+  public interface EmailCountResponseOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // repeated .EmailCount counts = 1;
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    java.util.List<tableAsDataSource.generated.EmailCountProtos.EmailCount> 
+        getCountsList();
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    tableAsDataSource.generated.EmailCountProtos.EmailCount getCounts(int index);
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    int getCountsCount();
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    java.util.List<? extends tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder> 
+        getCountsOrBuilderList();
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder getCountsOrBuilder(
+        int index);
+
+    // optional int64 rows = 2;
+    /**
+     * <code>optional int64 rows = 2;</code>
+     */
+    boolean hasRows();
+    /**
+     * <code>optional int64 rows = 2;</code>
+     */
+    long getRows();
+
+    // optional int64 cells = 3;
+    /**
+     * <code>optional int64 cells = 3;</code>
+     */
+    boolean hasCells();
+    /**
+     * <code>optional int64 cells = 3;</code>
+     */
+    long getCells();
+
+    // optional int64 errors = 4;
+    /**
+     * <code>optional int64 errors = 4;</code>
+     */
+    boolean hasErrors();
+    /**
+     * <code>optional int64 errors = 4;</code>
+     */
+    long getErrors();
+
+    // optional bytes next_row = 5;
+    /**
+     * <code>optional bytes next_row = 5;</code>
+     *
+     * <pre>
+     * Set if the region has more rows: the start_row of the next request.
+     * </pre>
+     */
+    boolean hasNextRow();
+    /**
+     * <code>optional bytes next_row = 5;</code>
+     *
+     * <pre>
+     * Set if the region has more rows: the start_row of the next request.
+     * </pre>
+     */
+    com.google.protobuf.ByteString getNextRow();
+  }
+  /**
+   * Protobuf type {@code EmailCountResponse}
+   */
+  public static final class EmailCountResponse extends
+      com.google.protobuf.GeneratedMessage
+      implements EmailCountResponseOrBuilder {
+    // Use EmailCountResponse.newBuilder() to construct.
+    private EmailCountResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private EmailCountResponse(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final EmailCountResponse defaultInstance;
+    public static EmailCountResponse getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public EmailCountResponse getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private EmailCountResponse(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                counts_ = new java.util.ArrayList<tableAsDataSource.generated.EmailCountProtos.EmailCount>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              counts_.add(input.readMessage(tableAsDataSource.generated.EmailCountProtos.EmailCount.PARSER, extensionRegistry));
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000001;
+              rows_ = input.readInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000002;
+              cells_ = input.readInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000004;
+              errors_ = input.readInt64();
+              break;
+            }
+            case 42: {
+              bitField0_ |= 0x00000008;
+              nextRow_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          counts_ = java.util.Collections.unmodifiableList(counts_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountResponse_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.class, tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<EmailCountResponse> PARSER =
+        new com.google.protobuf.AbstractParser<EmailCountResponse>() {
+      public EmailCountResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new EmailCountResponse(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<EmailCountResponse> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // repeated .EmailCount counts = 1;
+    public static final int COUNTS_FIELD_NUMBER = 1;
+    private java.util.List<tableAsDataSource.generated.EmailCountProtos.EmailCount> counts_;
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    public java.util.List<tableAsDataSource.generated.EmailCountProtos.EmailCount> getCountsList() {
+      return counts_;
+    }
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    public java.util.List<? extends tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder> 
+        getCountsOrBuilderList() {
+      return counts_;
+    }
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    public int getCountsCount() {
+      return counts_.size();
+    }
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    public tableAsDataSource.generated.EmailCountProtos.EmailCount getCounts(int index) {
+      return counts_.get(index);
+    }
+    /**
+     * <code>repeated .EmailCount counts = 1;</code>
+     */
+    public tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder getCountsOrBuilder(
+        int index) {
+      return counts_.get(index);
+    }
+
+    // optional int64 rows = 2;
+    public static final int ROWS_FIELD_NUMBER = 2;
+    private long rows_;
+    /**
+     * <code>optional int64 rows = 2;</code>
+     */
+    public boolean hasRows() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional int64 rows = 2;</code>
+     */
+    public long getRows() {
+      return rows_;
+    }
+
+    // optional int64 cells = 3;
+    public static final int CELLS_FIELD_NUMBER = 3;
+    private long cells_;
+    /**
+     * <code>optional int64 cells = 3;</code>
+     */
+    public boolean hasCells() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional int64 cells = 3;</code>
+     */
+    public long getCells() {
+      return cells_;
+    }
+
+    // optional int64 errors = 4;
+    public static final int ERRORS_FIELD_NUMBER = 4;
+    private long errors_;
+    /**
+     * <code>optional int64 errors = 4;</code>
+     */
+    public boolean hasErrors() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional int64 errors = 4;</code>
+     */
+    public long getErrors() {
+      return errors_;
+    }
+
+    // optional bytes next_row = 5;
+    public static final int NEXT_ROW_FIELD_NUMBER = 5;
+    private com.google.protobuf.ByteString nextRow_;
+    /**
+     * <code>optional bytes next_row = 5;</code>
+     *
+     * <pre>
+     * Set if the region has more rows: the start_row of the next request.
+     * </pre>
+     */
+    public boolean hasNextRow() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional bytes next_row = 5;</code>
+     *
+     * <pre>
+     * Set if the region has more rows: the start_row of the next request.
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getNextRow() {
+      return nextRow_;
+    }
+
+    private void initFields() {
+      counts_ = java.util.Collections.emptyList();
+      rows_ = 0L;
+      cells_ = 0L;
+      errors_ = 0L;
+      nextRow_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      for (int i = 0; i < getCountsCount(); i++) {
+        if (!getCounts(i).isInitialized()) {
+          memoizedIsInitialized = 0;
+          return false;
+        }
+      }
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      for (int i = 0; i < counts_.size(); i++) {
+        output.writeMessage(1, counts_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeInt64(2, rows_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt64(3, cells_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeInt64(4, errors_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(5, nextRow_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < counts_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, counts_.get(i));
+      }
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, rows_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, cells_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, errors_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(5, nextRow_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof tableAsDataSource.generated.EmailCountProtos.EmailCountResponse)) {
+        return super.equals(obj);
+      }
+      tableAsDataSource.generated.EmailCountProtos.EmailCountResponse other = (tableAsDataSource.generated.EmailCountProtos.EmailCountResponse) obj;
+
+      boolean result = true;
+      result = result && getCountsList()
+          .equals(other.getCountsList());
+      result = result && (hasRows() == other.hasRows());
+      if (hasRows()) {
+        result = result && (getRows()
+            == other.getRows());
+      }
+      result = result && (hasCells() == other.hasCells());
+      if (hasCells()) {
+        result = result && (getCells()
+            == other.getCells());
+      }
+      result = result && (hasErrors() == other.hasErrors());
+      if (hasErrors()) {
+        result = result && (getErrors()
+            == other.getErrors());
+      }
+      result = result && (hasNextRow() == other.hasNextRow());
+      if (hasNextRow()) {
+        result = result && getNextRow()
+            .equals(other.getNextRow());
+      }
+      result = result &&
+          getUnknownFields().equals(other.getUnknownFields());
+      return result;
+    }
+
+    private int memoizedHashCode = 0;
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptorForType().hashCode();
+      if (getCountsCount() > 0) {
+        hash = (37 * hash) + COUNTS_FIELD_NUMBER;
+        hash = (53 * hash) + getCountsList().hashCode();
+      }
+      if (hasRows()) {
+        hash = (37 * hash) + ROWS_FIELD_NUMBER;
+        hash = (53 * hash) + hashLong(getRows());
+      }
+      if (hasCells()) {
+        hash = (37 * hash) + CELLS_FIELD_NUMBER;
+        hash = (53 * hash) + hashLong(getCells());
+      }
+      if (hasErrors()) {
+        hash = (37 * hash) + ERRORS_FIELD_NUMBER;
+        hash = (53 * hash) + hashLong(getErrors());
+      }
+      if (hasNextRow()) {
+        hash = (37 * hash) + NEXT_ROW_FIELD_NUMBER;
+        hash = (53 * hash) + getNextRow().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(tableAsDataSource.generated.EmailCountProtos.EmailCountResponse prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code EmailCountResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements tableAsDataSource.generated.EmailCountProtos.EmailCountResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountResponse_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.class, tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.Builder.class);
+      }
+
+      // Construct using tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getCountsFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        if (countsBuilder_ == null) {
+          counts_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          countsBuilder_.clear();
+        }
+        rows_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        cells_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        errors_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        nextRow_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return tableAsDataSource.generated.EmailCountProtos.internal_static_EmailCountResponse_descriptor;
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountResponse getDefaultInstanceForType() {
+        return tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance();
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountResponse build() {
+        tableAsDataSource.generated.EmailCountProtos.EmailCountResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountResponse buildPartial() {
+        tableAsDataSource.generated.EmailCountProtos.EmailCountResponse result = new tableAsDataSource.generated.EmailCountProtos.EmailCountResponse(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (countsBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            counts_ = java.util.Collections.unmodifiableList(counts_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.counts_ = counts_;
+        } else {
+          result.counts_ = countsBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.rows_ = rows_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.cells_ = cells_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.errors_ = errors_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.nextRow_ = nextRow_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof tableAsDataSource.generated.EmailCountProtos.EmailCountResponse) {
+          return mergeFrom((tableAsDataSource.generated.EmailCountProtos.EmailCountResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(tableAsDataSource.generated.EmailCountProtos.EmailCountResponse other) {
+        if (other == tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance()) return this;
+        if (countsBuilder_ == null) {
+          if (!other.counts_.isEmpty()) {
+            if (counts_.isEmpty()) {
+              counts_ = other.counts_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureCountsIsMutable();
+              counts_.addAll(other.counts_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.counts_.isEmpty()) {
+            if (countsBuilder_.isEmpty()) {
+              countsBuilder_.dispose();
+              countsBuilder_ = null;
+              counts_ = other.counts_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              countsBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getCountsFieldBuilder() : null;
+            } else {
+              countsBuilder_.addAllMessages(other.counts_);
+            }
+          }
+        }
+        if (other.hasRows()) {
+          setRows(other.getRows());
+        }
+        if (other.hasCells()) {
+          setCells(other.getCells());
+        }
+        if (other.hasErrors()) {
+          setErrors(other.getErrors());
+        }
+        if (other.hasNextRow()) {
+          setNextRow(other.getNextRow());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        for (int i = 0; i < getCountsCount(); i++) {
+          if (!getCounts(i).isInitialized()) {
+            
+            return false;
+          }
+        }
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        tableAsDataSource.generated.EmailCountProtos.EmailCountResponse parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (tableAsDataSource.generated.EmailCountProtos.EmailCountResponse) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // repeated .EmailCount counts = 1;
+      private java.util.List<tableAsDataSource.generated.EmailCountProtos.EmailCount> counts_ =
+        java.util.Collections.emptyList();
+      private void ensureCountsIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          counts_ = new java.util.ArrayList<tableAsDataSource.generated.EmailCountProtos.EmailCount>(counts_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          tableAsDataSource.generated.EmailCountProtos.EmailCount, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder, tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder> countsBuilder_;
+
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public java.util.List<tableAsDataSource.generated.EmailCountProtos.EmailCount> getCountsList() {
+        if (countsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(counts_);
+        } else {
+          return countsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public int getCountsCount() {
+        if (countsBuilder_ == null) {
+          return counts_.size();
+        } else {
+          return countsBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount getCounts(int index) {
+        if (countsBuilder_ == null) {
+          return counts_.get(index);
+        } else {
+          return countsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder setCounts(
+          int index, tableAsDataSource.generated.EmailCountProtos.EmailCount value) {
+        if (countsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureCountsIsMutable();
+          counts_.set(index, value);
+          onChanged();
+        } else {
+          countsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder setCounts(
+          int index, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder builderForValue) {
+        if (countsBuilder_ == null) {
+          ensureCountsIsMutable();
+          counts_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          countsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder addCounts(tableAsDataSource.generated.EmailCountProtos.EmailCount value) {
+        if (countsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureCountsIsMutable();
+          counts_.add(value);
+          onChanged();
+        } else {
+          countsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder addCounts(
+          int index, tableAsDataSource.generated.EmailCountProtos.EmailCount value) {
+        if (countsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureCountsIsMutable();
+          counts_.add(index, value);
+          onChanged();
+        } else {
+          countsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder addCounts(
+          tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder builderForValue) {
+        if (countsBuilder_ == null) {
+          ensureCountsIsMutable();
+          counts_.add(builderForValue.build());
+          onChanged();
+        } else {
+          countsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder addCounts(
+          int index, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder builderForValue) {
+        if (countsBuilder_ == null) {
+          ensureCountsIsMutable();
+          counts_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          countsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder addAllCounts(
+          java.lang.Iterable<? extends tableAsDataSource.generated.EmailCountProtos.EmailCount> values) {
+        if (countsBuilder_ == null) {
+          ensureCountsIsMutable();
+          super.addAll(values, counts_);
+          onChanged();
+        } else {
+          countsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder clearCounts() {
+        if (countsBuilder_ == null) {
+          counts_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          countsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public Builder removeCounts(int index) {
+        if (countsBuilder_ == null) {
+          ensureCountsIsMutable();
+          counts_.remove(index);
+          onChanged();
+        } else {
+          countsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder getCountsBuilder(
+          int index) {
+        return getCountsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder getCountsOrBuilder(
+          int index) {
+        if (countsBuilder_ == null) {
+          return counts_.get(index);  } else {
+          return countsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public java.util.List<? extends tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder> 
+           getCountsOrBuilderList() {
+        if (countsBuilder_ != null) {
+          return countsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(counts_);
+        }
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder addCountsBuilder() {
+        return getCountsFieldBuilder().addBuilder(
+            tableAsDataSource.generated.EmailCountProtos.EmailCount.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder addCountsBuilder(
+          int index) {
+        return getCountsFieldBuilder().addBuilder(
+            index, tableAsDataSource.generated.EmailCountProtos.EmailCount.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .EmailCount counts = 1;</code>
+       */
+      public java.util.List<tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder> 
+           getCountsBuilderList() {
+        return getCountsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          tableAsDataSource.generated.EmailCountProtos.EmailCount, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder, tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder> 
+          getCountsFieldBuilder() {
+        if (countsBuilder_ == null) {
+          countsBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              tableAsDataSource.generated.EmailCountProtos.EmailCount, tableAsDataSource.generated.EmailCountProtos.EmailCount.Builder, tableAsDataSource.generated.EmailCountProtos.EmailCountOrBuilder>(
+                  counts_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          counts_ = null;
+        }
+        return countsBuilder_;
+      }
+
+      // optional int64 rows = 2;
+      private long rows_ ;
+      /**
+       * <code>optional int64 rows = 2;</code>
+       */
+      public boolean hasRows() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional int64 rows = 2;</code>
+       */
+      public long getRows() {
+        return rows_;
+      }
+      /**
+       * <code>optional int64 rows = 2;</code>
+       */
+      public Builder setRows(long value) {
+        bitField0_ |= 0x00000002;
+        rows_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 rows = 2;</code>
+       */
+      public Builder clearRows() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        rows_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional int64 cells = 3;
+      private long cells_ ;
+      /**
+       * <code>optional int64 cells = 3;</code>
+       */
+      public boolean hasCells() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional int64 cells = 3;</code>
+       */
+      public long getCells() {
+        return cells_;
+      }
+      /**
+       * <code>optional int64 cells = 3;</code>
+       */
+      public Builder setCells(long value) {
+        bitField0_ |= 0x00000004;
+        cells_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 cells = 3;</code>
+       */
+      public Builder clearCells() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        cells_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional int64 errors = 4;
+      private long errors_ ;
+      /**
+       * <code>optional int64 errors = 4;</code>
+       */
+      public boolean hasErrors() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional int64 errors = 4;</code>
+       */
+      public long getErrors() {
+        return errors_;
+      }
+      /**
+       * <code>optional int64 errors = 4;</code>
+       */
+      public Builder setErrors(long value) {
+        bitField0_ |= 0x00000008;
+        errors_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 errors = 4;</code>
+       */
+      public Builder clearErrors() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        errors_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional bytes next_row = 5;
+      private com.google.protobuf.ByteString nextRow_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes next_row = 5;</code>
+       *
+       * <pre>
+       * Set if the region has more rows: the start_row of the next request.
+       * </pre>
+       */
+      public boolean hasNextRow() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional bytes next_row = 5;</code>
+       *
+       * <pre>
+       * Set if the region has more rows: the start_row of the next request.
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getNextRow() {
+        return nextRow_;
+      }
+      /**
+       * <code>optional bytes next_row = 5;</code>
+       *
+       * <pre>
+       * Set if the region has more rows: the start_row of the next request.
+       * </pre>
+       */
+      public Builder setNextRow(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000010;
+        nextRow_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes next_row = 5;</code>
+       *
+       * <pre>
+       * Set if the region has more rows: the start_row of the next request.
+       * </pre>
+       */
+      public Builder clearNextRow() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        nextRow_ = getDefaultInstance().getNextRow();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:EmailCountResponse)
+    }
+
+    static {
+      defaultInstance = new EmailCountResponse(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:EmailCountResponse)
+  }
+
+  /**
+   * Protobuf service {@code EmailCountService}
+   */
+  public static abstract class EmailCountService
+      implements com.google.protobuf.Service {
+    protected EmailCountService() {}
+
+    public interface Interface {
+      /**
+       * <code>rpc getCounts(.EmailCountRequest) returns (.EmailCountResponse);</code>
+       */
+      public abstract void getCounts(
+          com.google.protobuf.RpcController controller,
+          tableAsDataSource.generated.EmailCountProtos.EmailCountRequest request,
+          com.google.protobuf.RpcCallback<tableAsDataSource.generated.EmailCountProtos.EmailCountResponse> done);
+
+    }
+
+    public static com.google.protobuf.Service newReflectiveService(
+        final Interface impl) {
+      return new EmailCountService() {
+        @java.lang.Override
+        public  void getCounts(
+            com.google.protobuf.RpcController controller,
+            tableAsDataSource.generated.EmailCountProtos.EmailCountRequest request,
+            com.google.protobuf.RpcCallback<tableAsDataSource.generated.EmailCountProtos.EmailCountResponse> done) {
+          impl.getCounts(controller, request, done);
+        }
+
+      };
+    }
+
+    public static com.google.protobuf.BlockingService
+        newReflectiveBlockingService(final BlockingInterface impl) {
+      return new com.google.protobuf.BlockingService() {
+        public final com.google.protobuf.Descriptors.ServiceDescriptor
+            getDescriptorForType() {
+          return getDescriptor();
+        }
+
+        public final com.google.protobuf.Message callBlockingMethod(
+            com.google.protobuf.Descriptors.MethodDescriptor method,
+            com.google.protobuf.RpcController controller,
+            com.google.protobuf.Message request)
+            throws com.google.protobuf.ServiceException {
+          if (method.getService() != getDescriptor()) {
+            throw new java.lang.IllegalArgumentException(
+              "Service.callBlockingMethod() given method descriptor for " +
+              "wrong service type.");
+          }
+          switch(method.getIndex()) {
+            case 0:
+              return impl.getCounts(controller, (tableAsDataSource.generated.EmailCountProtos.EmailCountRequest)request);
+            default:
+              throw new java.lang.AssertionError("Can't get here.");
+          }
+        }
+
+        public final com.google.protobuf.Message
+            getRequestPrototype(
+            com.google.protobuf.Descriptors.MethodDescriptor method) {
+          if (method.getService() != getDescriptor()) {
+            throw new java.lang.IllegalArgumentException(
+              "Service.getRequestPrototype() given method " +
+              "descriptor for wrong service type.");
+          }
+          switch(method.getIndex()) {
+            case 0:
+              return tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.getDefaultInstance();
+            default:
+              throw new java.lang.AssertionError("Can't get here.");
+          }
+        }
+
+        public final com.google.protobuf.Message
+            getResponsePrototype(
+            com.google.protobuf.Descriptors.MethodDescriptor method) {
+          if (method.getService() != getDescriptor()) {
+            throw new java.lang.IllegalArgumentException(
+              "Service.getResponsePrototype() given method " +
+              "descriptor for wrong service type.");
+          }
+          switch(method.getIndex()) {
+            case 0:
+              return tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance();
+            default:
+              throw new java.lang.AssertionError("Can't get here.");
+          }
+        }
+
+      };
+    }
+
+    /**
+     * <code>rpc getCounts(.EmailCountRequest) returns (.EmailCountResponse);</code>
+     */
+    public abstract void getCounts(
+        com.google.protobuf.RpcController controller,
+        tableAsDataSource.generated.EmailCountProtos.EmailCountRequest request,
+        com.google.protobuf.RpcCallback<tableAsDataSource.generated.EmailCountProtos.EmailCountResponse> done);
+
+    public static final
+        com.google.protobuf.Descriptors.ServiceDescriptor
+        getDescriptor() {
+      return tableAsDataSource.generated.EmailCountProtos.getDescriptor().getServices().get(0);
+    }
+    public final com.google.protobuf.Descriptors.ServiceDescriptor
+        getDescriptorForType() {
+      return getDescriptor();
+    }
+
+    public final void callMethod(
+        com.google.protobuf.Descriptors.MethodDescriptor method,
+        com.google.protobuf.RpcController controller,
+        com.google.protobuf.Message request,
+        com.google.protobuf.RpcCallback<
+          com.google.protobuf.Message> done) {
+      if (method.getService() != getDescriptor()) {
+        throw new java.lang.IllegalArgumentException(
+          "Service.callMethod() given method descriptor for wrong " +
+          "service type.");
+      }
+      switch(method.getIndex()) {
+        case 0:
+          this.getCounts(controller, (tableAsDataSource.generated.EmailCountProtos.EmailCountRequest)request,
+            com.google.protobuf.RpcUtil.<tableAsDataSource.generated.EmailCountProtos.EmailCountResponse>specializeCallback(
+              done));
+          return;
+        default:
+          throw new java.lang.AssertionError("Can't get here.");
+      }
+    }
+
+    public final com.google.protobuf.Message
+        getRequestPrototype(
+        com.google.protobuf.Descriptors.MethodDescriptor method) {
+      if (method.getService() != getDescriptor()) {
+        throw new java.lang.IllegalArgumentException(
+          "Service.getRequestPrototype() given method " +
+          "descriptor for wrong service type.");
+      }
+      switch(method.getIndex()) {
+        case 0:
+          return tableAsDataSource.generated.EmailCountProtos.EmailCountRequest.getDefaultInstance();
+        default:
+          throw new java.lang.AssertionError("Can't get here.");
+      }
+    }
+
+    public final com.google.protobuf.Message
+        getResponsePrototype(
+        com.google.protobuf.Descriptors.MethodDescriptor method) {
+      if (method.getService() != getDescriptor()) {
+        throw new java.lang.IllegalArgumentException(
+          "Service.getResponsePrototype() given method " +
+          "descriptor for wrong service type.");
+      }
+      switch(method.getIndex()) {
+        case 0:
+          return tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance();
+        default:
+          throw new java.lang.AssertionError("Can't get here.");
+      }
+    }
+
+    public static Stub newStub(
+        com.google.protobuf.RpcChannel channel) {
+      return new Stub(channel);
+    }
+
+    public static final class Stub extends tableAsDataSource.generated.EmailCountProtos.EmailCountService implements Interface {
+      private Stub(com.google.protobuf.RpcChannel channel) {
+        this.channel = channel;
+      }
+
+      private final com.google.protobuf.RpcChannel channel;
+
+      public com.google.protobuf.RpcChannel getChannel() {
+        return channel;
+      }
+
+      public  void getCounts(
+          com.google.protobuf.RpcController controller,
+          tableAsDataSource.generated.EmailCountProtos.EmailCountRequest request,
+          com.google.protobuf.RpcCallback<tableAsDataSource.generated.EmailCountProtos.EmailCountResponse> done) {
+        channel.callMethod(
+          getDescriptor().getMethods().get(0),
+          controller,
+          request,
+          tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance(),
+          com.google.protobuf.RpcUtil.generalizeCallback(
+            done,
+            tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.class,
+            tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance()));
+      }
+    }
+
+    public static BlockingInterface newBlockingStub(
+        com.google.protobuf.BlockingRpcChannel channel) {
+      return new BlockingStub(channel);
+    }
+
+    public interface BlockingInterface {
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountResponse getCounts(
+          com.google.protobuf.RpcController controller,
+          tableAsDataSource.generated.EmailCountProtos.EmailCountRequest request)
+          throws com.google.protobuf.ServiceException;
+    }
+
+    private static final class BlockingStub implements BlockingInterface {
+      private BlockingStub(com.google.protobuf.BlockingRpcChannel channel) {
+        this.channel = channel;
+      }
+
+      private final com.google.protobuf.BlockingRpcChannel channel;
+
+      public tableAsDataSource.generated.EmailCountProtos.EmailCountResponse getCounts(
+          com.google.protobuf.RpcController controller,
+          tableAsDataSource.generated.EmailCountProtos.EmailCountRequest request)
+          throws com.google.protobuf.ServiceException {
+        return (tableAsDataSource.generated.EmailCountProtos.EmailCountResponse) channel.callBlockingMethod(
+          getDescriptor().getMethods().get(0),
+          controller,
+          request,
+          tableAsDataSource.generated.EmailCountProtos.EmailCountResponse.getDefaultInstance());
+      }
+
+    }
+
+    // @@protoc_insertion_point(class_scope:EmailCountService)
+  }
+
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_EmailCountRequest_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_EmailCountRequest_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_EmailCount_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_EmailCount_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_EmailCountResponse_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_EmailCountResponse_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\"src/main/protobuf/EmailCount.proto\"]\n\021" +
+      "EmailCountRequest\022\016\n\006family\030\001 \002(\014\022\021\n\tqua" +
+      "lifier\030\002 \001(\014\022\021\n\tstart_row\030\003 \001(\014\022\022\n\nmax_e" +
+      "mails\030\004 \001(\005\"*\n\nEmailCount\022\r\n\005email\030\001 \002(\t" +
+      "\022\r\n\005count\030\002 \002(\003\"p\n\022EmailCountResponse\022\033\n" +
+      "\006counts\030\001 \003(\0132\013.EmailCount\022\014\n\004rows\030\002 \001(\003" +
+      "\022\r\n\005cells\030\003 \001(\003\022\016\n\006errors\030\004 \001(\003\022\020\n\010next_" +
+      "row\030\005 \001(\0142I\n\021EmailCountService\0224\n\tgetCou" +
+      "nts\022\022.EmailCountRequest\032\023.EmailCountResp" +
+      "onseB7\n\033tableAsDataSource.generatedB\020Ema" +
+      "ilCountProtosH\001\210\001\001\240\001\001"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+      new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
+        public com.google.protobuf.ExtensionRegistry assignDescriptors(
+            com.google.protobuf.Descriptors.FileDescriptor root) {
+          descriptor = root;
+          internal_static_EmailCountRequest_descriptor =
+            getDescriptor().getMessageTypes().get(0);
+          internal_static_EmailCountRequest_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_EmailCountRequest_descriptor,
+              new java.lang.String[] { "Family", "Qualifier", "StartRow", "MaxEmails", });
+          internal_static_EmailCount_descriptor =
+            getDescriptor().getMessageTypes().get(1);
+          internal_static_EmailCount_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_EmailCount_descriptor,
+              new java.lang.String[] { "Email", "Count", });
+          internal_static_EmailCountResponse_descriptor =
+            getDescriptor().getMessageTypes().get(2);
+          internal_static_EmailCountResponse_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_EmailCountResponse_descriptor,
+              new java.lang.String[] { "Counts", "Rows", "Cells", "Errors", "NextRow", });
+          return null;
+        }
+      };
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        }, assigner);
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
@@ -0,0 +1,211 @@
+package tablesAsDataSink;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.util.ByteBloomFilter;
+import org.apache.hadoop.hbase.util.Hash;
+
+// Remembers the row keys a task has already written in a bloom filter of
+// fixed size, so that repeated lines can be dropped before they are sent to
+// the region servers. With content-addressed keys (md5, murmur) a repeated
+// key is a repeated line. With the field strategy it is a repeated value of
+// the key field: the first record with a value is kept and the later ones
+// are dropped, even if their other fields differ. A false positive drops a
+// line that was not seen before, at the configured rate.
+//
+// The filter can be seeded with the row keys already in the table. The job
+// driver scans the table once and ships the seeded filter to the tasks as a
+// file in the distributed cache, instead of every task scanning the table.
+public class DuplicateFilter {
+
+	public static final String CONF_BYTES = "conf.dedupe.bytes";
+	public static final String CONF_ERROR_RATE = "conf.dedupe.error";
+	// The local name of the seeded filter in the working directory of a task.
+	public static final String CONF_SEED_FILE = "conf.dedupe.seed.file";
+
+	// A bloom filter whose bits can be saved and restored.
+	private static class Bloom extends ByteBloomFilter {
+		Bloom(int maxKeys, double errorRate) {
+			super(maxKeys, errorRate, Hash.MURMUR_HASH, 0);
+			allocBloom();
+		}
+
+		byte[] bits() {
+			return bloom.array();
+		}
+
+		void restore(byte[] bits, int keys) {
+			System.arraycopy(bits, 0, bloom.array(), 0, bits.length);
+			keyCount = keys;
+		}
+	}
+
+	private final int byteSize;
+	private final double errorRate;
+	private final Bloom bloom;
+	// The bits and key count of the seed, restored on a reset.
+	private byte[] seed = null;
+	private int seedKeys = 0;
+	private long resets = 0;
+
+	/**
+	 * Creates a new, empty filter.
+	 *
+	 * @param byteSize
+	 *            The memory to use for the bloom filter.
+	 * @param errorRate
+	 *            The target false positive rate, used to pick the number of
+	 *            keys the filter can hold.
+	 */
+	public DuplicateFilter(int byteSize, double errorRate) {
+		this.byteSize = byteSize;
+		this.errorRate = errorRate;
+		bloom = new Bloom((int) ByteBloomFilter.idealMaxKeys((long) byteSize * 8, errorRate), errorRate);
+	}
+
+	/**
+	 * Records the key.
+	 *
+	 * @param key
+	 *            The row key.
+	 * @return <code>false</code> if the key was (probably) added before.
+	 */
+	public boolean add(byte[] key) {
+		if (bloom.contains(key, 0, key.length, null)) {
+			return false;
+		}
+		if (bloom.getKeyCount() >= bloom.getMaxKeys()) {
+			// More keys would push the false positive rate over the target,
+			// start over from the seed instead and forget the keys added
+			// since.
+			if (seed == null) {
+				bloom.restore(new byte[bloom.bits().length], 0);
+			} else {
+				bloom.restore(seed, seedKeys);
+			}
+			resets++;
+		}
+		bloom.add(key);
+		return true;
+	}
+
+	/**
+	 * @return How often the filter was full and had to be cleared.
+	 */
+	public long getResets() {
+		return resets;
+	}
+
+	/**
+	 * @return The number of keys the filter holds at the target false
+	 *         positive rate.
+	 */
+	public long getMaxKeys() {
+		return bloom.getMaxKeys();
+	}
+
+	/**
+	 * Adds the keys of all rows already stored in the table, which are kept
+	 * when the filter is reset.
+	 *
+	 * @param conf
+	 *            The configuration to connect with.
+	 * @param table
+	 *            The table to read the row keys from.
+	 * @return The number of rows read.
+	 * @throws IOException
+	 *             When scanning the table fails, or the table has more rows
+	 *             than the filter can hold.
+	 */
+	public long seed(Configuration conf, TableName table) throws IOException {
+		// Only the row keys are needed, have the servers drop everything else.
+		Scan scan = new Scan();
+		scan.setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+		scan.setCaching(1000);
+		scan.setCacheBlocks(false);
+
+		long rows = 0;
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Table htable = connection.getTable(table);
+				ResultScanner scanner = htable.getScanner(scan)) {
+			for (Result result : scanner) {
+				if (bloom.getKeyCount() >= bloom.getMaxKeys()) {
+					throw new IOException("Table " + table + " has more than the " + bloom.getMaxKeys()
+							+ " rows a filter of " + byteSize + " bytes holds at an error rate of " + errorRate);
+				}
+				byte[] row = result.getRow();
+				bloom.add(row, 0, row.length);
+				rows++;
+			}
+		}
+		seed = bloom.bits().clone();
+		seedKeys = (int) bloom.getKeyCount();
+		return rows;
+	}
+
+	/**
+	 * Writes the filter to a file.
+	 *
+	 * @param fs
+	 *            The filesystem of the file.
+	 * @param file
+	 *            The file to write.
+	 * @throws IOException
+	 *             When writing fails.
+	 */
+	public void write(FileSystem fs, Path file) throws IOException {
+		try (DataOutputStream out = fs.create(file, true)) {
+			out.writeInt((int) bloom.getKeyCount());
+			out.write(bloom.bits());
+		}
+	}
+
+	// Reads the bits written by write() into this filter, as its seed.
+	private void read(String file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			seedKeys = in.readInt();
+			seed = new byte[bloom.bits().length];
+			in.readFully(seed);
+		}
+		bloom.restore(seed, seedKeys);
+	}
+
+	/**
+	 * Creates the filter configured for the job, seeded from the distributed
+	 * cache if the driver shipped a seed.
+	 *
+	 * @param conf
+	 *            The job configuration.
+	 * @return The filter, or <code>null</code> if deduplication is off.
+	 * @throws IOException
+	 *             When reading the seed fails.
+	 */
+	public static DuplicateFilter create(Configuration conf) throws IOException {
+		int byteSize = conf.getInt(CONF_BYTES, 0);
+		if (byteSize <= 0) {
+			return null;
+		}
+		DuplicateFilter filter = new DuplicateFilter(byteSize, conf.getFloat(CONF_ERROR_RATE, 0.01f));
+		String seed = conf.get(CONF_SEED_FILE);
+		if (seed != null) {
+			filter.read(seed);
+		}
+		return filter;
+	}
+}
@@ -1,6 +1,16 @@
 package tablesAsDataSink;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import admin.TableProvisioner;
+import admin.TableSpec;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -9,24 +19,40 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.PosixParser;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.PathFilter;
 import org.apache.hadoop.hbase.HBaseConfiguration;
 import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.HTable;
 import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.mapreduce.HFileOutputFormat2;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
 import org.apache.hadoop.hbase.mapreduce.TableOutputFormat;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.lib.input.CombineTextInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.apache.hadoop.util.GenericOptionsParser;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
@@ -39,13 +65,23 @@ public class ImportFromFile {
 	public static final String NAME = "ImportFromFile";
 
 	public enum Counters {
-		LINES
+		LINES, ERRORS, DUPLICATES, DEDUPE_RESETS
 	}
 
 	// // Define the mapper class, extending the provided Hadoop class.
 	static class ImportMapper extends Mapper<LongWritable, Text, ImmutableBytesWritable, Mutation> {
 		private byte[] family = null;
 		private byte[] qualifier = null;
+		private RowKeyGenerator keys = null;
+		private JsonColumns columns = null;
+		private DuplicateFilter duplicates = null;
+
+		// Reused for every record, the output formats do not hold on to the
+		// key (TableOutputFormat ignores it, the shuffle serializes it).
+		private final ImmutableBytesWritable rowKey = new ImmutableBytesWritable();
+		private Counter lines = null;
+		private Counter errors = null;
+		private Counter suppressed = null;
 
 		/**
 		 * called once when the class is instantiated by the framework. Here it
@@ -60,7 +96,32 @@ public class ImportFromFile {
 		 */
 		@Override
 		protected void setup(Context context) throws IOException, InterruptedException {
-			String column = context.getConfiguration().get("conf.column");
+			Configuration conf = context.getConfiguration();
+			configure(conf);
+			lines = context.getCounter(Counters.LINES);
+			errors = context.getCounter(Counters.ERRORS);
+			suppressed = context.getCounter(Counters.DUPLICATES);
+
+			// Holds the keys of the existing rows if the driver shipped a
+			// seeded filter.
+			duplicates = DuplicateFilter.create(conf);
+		}
+
+		@Override
+		protected void cleanup(Context context) throws IOException, InterruptedException {
+			if (duplicates != null) {
+				context.getCounter(Counters.DEDUPE_RESETS).increment(duplicates.getResets());
+			}
+		}
+
+		/**
+		 * Reads the column and row key settings from the configuration.
+		 *
+		 * @param conf
+		 *            The job configuration.
+		 */
+		void configure(Configuration conf) {
+			String column = conf.get("conf.column");
 
 			// Splits a column in family:qualifier form into separate byte
 			// arrays.
@@ -69,6 +130,10 @@ public class ImportFromFile {
 			if (colkey.length > 1) {
 				qualifier = colkey[1];
 			}
+			keys = RowKeyGenerator.create(conf);
+			if (conf.getBoolean(JsonColumns.CONF_SHRED, false)) {
+				columns = new JsonColumns();
+			}
 		}
 
 		/**
@@ -83,34 +148,63 @@ public class ImportFromFile {
 		 * @param context
 		 *            The task context.
 		 * @throws IOException
-		 *             When mapping the input fails.
+		 *             When writing the output fails.
 		 */
 		@Override
 		protected void map(LongWritable offset, Text line, Context context) throws IOException, InterruptedException {
+			Put put;
 			try {
-				String lineString = line.toString();
-
-				// creates a HBase row key by using an MD5 hash of the line
-				// content. It then stores the line content as-is in the
-				// provided column, ti‐
-				// tled data:json
-				// byte[] rowkey = DigestUtils.md5(lineString);
-				byte[] rowkey = Bytes.toBytes("rowKey1");
-
-				// Create a Put operation for the specified row.
-				// row - row key
-				Put put = new Put(rowkey);
-				put.addColumn(family, qualifier, Bytes.toBytes(lineString));
-
-				// Store the original data in a column in the given table.
-				// ImmutableBytesWritable - A byte sequence that is usable as a
-				// key or value.
-				context.write(new ImmutableBytesWritable(rowkey), put);
-				context.getCounter(Counters.LINES).increment(1);
-
-			} catch (Exception e) {
-				e.printStackTrace();
+				put = createPut(line);
+			} catch (IOException e) {
+				// No key can be derived from the line, skip it.
+				errors.increment(1);
+				return;
+			}
+			if (duplicates != null && !duplicates.add(put.getRow())) {
+				// The same row was written by this task already.
+				suppressed.increment(1);
+				return;
+			}
+
+			// Store the original data in a column in the given table.
+			// ImmutableBytesWritable - A byte sequence that is usable as a
+			// key or value.
+			rowKey.set(put.getRow());
+			context.write(rowKey, put);
+			lines.increment(1);
+		}
+
+		/**
+		 * Creates the Put for a line. The line is copied once, straight from
+		 * the UTF-8 bytes backing the Text, and shared by the row key
+		 * generator and the cell value.
+		 *
+		 * @param line
+		 *            The current line of the file.
+		 * @return The Put holding the line.
+		 * @throws IOException
+		 *             When no row key can be derived from the line.
+		 */
+		Put createPut(Text line) throws IOException {
+			// The backing array is reused for the next line and may be longer
+			// than the current one, so copy exactly getLength() bytes.
+			byte[] value = Arrays.copyOf(line.getBytes(), line.getLength());
+
+			// creates a HBase row key using the configured strategy, by
+			// default an MD5 hash of the line content. It then stores the
+			// line content as-is in the provided column, titled data:json
+			byte[] rowkey = keys.getRowKey(value, 0, value.length);
+
+			// Create a Put operation for the specified row.
+			// row - row key
+			Put put = new Put(rowkey);
+			if (columns != null) {
+				// Store every field of the record in its own column instead.
+				columns.addColumns(put, family, value, 0, value.length);
+			} else {
+				put.addColumn(family, qualifier, value);
 			}
+			return put;
 		}
 	}
 
@@ -127,7 +221,7 @@ public class ImportFromFile {
 	 */
 	private static CommandLine parseArgs(String[] args) throws ParseException {
 		Options options = new Options();
-		Option o = new Option("t", "table", true, "table to import into (must exist)");
+		Option o = new Option("t", "table", true, "table to import into (created if missing and -r or -s is given)");
 		o.setArgName("table-name");
 		o.setRequired(true);
 		options.addOption(o);
@@ -142,6 +236,45 @@ public class ImportFromFile {
 		o.setRequired(true);
 		options.addOption(o);
 
+		o = new Option("b", "bulk", true, "write HFiles into the given staging directory and bulk load them");
+		o.setArgName("path-in-HDFS");
+		options.addOption(o);
+
+		o = new Option("k", "key", true, "row key strategy: md5 (default), murmur or field");
+		o.setArgName("strategy");
+		options.addOption(o);
+
+		o = new Option("f", "key-field", true, "JSON field to use as row key with -k field");
+		o.setArgName("field");
+		options.addOption(o);
+
+		o = new Option("s", "salt", true, "prefix row keys with a salt byte from the given number of buckets");
+		o.setArgName("buckets");
+		options.addOption(o);
+
+		o = new Option("j", "json-columns", false, "store each top-level JSON field in its own column of the family");
+		options.addOption(o);
+
+		o = new Option("u", "dedupe", true, "drop repeated lines with a bloom filter of the given size per task, "
+				+ "keeping the first line of each row key (with -k field: the first record of each key value)");
+		o.setArgName("bytes");
+		options.addOption(o);
+
+		o = new Option("e", "dedupe-error", true, "target false positive rate of the bloom filter (default: 0.01)");
+		o.setArgName("rate");
+		options.addOption(o);
+
+		options.addOption("x", "dedupe-seed", false, "add the row keys already in the table to the bloom filter, "
+				+ "fails if the table has more rows than the filter holds");
+
+		o = new Option("m", "max-split", true, "pack small input files into splits of at most the given size");
+		o.setArgName("bytes");
+		options.addOption(o);
+
+		o = new Option("r", "regions", true, "number of regions to pre-split a missing table into");
+		o.setArgName("count");
+		options.addOption(o);
+
 		options.addOption("d", "debug", false, "switch on DEBUG log level");
 
 		CommandLineParser parser = new PosixParser();
@@ -157,6 +290,188 @@ public class ImportFromFile {
 		return cmd;
 	}
 
+	/**
+	 * Creates the table if it does not exist yet, pre-split into the given
+	 * number of regions. The split points come from the row key layout if
+	 * possible, otherwise from a sample of the input.
+	 *
+	 * @param conf
+	 *            The job configuration.
+	 * @param tableName
+	 *            The table to create.
+	 * @param column
+	 *            The column in family:qualifier form.
+	 * @param input
+	 *            The directory or file to sample the keys from.
+	 * @param regions
+	 *            The number of regions to create.
+	 * @throws IOException
+	 *             When reading the input or creating the table fails.
+	 */
+	private static void createTable(Configuration conf, TableName tableName, String column, Path input, int regions)
+			throws IOException {
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Admin admin = connection.getAdmin()) {
+			if (admin.tableExists(tableName)) {
+				LOG.info("Table " + tableName + " exists, keeping its regions");
+				return;
+			}
+			RowKeyGenerator keys = RowKeyGenerator.create(conf);
+			byte[][] splits = keys.getSplitKeys(regions);
+			if (splits == null) {
+				List<byte[]> sample = sampleKeys(conf, input, keys);
+				if (sample.isEmpty()) {
+					LOG.warn("No row keys sampled from " + input + ", creating " + tableName + " with one region");
+				}
+				splits = TableProvisioner.sampleSplits(sample, regions);
+			}
+
+			// The storage settings of the family come from the "table.spec.*"
+			// properties, if given.
+			String family = Bytes.toString(KeyValue.parseColumn(Bytes.toBytes(column))[0]);
+			new TableProvisioner(admin).create(tableName, TableSpec.fromConfiguration(conf, family), splits);
+		}
+	}
+
+	/**
+	 * Seeds the duplicate filter with the row keys already in the table and
+	 * ships it to the tasks in the distributed cache, so that the table is
+	 * scanned once instead of once per task.
+	 *
+	 * @param job
+	 *            The job to add the filter to.
+	 * @param table
+	 *            The table to read the row keys from.
+	 * @throws IOException
+	 *             When scanning the table or writing the filter fails, or the
+	 *             table has more rows than the filter holds.
+	 */
+	private static void seedDuplicateFilter(Job job, TableName table) throws IOException {
+		Configuration conf = job.getConfiguration();
+		DuplicateFilter filter = DuplicateFilter.create(conf);
+		if (filter == null) {
+			LOG.warn("Ignoring -x, deduplication is off without -u");
+			return;
+		}
+		long rows = filter.seed(conf, table);
+		LOG.info("Seeded duplicate filter with " + rows + " existing rows, it holds " + filter.getMaxKeys());
+		if (rows > filter.getMaxKeys() / 2) {
+			LOG.warn("The existing rows fill more than half of the duplicate filter, "
+					+ "it will be reset often, consider a larger -u");
+		}
+
+		// Removed when the driver exits, the tasks have their local copy.
+		FileSystem fs = FileSystem.get(conf);
+		Path file = fs.makeQualified(new Path(fs.getHomeDirectory(), "." + NAME + "-dedupe-"
+				+ System.currentTimeMillis()));
+		filter.write(fs, file);
+		fs.deleteOnExit(file);
+		job.addCacheFile(URI.create(file.toUri() + "#dedupe.bloom"));
+		conf.set(DuplicateFilter.CONF_SEED_FILE, "dedupe.bloom");
+	}
+
+	// Skips the files FileInputFormat skips as well, e.g. _SUCCESS and
+	// .crc files.
+	private static final PathFilter HIDDEN_FILES = new PathFilter() {
+		@Override
+		public boolean accept(Path path) {
+			String name = path.getName();
+			return !name.startsWith("_") && !name.startsWith(".");
+		}
+	};
+
+	/**
+	 * Reads the first lines of the input and creates their row keys.
+	 * Compressed files are decompressed like the job does, by their suffix.
+	 *
+	 * @param conf
+	 *            The job configuration.
+	 * @param input
+	 *            The directory or file to sample.
+	 * @param keys
+	 *            The generator for the row keys.
+	 * @return The sampled row keys.
+	 * @throws IOException
+	 *             When reading the input fails.
+	 */
+	private static List<byte[]> sampleKeys(Configuration conf, Path input, RowKeyGenerator keys) throws IOException {
+		int limit = conf.getInt("conf.sample.lines", 10000);
+		List<byte[]> sample = new ArrayList<byte[]>();
+		FileSystem fs = input.getFileSystem(conf);
+		CompressionCodecFactory codecs = new CompressionCodecFactory(conf);
+		for (FileStatus status : fs.listStatus(input, HIDDEN_FILES)) {
+			if (status.isDirectory()) {
+				continue;
+			}
+			InputStream in = fs.open(status.getPath());
+			CompressionCodec codec = codecs.getCodec(status.getPath());
+			if (codec != null) {
+				in = codec.createInputStream(in);
+			}
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"))) {
+				String line;
+				while (sample.size() < limit && (line = reader.readLine()) != null) {
+					byte[] value = Bytes.toBytes(line);
+					try {
+						sample.add(keys.getRowKey(value, 0, value.length));
+					} catch (IOException e) {
+						LOG.debug("Skipping sample line: " + e.getMessage());
+					}
+				}
+			}
+		}
+		return sample;
+	}
+
+	/**
+	 * Runs the job in bulk load mode. Instead of sending one Put RPC per line
+	 * through the WAL and memstore, the mapper output is sorted and
+	 * partitioned along the current region boundaries, written as HFiles into
+	 * the staging directory, and then handed over to the region servers in a
+	 * single step.
+	 *
+	 * @param job
+	 *            The job with the input and mapper already configured.
+	 * @param table
+	 *            The name of the table to load into.
+	 * @param staging
+	 *            The directory to write the HFiles to (must not exist).
+	 * @return <code>true</code> when the job and the load succeeded.
+	 * @throws Exception
+	 *             When running the job or loading the files fails.
+	 */
+	private static boolean runBulkLoad(Job job, String table, Path staging) throws Exception {
+		Configuration conf = job.getConfiguration();
+		TableName tableName = TableName.valueOf(table);
+
+		try (Connection connection = ConnectionFactory.createConnection(conf);
+				Table htable = connection.getTable(tableName);
+				RegionLocator locator = connection.getRegionLocator(tableName)) {
+
+			// The map output value must be Put, so that the PutSortReducer is
+			// picked to emit the KeyValues of every row in sorted order.
+			job.setMapOutputKeyClass(ImmutableBytesWritable.class);
+			job.setMapOutputValueClass(Put.class);
+
+			// Sets up one reducer per region with a total order partitioner
+			// over the region start keys, and copies the compression, bloom
+			// filter, block size and encoding of each family into the job.
+			HFileOutputFormat2.configureIncrementalLoad(job, htable, locator);
+			FileOutputFormat.setOutputPath(job, staging);
+
+			if (!job.waitForCompletion(true)) {
+				return false;
+			}
+
+			// Moves the HFiles into the regions. Files that span a region
+			// boundary (e.g. after a split during the job) are split first.
+			LOG.info("Loading HFiles from " + staging + " into table " + table);
+			LoadIncrementalHFiles loader = new LoadIncrementalHFiles(conf);
+			loader.doBulkLoad(staging, (HTable) htable);
+		}
+		return true;
+	}
+
 	/**
 	 * Main entry point.
 	 *
@@ -183,18 +498,57 @@ public class ImportFromFile {
 		String table = cmd.getOptionValue("t");
 		String input = cmd.getOptionValue("i");
 		String column = cmd.getOptionValue("c");
+		String staging = cmd.getOptionValue("b");
 		conf.set("conf.column", column);
+		if (cmd.hasOption("k"))
+			conf.set(RowKeyGenerator.CONF_STRATEGY, cmd.getOptionValue("k"));
+		if (cmd.hasOption("f"))
+			conf.set(RowKeyGenerator.CONF_FIELD, cmd.getOptionValue("f"));
+		if (cmd.hasOption("s"))
+			conf.setInt(RowKeyGenerator.CONF_SALT, Integer.parseInt(cmd.getOptionValue("s")));
+		if (cmd.hasOption("j"))
+			conf.setBoolean(JsonColumns.CONF_SHRED, true);
+		if (cmd.hasOption("u"))
+			conf.setInt(DuplicateFilter.CONF_BYTES, Integer.parseInt(cmd.getOptionValue("u")));
+		if (cmd.hasOption("e"))
+			conf.setFloat(DuplicateFilter.CONF_ERROR_RATE, Float.parseFloat(cmd.getOptionValue("e")));
+
+		// Create the table, pre-split along the key layout, so that the
+		// writes are spread over all region servers from the start.
+		int regions = cmd.hasOption("r") ? Integer.parseInt(cmd.getOptionValue("r"))
+				: conf.getInt(RowKeyGenerator.CONF_SALT, 0);
+		if (regions > 0) {
+			createTable(conf, TableName.valueOf(table), column, new Path(input), regions);
+		}
 
 		// Define the job with the required classes.
 		Job job = Job.getInstance(conf, "Import from file " + input + " into table " + table);
 		job.setJarByClass(ImportFromFile.class);
 		job.setMapperClass(ImportMapper.class);
 
+		FileInputFormat.addInputPath(job, new Path(input));
+		if (cmd.hasOption("x")) {
+			seedDuplicateFilter(job, TableName.valueOf(table));
+		}
+		if (cmd.hasOption("m")) {
+			// Packs many small files into one split, so that the number of
+			// mappers follows the data volume instead of the file count.
+			// Files with a non-splittable codec (gzip) are kept whole, plain
+			// and bzip2 files are split at the given size as well.
+			job.setInputFormatClass(CombineTextInputFormat.class);
+			FileInputFormat.setMaxInputSplitSize(job, Long.parseLong(cmd.getOptionValue("m")));
+		}
+		if (staging != null) {
+			System.exit(runBulkLoad(job, table, new Path(staging)) ? 0 : 1);
+		}
+
 		// provided by HBase and allows the job to easily write data into a
 		// table
 		// The key and value types needed by this class are implicitly fixed to
 		// ImmutableBytesWritable for the key, and Mutation for the value
-		job.setOutputFormatClass(TableOutputFormat.class);
+		// The instrumented variant adds the flush latency, batch sizes and
+		// bytes per region server to the job counters.
+		job.setOutputFormatClass(InstrumentedTableOutputFormat.class);
 		job.getConfiguration().set(TableOutputFormat.OUTPUT_TABLE, table);
 		job.setOutputKeyClass(ImmutableBytesWritable.class);
 		job.setOutputValueClass(Writable.class);
@@ -202,7 +556,6 @@ public class ImportFromFile {
 		// his is a map only job, therefore tell the framework to bypass the
 		// reduce step.
 		job.setNumReduceTasks(0);
-		FileInputFormat.addInputPath(job, new Path(input));
 		System.exit(job.waitForCompletion(true) ? 0 : 1);
 	}
 }
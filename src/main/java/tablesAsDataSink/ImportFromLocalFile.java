@@ -0,0 +1,335 @@
+package tablesAsDataSink;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import client.InstrumentedMutator;
+import client.WriteMetrics;
+
+import com.yammer.metrics.reporting.JmxReporter;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+// Imports a local file into a table from within a single process, without
+// starting a MapReduce job. The file is memory-mapped and split on line
+// boundaries into chunks, which a pool of worker threads turns into Puts for
+// one shared BufferedMutator.
+public class ImportFromLocalFile {
+	private static final Log LOG = LogFactory.getLog(ImportFromLocalFile.class);
+
+	public static final String NAME = "ImportFromLocalFile";
+
+	// Upper bound for a single mapping, a MappedByteBuffer is int indexed.
+	private static final long MAX_CHUNK = 256L * 1024 * 1024;
+
+	private final AtomicLong lines = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+	// Time the workers spent blocked in mutate(), which includes the
+	// flushes triggered by a full write buffer.
+	private final AtomicLong mutateNanos = new AtomicLong();
+
+	private final Configuration conf;
+	private final byte[] family;
+	private final byte[] qualifier;
+
+	/**
+	 * Creates a new importer.
+	 *
+	 * @param conf
+	 *            The configuration, including the row key settings.
+	 * @param column
+	 *            The column in family:qualifier form.
+	 */
+	public ImportFromLocalFile(Configuration conf, String column) {
+		this.conf = conf;
+		byte[][] colkey = KeyValue.parseColumn(Bytes.toBytes(column));
+		family = colkey[0];
+		qualifier = colkey.length > 1 ? colkey[1] : null;
+	}
+
+	// Imports one line aligned range of the file.
+	private class Chunk implements Callable<Void> {
+		private final FileChannel channel;
+		private final long start;
+		private final long end;
+		private final BufferedMutator mutator;
+
+		Chunk(FileChannel channel, long start, long end, BufferedMutator mutator) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.mutator = mutator;
+		}
+
+		@Override
+		public Void call() throws IOException {
+			RowKeyGenerator keys = RowKeyGenerator.create(conf);
+			JsonColumns columns = conf.getBoolean(JsonColumns.CONF_SHRED, false) ? new JsonColumns() : null;
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			int lineStart = 0;
+			int limit = buffer.limit();
+			for (int pos = 0; pos <= limit; pos++) {
+				if (pos < limit && buffer.get(pos) != '\n') {
+					continue;
+				}
+				int lineEnd = pos;
+				if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+					lineEnd--;
+				}
+				if (lineEnd > lineStart) {
+					byte[] value = new byte[lineEnd - lineStart];
+					buffer.position(lineStart);
+					buffer.get(value);
+					importLine(keys, columns, value);
+				}
+				lineStart = pos + 1;
+			}
+			return null;
+		}
+
+		private void importLine(RowKeyGenerator keys, JsonColumns columns, byte[] value) throws IOException {
+			Put put;
+			try {
+				put = new Put(keys.getRowKey(value, 0, value.length));
+				if (columns != null) {
+					columns.addColumns(put, family, value, 0, value.length);
+				} else {
+					put.addColumn(family, qualifier, value);
+				}
+			} catch (IOException e) {
+				errors.incrementAndGet();
+				LOG.debug("Skipping line: " + e.getMessage());
+				return;
+			}
+
+			long t0 = System.nanoTime();
+			mutator.mutate(put);
+			mutateNanos.addAndGet(System.nanoTime() - t0);
+			lines.incrementAndGet();
+			bytes.addAndGet(value.length);
+		}
+	}
+
+	/**
+	 * Splits the file into ranges that start and end on line boundaries.
+	 *
+	 * @param file
+	 *            The file to split.
+	 * @param chunks
+	 *            The minimum number of ranges to create.
+	 * @return The offsets of the range boundaries, including 0 and the file
+	 *         length.
+	 * @throws IOException
+	 *             When reading the file fails.
+	 */
+	static List<Long> splitOnLines(RandomAccessFile file, int chunks) throws IOException {
+		long length = file.length();
+		long size = Math.max(1, Math.min(MAX_CHUNK, (length + chunks - 1) / chunks));
+		List<Long> bounds = new ArrayList<Long>();
+		bounds.add(0L);
+		long pos = size;
+		while (pos < length) {
+			// Move the boundary just past the next line break.
+			file.seek(pos);
+			int b;
+			while ((b = file.read()) != -1 && b != '\n') {
+				pos++;
+			}
+			pos++;
+			if (pos >= length) {
+				break;
+			}
+			bounds.add(pos);
+			pos += size;
+		}
+		bounds.add(length);
+		return bounds;
+	}
+
+	/**
+	 * Imports the file into the table.
+	 *
+	 * @param table
+	 *            The table to import into.
+	 * @param input
+	 *            The local file to read from.
+	 * @param threads
+	 *            The number of worker threads.
+	 * @param writeBuffer
+	 *            The size of the shared write buffer in bytes.
+	 * @throws Exception
+	 *             When the import fails.
+	 */
+	public void run(String table, String input, int threads, long writeBuffer) throws Exception {
+		long start = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		BufferedMutatorParams params = new BufferedMutatorParams(TableName.valueOf(table))
+				.writeBufferSize(writeBuffer);
+		// The flush metrics are available over JMX while the import runs.
+		WriteMetrics metrics = new WriteMetrics(table);
+		JmxReporter reporter = metrics.startJmx();
+
+		try (RandomAccessFile file = new RandomAccessFile(input, "r");
+				FileChannel channel = file.getChannel();
+				Connection connection = ConnectionFactory.createConnection(conf);
+				InstrumentedMutator mutator = new InstrumentedMutator(connection, params, metrics)) {
+			LOG.info("Started in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+			// Use more chunks than threads, so that the threads stay busy
+			// when some lines are more expensive than others.
+			List<Long> bounds = splitOnLines(file, threads * 4);
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int i = 1; i < bounds.size(); i++) {
+				futures.add(pool.submit(new Chunk(channel, bounds.get(i - 1), bounds.get(i), mutator)));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+
+			long t0 = System.nanoTime();
+			mutator.flush();
+			long flushNanos = System.nanoTime() - t0;
+			report(System.nanoTime() - start, flushNanos);
+			System.out.println("Writes: " + metrics);
+		} finally {
+			pool.shutdownNow();
+			reporter.shutdown();
+		}
+	}
+
+	private void report(long elapsedNanos, long flushNanos) {
+		double seconds = elapsedNanos / 1e9;
+		System.out.println("Lines: " + lines.get() + ", Errors: " + errors.get());
+		System.out.println(String.format("Elapsed: %.2f s, %.0f lines/s, %.2f MB/s", seconds,
+				lines.get() / seconds, bytes.get() / seconds / (1024 * 1024)));
+		System.out.println(String.format("Time in mutate: %d ms, final flush: %d ms",
+				TimeUnit.NANOSECONDS.toMillis(mutateNanos.get()), TimeUnit.NANOSECONDS.toMillis(flushNanos)));
+	}
+
+	/**
+	 * Parse the command line parameters. The options match the ones of
+	 * ImportFromFile, with the input being a local file.
+	 *
+	 * @param args
+	 *            The parameters to parse.
+	 * @return The parsed command line.
+	 * @throws ParseException
+	 *             When the parsing of the parameters fails.
+	 */
+	private static CommandLine parseArgs(String[] args) throws ParseException {
+		Options options = new Options();
+		Option o = new Option("t", "table", true, "table to import into (must exist)");
+		o.setArgName("table-name");
+		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("c", "column", true, "column to store row data into (must exist)");
+		o.setArgName("family:qualifier");
+		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("i", "input", true, "the local file to read from");
+		o.setArgName("path");
+		o.setRequired(true);
+		options.addOption(o);
+
+		o = new Option("k", "key", true, "row key strategy: md5 (default), murmur or field");
+		o.setArgName("strategy");
+		options.addOption(o);
+
+		o = new Option("f", "key-field", true, "JSON field to use as row key with -k field");
+		o.setArgName("field");
+		options.addOption(o);
+
+		o = new Option("s", "salt", true, "prefix row keys with a salt byte from the given number of buckets");
+		o.setArgName("buckets");
+		options.addOption(o);
+
+		o = new Option("j", "json-columns", false, "store each top-level JSON field in its own column of the family");
+		options.addOption(o);
+
+		o = new Option("w", "threads", true, "number of worker threads (default: number of cores)");
+		o.setArgName("count");
+		options.addOption(o);
+
+		o = new Option("m", "write-buffer", true, "size of the shared write buffer (default: 8 MB)");
+		o.setArgName("bytes");
+		options.addOption(o);
+
+		options.addOption("d", "debug", false, "switch on DEBUG log level");
+
+		CommandLineParser parser = new PosixParser();
+		CommandLine cmd = null;
+		try {
+			cmd = parser.parse(options, args);
+		} catch (Exception e) {
+			System.err.println("ERROR: " + e.getMessage() + "\n");
+			HelpFormatter formatter = new HelpFormatter();
+			formatter.printHelp(NAME + " ", options, true);
+			System.exit(-1);
+		}
+		return cmd;
+	}
+
+	/**
+	 * Main entry point.
+	 *
+	 * @param args
+	 *            The command line parameters.
+	 * @throws Exception
+	 *             When the import fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		Configuration conf = HBaseConfiguration.create();
+		String[] otherArgs = new GenericOptionsParser(conf, args).getRemainingArgs();
+		CommandLine cmd = parseArgs(otherArgs);
+
+		if (cmd.hasOption("d"))
+			conf.set("conf.debug", "true");
+		if (cmd.hasOption("k"))
+			conf.set(RowKeyGenerator.CONF_STRATEGY, cmd.getOptionValue("k"));
+		if (cmd.hasOption("f"))
+			conf.set(RowKeyGenerator.CONF_FIELD, cmd.getOptionValue("f"));
+		if (cmd.hasOption("s"))
+			conf.setInt(RowKeyGenerator.CONF_SALT, Integer.parseInt(cmd.getOptionValue("s")));
+		if (cmd.hasOption("j"))
+			conf.setBoolean(JsonColumns.CONF_SHRED, true);
+
+		int threads = cmd.hasOption("w") ? Integer.parseInt(cmd.getOptionValue("w"))
+				: Runtime.getRuntime().availableProcessors();
+		long writeBuffer = cmd.hasOption("m") ? Long.parseLong(cmd.getOptionValue("m")) : 8 * 1024 * 1024;
+
+		ImportFromLocalFile importer = new ImportFromLocalFile(conf, cmd.getOptionValue("c"));
+		importer.run(cmd.getOptionValue("t"), cmd.getOptionValue("i"), threads, writeBuffer);
+	}
+}
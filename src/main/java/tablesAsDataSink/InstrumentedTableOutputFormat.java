@@ -0,0 +1,58 @@
+package tablesAsDataSink;
+
+import java.io.IOException;
+
+import client.CoalescingMutator;
+import client.InstrumentedMutator;
+import client.WriteMetrics;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.mapreduce.TableOutputFormat;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+// A TableOutputFormat that writes through an InstrumentedMutator. When a task
+// finishes, its write metrics are added to the job counters in the
+// "WriteMetrics" group: flush count and time, latency and batch size
+// buckets, failed mutations and the bytes sent to each region server.
+// If "client.coalesce.rows" is set, Increments of the same row are added up
+// before they are sent, see CoalescingMutator; only worth it for jobs that
+// write the same rows many times.
+public class InstrumentedTableOutputFormat<KEY> extends TableOutputFormat<KEY> {
+
+	@Override
+	public RecordWriter<KEY, Mutation> getRecordWriter(final TaskAttemptContext context) throws IOException {
+		Configuration conf = context.getConfiguration();
+		TableName tableName = TableName.valueOf(conf.get(OUTPUT_TABLE));
+
+		final Connection connection = ConnectionFactory.createConnection(conf);
+		final InstrumentedMutator instrumented = new InstrumentedMutator(connection,
+				new BufferedMutatorParams(tableName), new WriteMetrics(tableName.getNameAsString()));
+		int coalesceRows = conf.getInt(CoalescingMutator.CONF_MAX_ROWS, 0);
+		final BufferedMutator mutator = coalesceRows > 0 ? new CoalescingMutator(instrumented, coalesceRows)
+				: instrumented;
+
+		return new RecordWriter<KEY, Mutation>() {
+			@Override
+			public void write(KEY key, Mutation value) throws IOException {
+				mutator.mutate(value);
+			}
+
+			@Override
+			public void close(TaskAttemptContext ctx) throws IOException {
+				try {
+					mutator.close();
+				} finally {
+					connection.close();
+					instrumented.getMetrics().addTo(context);
+				}
+			}
+		};
+	}
+}
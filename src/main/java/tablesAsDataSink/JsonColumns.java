@@ -0,0 +1,84 @@
+package tablesAsDataSink;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.json.simple.JSONAware;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+// Shreds a JSON record into one column per top-level field, e.g. the record
+// {"fname":"Yoav","email":"..."} becomes data:fname and data:email. Readers
+// can then fetch single fields without parsing the whole record.
+// Instances are not thread-safe, use one per task or thread.
+public class JsonColumns {
+
+	public static final String CONF_SHRED = "conf.shred";
+
+	private final JSONParser parser = new JSONParser();
+
+	// The records share a small set of field names, so the encoded qualifier
+	// of each name is cached instead of being encoded for every cell. The
+	// cache is bounded in case the records use arbitrary keys.
+	private static final int MAX_CACHED = 1024;
+	private final Map<String, byte[]> qualifiers = new HashMap<String, byte[]>();
+
+	/**
+	 * Parses the record and adds a column for each top-level field to the
+	 * Put. Strings are stored as their UTF-8 bytes, all other values (numbers,
+	 * booleans, nested objects and arrays) as their JSON text.
+	 *
+	 * @param put
+	 *            The Put to add the columns to.
+	 * @param family
+	 *            The column family to store the fields in.
+	 * @param line
+	 *            The buffer holding the UTF-8 encoded record.
+	 * @param offset
+	 *            The offset of the record in the buffer.
+	 * @param length
+	 *            The length of the record.
+	 * @throws IOException
+	 *             When the record is not a JSON object, or has no field
+	 *             with a value.
+	 */
+	public void addColumns(Put put, byte[] family, byte[] line, int offset, int length) throws IOException {
+		JSONObject json;
+		try {
+			json = (JSONObject) parser.parse(Bytes.toString(line, offset, length));
+		} catch (Exception e) {
+			throw new IOException("Cannot parse JSON record", e);
+		}
+
+		int added = 0;
+		for (Object o : json.entrySet()) {
+			Map.Entry<?, ?> field = (Map.Entry<?, ?>) o;
+			Object value = field.getValue();
+			if (value == null) {
+				continue;
+			}
+			String text = value instanceof JSONAware ? ((JSONAware) value).toJSONString() : value.toString();
+			put.addColumn(family, qualifier((String) field.getKey()), Bytes.toBytes(text));
+			added++;
+		}
+		if (added == 0) {
+			// An empty Put would be rejected by the mutator and fail the
+			// whole import, skip the record like an invalid one instead.
+			throw new IOException("JSON record has no field with a value");
+		}
+	}
+
+	private byte[] qualifier(String name) {
+		byte[] qualifier = qualifiers.get(name);
+		if (qualifier == null) {
+			qualifier = Bytes.toBytes(name);
+			if (qualifiers.size() < MAX_CACHED) {
+				qualifiers.put(name, qualifier);
+			}
+		}
+		return qualifier;
+	}
+}
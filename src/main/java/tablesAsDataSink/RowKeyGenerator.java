@@ -0,0 +1,202 @@
+package tablesAsDataSink;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import admin.TableProvisioner;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Hash;
+import org.apache.hadoop.hbase.util.RegionSplitter;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+// Creates the row key for a line of the input file. The strategy is read from
+// the job configuration, so that the mapper and the driver (which computes the
+// split points of the table) always agree on the key layout.
+// Instances are not thread-safe, use one per task or thread.
+public abstract class RowKeyGenerator {
+
+	public static final String CONF_STRATEGY = "conf.rowkey";
+	public static final String CONF_FIELD = "conf.rowkey.field";
+	public static final String CONF_SALT = "conf.rowkey.salt";
+
+	public static final String MD5 = "md5";
+	public static final String MURMUR = "murmur";
+	public static final String FIELD = "field";
+
+	/**
+	 * Creates the row key for a line.
+	 *
+	 * @param line
+	 *            The buffer holding the UTF-8 encoded line.
+	 * @param offset
+	 *            The offset of the line in the buffer.
+	 * @param length
+	 *            The length of the line.
+	 * @return The row key.
+	 * @throws IOException
+	 *             When no key can be derived from the line.
+	 */
+	public abstract byte[] getRowKey(byte[] line, int offset, int length) throws IOException;
+
+	/**
+	 * Computes the split points for a table with the given number of regions,
+	 * if the key layout allows it without looking at the data.
+	 *
+	 * @param regions
+	 *            The number of regions to create.
+	 * @return The split keys, or <code>null</code> when they have to be
+	 *         sampled from the input.
+	 */
+	public byte[][] getSplitKeys(int regions) {
+		return null;
+	}
+
+	/**
+	 * @return The number of salt buckets, or 0 if the keys are not salted.
+	 */
+	public int getBuckets() {
+		return 0;
+	}
+
+	/**
+	 * Creates the generator configured for the job. Defaults to an MD5 hash
+	 * of the line.
+	 *
+	 * @param conf
+	 *            The job configuration.
+	 * @return The new generator.
+	 */
+	public static RowKeyGenerator create(Configuration conf) {
+		String strategy = conf.get(CONF_STRATEGY, MD5);
+		RowKeyGenerator generator;
+		if (MD5.equals(strategy)) {
+			generator = new Md5Key();
+		} else if (MURMUR.equals(strategy)) {
+			generator = new MurmurKey();
+		} else if (FIELD.equals(strategy)) {
+			String field = conf.get(CONF_FIELD);
+			if (field == null) {
+				throw new IllegalArgumentException("Row key strategy " + FIELD + " needs " + CONF_FIELD);
+			}
+			generator = new FieldKey(field);
+		} else {
+			throw new IllegalArgumentException("Unknown row key strategy: " + strategy);
+		}
+
+		int buckets = conf.getInt(CONF_SALT, 0);
+		if (buckets > 0) {
+			generator = new SaltedKey(generator, buckets);
+		}
+		return generator;
+	}
+
+	// Content-addressed key, the 16 byte MD5 digest of the line. Identical
+	// lines map to the same row.
+	static class Md5Key extends RowKeyGenerator {
+		private final MessageDigest digest;
+
+		Md5Key() {
+			try {
+				digest = MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public byte[] getRowKey(byte[] line, int offset, int length) {
+			digest.update(line, offset, length);
+			return digest.digest();
+		}
+
+		@Override
+		public byte[][] getSplitKeys(int regions) {
+			return new RegionSplitter.UniformSplit().split(regions);
+		}
+	}
+
+	// Content-addressed key, two 32 bit Murmur3 hashes of the line with
+	// different seeds. Shorter and cheaper than MD5.
+	static class MurmurKey extends RowKeyGenerator {
+		private final Hash hash = Hash.getInstance(Hash.MURMUR_HASH3);
+
+		@Override
+		public byte[] getRowKey(byte[] line, int offset, int length) {
+			byte[] key = new byte[Bytes.SIZEOF_LONG];
+			Bytes.putInt(key, 0, hash.hash(line, offset, length, -1));
+			Bytes.putInt(key, Bytes.SIZEOF_INT, hash.hash(line, offset, length, 0x5bd1e995));
+			return key;
+		}
+
+		@Override
+		public byte[][] getSplitKeys(int regions) {
+			return new RegionSplitter.UniformSplit().split(regions);
+		}
+	}
+
+	// Uses the value of a top-level field of the JSON record as the key.
+	static class FieldKey extends RowKeyGenerator {
+		private final JSONParser parser = new JSONParser();
+		private final String field;
+
+		FieldKey(String field) {
+			this.field = field;
+		}
+
+		@Override
+		public byte[] getRowKey(byte[] line, int offset, int length) throws IOException {
+			Object value;
+			try {
+				JSONObject json = (JSONObject) parser.parse(Bytes.toString(line, offset, length));
+				value = json.get(field);
+			} catch (Exception e) {
+				throw new IOException("Cannot parse JSON record", e);
+			}
+			if (value == null) {
+				throw new IOException("Field " + field + " is missing in record");
+			}
+			return Bytes.toBytes(value.toString());
+		}
+	}
+
+	// Prefixes the key of another generator with a single salt byte, spreading
+	// consecutive keys over a fixed number of buckets.
+	static class SaltedKey extends RowKeyGenerator {
+		private final Hash hash = Hash.getInstance(Hash.MURMUR_HASH3);
+		private final RowKeyGenerator delegate;
+		private final int buckets;
+
+		SaltedKey(RowKeyGenerator delegate, int buckets) {
+			if (buckets > 256) {
+				throw new IllegalArgumentException("At most 256 salt buckets are supported: " + buckets);
+			}
+			this.delegate = delegate;
+			this.buckets = buckets;
+		}
+
+		@Override
+		public byte[] getRowKey(byte[] line, int offset, int length) throws IOException {
+			byte[] key = delegate.getRowKey(line, offset, length);
+			byte[] salted = new byte[key.length + 1];
+			salted[0] = (byte) ((hash.hash(key) & Integer.MAX_VALUE) % buckets);
+			System.arraycopy(key, 0, salted, 1, key.length);
+			return salted;
+		}
+
+		@Override
+		public byte[][] getSplitKeys(int regions) {
+			// Split on bucket boundaries, so that each region holds whole
+			// buckets.
+			return TableProvisioner.bucketSplits(buckets, regions);
+		}
+
+		@Override
+		public int getBuckets() {
+			return buckets;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.io.encoding.DataBlockEncoding;
+import org.apache.hadoop.hbase.regionserver.BloomType;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the table descriptors and split points built from a TableSpec.
+ */
+public class TableProvisionerTest extends TestCase {
+
+	public void testSpecFromConfiguration() {
+		Configuration conf = new Configuration(false);
+		conf.set(TableSpec.CONF_ENCODING, "prefix_tree");
+		conf.set(TableSpec.CONF_COMPRESSION, "GZ");
+		conf.set(TableSpec.CONF_BLOOM, "rowcol");
+		conf.setInt(TableSpec.CONF_BLOCKSIZE, 16384);
+		conf.setBoolean(TableSpec.CONF_IN_MEMORY, true);
+
+		TableSpec spec = TableSpec.fromConfiguration(conf, "data");
+		HTableDescriptor desc = new TableProvisioner(null).describe(TableName.valueOf("Users"), spec);
+		HColumnDescriptor coldef = desc.getFamily(Bytes.toBytes("data"));
+
+		assertEquals(DataBlockEncoding.PREFIX_TREE, coldef.getDataBlockEncoding());
+		assertEquals(Compression.Algorithm.GZ, coldef.getCompressionType());
+		assertEquals(BloomType.ROWCOL, coldef.getBloomFilterType());
+		assertEquals(16384, coldef.getBlocksize());
+		assertTrue(coldef.isInMemory());
+	}
+
+	public void testDefaults() {
+		TableSpec spec = TableSpec.fromConfiguration(new Configuration(false), "data", "another_colfamily");
+		HTableDescriptor desc = new TableProvisioner(null).describe(TableName.valueOf("Users"), spec);
+
+		assertEquals(2, desc.getFamilies().size());
+		assertEquals(DataBlockEncoding.FAST_DIFF, desc.getFamily(Bytes.toBytes("data")).getDataBlockEncoding());
+		assertEquals(BloomType.ROW, desc.getFamily(Bytes.toBytes("data")).getBloomFilterType());
+		assertEquals(0, TableProvisioner.splitKeys(spec, null).length);
+	}
+
+	public void testBucketSplits() {
+		byte[][] splits = TableProvisioner.bucketSplits(16, 4);
+		assertEquals(3, splits.length);
+		assertTrue(Bytes.equals(new byte[] { 4 }, splits[0]));
+		assertTrue(Bytes.equals(new byte[] { 8 }, splits[1]));
+		assertTrue(Bytes.equals(new byte[] { 12 }, splits[2]));
+
+		// No more regions than buckets.
+		assertEquals(3, TableProvisioner.bucketSplits(4, 10).length);
+	}
+
+	public void testSampleSplits() {
+		List<byte[]> sample = new ArrayList<byte[]>();
+		for (int i = 99; i >= 0; i--) {
+			sample.add(Bytes.toBytes(i));
+		}
+		byte[][] splits = TableProvisioner.sampleSplits(sample, 4);
+		assertEquals(3, splits.length);
+		assertEquals(25, Bytes.toInt(splits[0]));
+		assertEquals(50, Bytes.toInt(splits[1]));
+		assertEquals(75, Bytes.toInt(splits[2]));
+
+		// Repeated keys do not create empty regions.
+		List<byte[]> same = new ArrayList<byte[]>();
+		for (int i = 0; i < 10; i++) {
+			same.add(Bytes.toBytes("row"));
+		}
+		assertEquals(1, TableProvisioner.sampleSplits(same, 4).length);
+	}
+}
@@ -0,0 +1,263 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.RegionTooBusyException;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the sizing of the write buffer from the observed flushes, the timed
+ * flushes, and that the failure of a timed flush reaches the writer.
+ */
+public class AdaptiveMutatorTest extends TestCase {
+
+	private static final TableName TABLE = TableName.valueOf("users");
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+
+	// Buffers the mutations, takes as long as told to and fails the flushes
+	// with the given cause while it is set.
+	private static class FakeMutator implements FakeConnection.ListeningMutator {
+		final List<Mutation> buffered = new ArrayList<Mutation>();
+		long writeBufferSize = 4096;
+		volatile long delayMillis = 0;
+		volatile IOException failure = null;
+		volatile int flushes = 0;
+		private ExceptionListener listener;
+
+		@Override
+		public void setListener(ExceptionListener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public TableName getName() {
+			return TABLE;
+		}
+
+		@Override
+		public Configuration getConfiguration() {
+			return new Configuration(false);
+		}
+
+		private void sleep() throws IOException {
+			try {
+				Thread.sleep(delayMillis);
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+		}
+
+		@Override
+		public synchronized void mutate(Mutation mutation) throws IOException {
+			sleep();
+			buffered.add(mutation);
+		}
+
+		@Override
+		public synchronized void mutate(List<? extends Mutation> mutations) throws IOException {
+			sleep();
+			buffered.addAll(mutations);
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+			flushes++;
+			sleep();
+			if (failure != null) {
+				List<Row> rows = new ArrayList<Row>(buffered);
+				buffered.clear();
+				RetriesExhaustedWithDetailsException e = new RetriesExhaustedWithDetailsException(
+						Collections.<Throwable> nCopies(rows.size(), failure), rows,
+						Collections.nCopies(rows.size(), "server-a:16020"));
+				if (listener == null) {
+					throw e;
+				}
+				listener.onException(e, this);
+			}
+			buffered.clear();
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public long getWriteBufferSize() {
+			return writeBufferSize;
+		}
+	}
+
+	// Buffers between 1 and 16 KB, starting at the 4 KB of the fake, and
+	// neither the interval nor the staleness bound run out during a test.
+	private static Configuration conf() {
+		Configuration conf = new Configuration(false);
+		conf.setLong(AdaptiveMutator.CONF_MIN_BUFFER, 1024);
+		conf.setLong(AdaptiveMutator.CONF_MAX_BUFFER, 16 * 1024);
+		conf.setLong(AdaptiveMutator.CONF_TARGET_LATENCY, 50);
+		conf.setLong(AdaptiveMutator.CONF_MIN_INTERVAL, 10000);
+		conf.setLong(AdaptiveMutator.CONF_MAX_STALENESS, 60000);
+		return conf;
+	}
+
+	private static AdaptiveMutator mutator(Configuration conf, FakeMutator fake, BufferedMutatorParams params)
+			throws IOException {
+		Connection connection = FakeConnection.create(conf, new FakeTable(), fake);
+		return new AdaptiveMutator(connection, params, new WriteMetrics("test"));
+	}
+
+	private static Put put(String row) {
+		return new Put(Bytes.toBytes(row)).addColumn(FAMILY, FAMILY, Bytes.toBytes(row));
+	}
+
+	public void testFastFullFlushGrowsTheBuffer() throws IOException {
+		FakeMutator fake = new FakeMutator();
+		AdaptiveMutator mutator = mutator(conf(), fake, new BufferedMutatorParams(TABLE));
+		try {
+			assertEquals(4096, mutator.getWriteBufferSize());
+			for (int i = 0; i < 1000 && mutator.getWriteBufferSize() == 4096; i++) {
+				mutator.mutate(put("a" + i));
+			}
+			assertEquals(8192, mutator.getWriteBufferSize());
+			assertEquals(30000, mutator.getFlushInterval());
+		} finally {
+			mutator.close();
+		}
+	}
+
+	public void testSlowFlushShrinksTheBuffer() throws IOException {
+		FakeMutator fake = new FakeMutator();
+		AdaptiveMutator mutator = mutator(conf(), fake, new BufferedMutatorParams(TABLE));
+		try {
+			mutator.mutate(put("a"));
+			fake.delayMillis = 100;
+			mutator.flush();
+			assertEquals(2048, mutator.getWriteBufferSize());
+			assertEquals(60000, mutator.getFlushInterval());
+
+			// Never below the minimum.
+			for (int i = 0; i < 3; i++) {
+				mutator.mutate(put("a"));
+				mutator.flush();
+			}
+			assertEquals(1024, mutator.getWriteBufferSize());
+		} finally {
+			fake.delayMillis = 0;
+			mutator.close();
+		}
+	}
+
+	public void testFailedFlushShrinksTheBuffer() throws IOException {
+		FakeMutator fake = new FakeMutator();
+		fake.failure = new IOException("server down");
+		AdaptiveMutator mutator = mutator(conf(), fake, new BufferedMutatorParams(TABLE));
+		try {
+			mutator.mutate(put("a"));
+			try {
+				mutator.flush();
+				fail("the failed flush was not thrown");
+			} catch (RetriesExhaustedWithDetailsException e) {
+				assertEquals(1, e.getNumExceptions());
+			}
+			assertEquals(2048, mutator.getWriteBufferSize());
+		} finally {
+			fake.failure = null;
+			mutator.close();
+		}
+	}
+
+	public void testRegionTooBusyShrinksTheBuffer() throws IOException {
+		FakeMutator fake = new FakeMutator();
+		fake.failure = new RegionTooBusyException("memstore full");
+		// The writer's listener takes the failure, the flush succeeds.
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		BufferedMutatorParams params = new BufferedMutatorParams(TABLE);
+		params.listener(new BufferedMutator.ExceptionListener() {
+			@Override
+			public void onException(RetriesExhaustedWithDetailsException e, BufferedMutator mutator) {
+				failures.add(e.getCause(0));
+			}
+		});
+		AdaptiveMutator mutator = mutator(conf(), fake, params);
+		try {
+			mutator.mutate(put("a"));
+			mutator.flush();
+			assertTrue(failures.get(0) instanceof RegionTooBusyException);
+			assertEquals(2048, mutator.getWriteBufferSize());
+
+			// Without back-pressure the next fast flush does not shrink it.
+			fake.failure = null;
+			mutator.mutate(put("a"));
+			mutator.flush();
+			assertEquals(2048, mutator.getWriteBufferSize());
+		} finally {
+			mutator.close();
+		}
+	}
+
+	public void testBufferedMutationIsFlushedWithinTheStaleness() throws Exception {
+		Configuration conf = conf();
+		conf.setLong(AdaptiveMutator.CONF_MIN_INTERVAL, 5);
+		conf.setLong(AdaptiveMutator.CONF_MAX_STALENESS, 50);
+		FakeMutator fake = new FakeMutator();
+		AdaptiveMutator mutator = mutator(conf, fake, new BufferedMutatorParams(TABLE));
+		try {
+			long start = System.nanoTime();
+			mutator.mutate(put("a"));
+			for (int i = 0; i < 200 && fake.flushes == 0; i++) {
+				Thread.sleep(5);
+			}
+			long millis = (System.nanoTime() - start) / 1000000;
+			assertEquals(1, fake.flushes);
+			assertTrue("flushed after " + millis + " ms", millis >= 50);
+			synchronized (fake) {
+				assertTrue(fake.buffered.isEmpty());
+			}
+		} finally {
+			mutator.close();
+		}
+	}
+
+	public void testFailedTimedFlushIsThrownByTheNextCall() throws Exception {
+		Configuration conf = conf();
+		conf.setLong(AdaptiveMutator.CONF_MIN_INTERVAL, 5);
+		conf.setLong(AdaptiveMutator.CONF_MAX_STALENESS, 20);
+		FakeMutator fake = new FakeMutator();
+		fake.failure = new IOException("server down");
+		AdaptiveMutator mutator = mutator(conf, fake, new BufferedMutatorParams(TABLE));
+		try {
+			mutator.mutate(put("a"));
+			for (int i = 0; i < 200 && fake.flushes == 0; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(1, fake.flushes);
+
+			try {
+				mutator.mutate(put("b"));
+				fail("the failure of the timed flush was not thrown");
+			} catch (RetriesExhaustedWithDetailsException e) {
+				assertEquals(1, e.getNumExceptions());
+			}
+			// Thrown once, the next call goes through.
+			fake.failure = null;
+			mutator.mutate(put("b"));
+			mutator.flush();
+			assertTrue(fake.buffered.isEmpty());
+		} finally {
+			mutator.close();
+		}
+	}
+}
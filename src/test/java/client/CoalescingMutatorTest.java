@@ -0,0 +1,115 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests that Increments are added up per row and column before being sent.
+ */
+public class CoalescingMutatorTest extends TestCase {
+
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+	private static final byte[] COUNT = Bytes.toBytes("count");
+	private static final byte[] OTHER = Bytes.toBytes("other");
+
+	// Records the mutations instead of sending them.
+	private static class Recorder implements BufferedMutator {
+		final List<Mutation> mutations = new ArrayList<Mutation>();
+
+		@Override
+		public TableName getName() {
+			return TableName.valueOf("counters");
+		}
+
+		@Override
+		public Configuration getConfiguration() {
+			return new Configuration(false);
+		}
+
+		@Override
+		public void mutate(Mutation mutation) {
+			mutations.add(mutation);
+		}
+
+		@Override
+		public void mutate(List<? extends Mutation> mutations) {
+			this.mutations.addAll(mutations);
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public long getWriteBufferSize() {
+			return 0;
+		}
+	}
+
+	private static Increment increment(String row, byte[] qualifier, long amount) {
+		return new Increment(Bytes.toBytes(row)).addColumn(FAMILY, qualifier, amount);
+	}
+
+	private static long amount(Mutation mutation, byte[] qualifier) {
+		for (Cell cell : mutation.getFamilyCellMap().get(FAMILY)) {
+			if (Bytes.equals(qualifier, 0, qualifier.length, cell.getQualifierArray(), cell.getQualifierOffset(),
+					cell.getQualifierLength())) {
+				return Bytes.toLong(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+			}
+		}
+		return 0;
+	}
+
+	public void testIncrementsOfARowAreAddedUp() throws IOException {
+		Recorder recorder = new Recorder();
+		CoalescingMutator mutator = new CoalescingMutator(recorder, 100);
+		mutator.mutate(increment("a", COUNT, 1));
+		mutator.mutate(increment("b", COUNT, 5));
+		mutator.mutate(increment("a", COUNT, 2));
+		mutator.mutate(increment("a", OTHER, 7));
+		assertTrue(recorder.mutations.isEmpty());
+
+		mutator.flush();
+		assertEquals(2, recorder.mutations.size());
+		assertEquals(2, mutator.getCoalesced());
+		Mutation a = recorder.mutations.get(0);
+		assertEquals("a", Bytes.toString(a.getRow()));
+		assertEquals(3, amount(a, COUNT));
+		assertEquals(7, amount(a, OTHER));
+		assertEquals(5, amount(recorder.mutations.get(1), COUNT));
+	}
+
+	public void testSendsWhenFullAndBeforeOtherMutations() throws IOException {
+		Recorder recorder = new Recorder();
+		CoalescingMutator mutator = new CoalescingMutator(recorder, 2);
+		mutator.mutate(increment("a", COUNT, 1));
+		mutator.mutate(increment("b", COUNT, 1));
+		assertEquals(2, recorder.mutations.size());
+
+		mutator.mutate(increment("c", COUNT, 1));
+		Put put = new Put(Bytes.toBytes("c")).addColumn(FAMILY, OTHER, Bytes.toBytes("x"));
+		mutator.mutate(put);
+		assertEquals(4, recorder.mutations.size());
+		assertTrue(recorder.mutations.get(2) instanceof Increment);
+		assertSame(put, recorder.mutations.get(3));
+
+		mutator.close();
+		assertEquals(4, recorder.mutations.size());
+	}
+}
@@ -0,0 +1,118 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+
+import admin.TableProvisioner;
+import admin.TableSpec;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Admin;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.MD5Hash;
+
+// Measures the Get throughput of a ConcurrentTableClient for an increasing
+// number of requests in flight, issued from a single thread. The table is
+// pre-split into "table.spec.regions" regions (default: 16) on hex keys, so
+// that the Gets spread over the region servers; beyond the per-server limit
+// times the number of servers, more requests in flight only wait in the
+// limiter. Needs a running cluster, run with:
+// java -cp <test-classpath> client.ConcurrentTableClientBenchmark [requests] [threads] [server-limit]
+public class ConcurrentTableClientBenchmark {
+
+	private static final TableName TABLE = TableName.valueOf("ConcurrentTableClientBenchmark");
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+	private static final byte[] QUALIFIER = Bytes.toBytes("json");
+	private static final int ROWS = 10000;
+
+	// Hex keys, spread evenly over the regions of a HEX split.
+	private static byte[] row(int i) {
+		return Bytes.toBytes(MD5Hash.getMD5AsHex(Bytes.toBytes(i)));
+	}
+
+	/**
+	 * Reads random rows keeping up to inFlight requests outstanding, and
+	 * reports the throughput.
+	 */
+	private static void measure(ConcurrentTableClient client, int requests, int inFlight) throws Exception {
+		final Semaphore outstanding = new Semaphore(inFlight);
+		final long[] failed = new long[1];
+		BiConsumer<Result, Throwable> done = new BiConsumer<Result, Throwable>() {
+			@Override
+			public void accept(Result result, Throwable error) {
+				if (error != null) {
+					synchronized (failed) {
+						failed[0]++;
+					}
+				}
+				outstanding.release();
+			}
+		};
+
+		Random random = new Random(42);
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			outstanding.acquire();
+			CompletableFuture<Result> future = client.get(new Get(row(random.nextInt(ROWS))).addColumn(FAMILY,
+					QUALIFIER));
+			future.whenComplete(done);
+		}
+		outstanding.acquire(inFlight);
+		long nanos = System.nanoTime() - start;
+
+		System.out.println(String.format("in flight %5d %10.0f gets/s %6d failed", inFlight, requests * 1e9 / nanos,
+				failed[0]));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int requests = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+		int serverLimit = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+		Configuration conf = HBaseConfiguration.create();
+		conf.setIfUnset(TableSpec.CONF_REGIONS, "16");
+		conf.setIfUnset(TableSpec.CONF_SPLIT, TableSpec.Split.HEX.name());
+		TableSpec spec = TableSpec.fromConfiguration(conf, "data");
+		try (Connection connection = ConnectionFactory.createConnection(conf)) {
+			try (Admin admin = connection.getAdmin()) {
+				new TableProvisioner(admin).recreate(TABLE, spec);
+			}
+			try (Table table = connection.getTable(TABLE)) {
+				List<Put> puts = new ArrayList<Put>();
+				for (int i = 0; i < ROWS; i++) {
+					puts.add(new Put(row(i)).addColumn(FAMILY, QUALIFIER,
+							Bytes.toBytes("{\"email\":\"user" + i + "@example.com\"}")));
+				}
+				table.put(puts);
+			}
+
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try (ConcurrentTableClient client = new ConcurrentTableClient(connection, TABLE, executor, serverLimit)) {
+				// warm up, so that the JIT has compiled the path and the
+				// regions are located.
+				measure(client, requests, 16);
+				System.out.println(String.format("regions %d, server limit %d, threads %d", spec.getRegions(),
+						serverLimit, threads));
+				for (int inFlight = 1; inFlight <= threads * 4; inFlight *= 4) {
+					measure(client, requests, inFlight);
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+}
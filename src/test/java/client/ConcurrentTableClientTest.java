@@ -0,0 +1,135 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the limit of calls per region server and the failing of waiting
+ * calls the executor rejects.
+ */
+public class ConcurrentTableClientTest extends TestCase {
+
+	private static final TableName TABLE = TableName.valueOf("users");
+
+	// Blocks every Get until released, and records how many ran against
+	// each server at a time.
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final Semaphore started = new Semaphore(0);
+	private final Map<ServerName, Integer> running = new HashMap<ServerName, Integer>();
+	private final Map<ServerName, Integer> maxRunning = new HashMap<ServerName, Integer>();
+	private int calls = 0;
+
+	private final FakeTable table = new FakeTable() {
+		@Override
+		public Result get(Get get) throws IOException {
+			ServerName server = FakeConnection.server(get.getRow());
+			synchronized (running) {
+				calls++;
+				Integer now = running.containsKey(server) ? running.get(server) + 1 : 1;
+				running.put(server, now);
+				if (!maxRunning.containsKey(server) || maxRunning.get(server) < now) {
+					maxRunning.put(server, now);
+				}
+			}
+			started.release();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			} finally {
+				synchronized (running) {
+					running.put(server, running.get(server) - 1);
+				}
+			}
+			return Result.create(new Cell[0]);
+		}
+	};
+
+	private ConcurrentTableClient client(ExecutorService executor, int serverLimit) throws IOException {
+		return new ConcurrentTableClient(FakeConnection.create(new Configuration(false), table), TABLE, executor,
+				serverLimit);
+	}
+
+	private static Get get(String row) {
+		return new Get(Bytes.toBytes(row));
+	}
+
+	public void testCallsPerServerAreLimited() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try (ConcurrentTableClient client = client(executor, 2)) {
+			List<CompletableFuture<Result>> futures = new ArrayList<CompletableFuture<Result>>();
+			for (int i = 0; i < 6; i++) {
+				futures.add(client.get(get("a" + i)));
+			}
+			futures.add(client.get(get("b0")));
+
+			// Two calls for a, one for b, although threads are free.
+			assertTrue(started.tryAcquire(3, 5, TimeUnit.SECONDS));
+			assertFalse(started.tryAcquire(100, TimeUnit.MILLISECONDS));
+			assertEquals(6, client.getPending(FakeConnection.server(Bytes.toBytes("a"))));
+			assertEquals(1, client.getPending(FakeConnection.server(Bytes.toBytes("b"))));
+
+			release.countDown();
+			for (CompletableFuture<Result> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+			// A future completes before its call is counted as finished.
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+			assertEquals(2, (int) maxRunning.get(FakeConnection.server(Bytes.toBytes("a"))));
+			assertEquals(0, client.getPending(FakeConnection.server(Bytes.toBytes("a"))));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public void testWaitingCallsFailWhenRejected() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (ConcurrentTableClient client = client(executor, 1)) {
+			CompletableFuture<Result> first = client.get(get("a0"));
+			CompletableFuture<Result> second = client.get(get("a1"));
+			CompletableFuture<Result> third = client.get(get("a2"));
+			assertTrue(started.tryAcquire(5, TimeUnit.SECONDS));
+
+			// The running call completes, the waiting ones are rejected.
+			executor.shutdown();
+			release.countDown();
+			first.get(5, TimeUnit.SECONDS);
+			List<CompletableFuture<Result>> waitingCalls = Arrays.asList(second, third);
+			for (CompletableFuture<Result> waiting : waitingCalls) {
+				try {
+					waiting.get(5, TimeUnit.SECONDS);
+					fail("a rejected call completed");
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof RejectedExecutionException);
+				}
+			}
+			// Not run on the completing thread instead.
+			assertEquals(1, calls);
+			assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+			assertEquals(0, client.getPending(FakeConnection.server(Bytes.toBytes("a"))));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import com.yammer.metrics.core.MetricsRegistry;
+
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests that only possible hits of existence checks reach the table.
+ */
+public class ExistenceFilterTest extends TestCase {
+
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+	private static final byte[] JSON = Bytes.toBytes("json");
+	private static final byte[] OTHER = Bytes.toBytes("other");
+
+	// The rows that exist in the table, and those checked on it.
+	private final Set<String> stored = new HashSet<String>();
+	private final List<String> checked = new ArrayList<String>();
+
+	private final Table table = new FakeTable() {
+		@Override
+		public boolean exists(Get get) {
+			return check(get);
+		}
+
+		@Override
+		public boolean[] existsAll(List<Get> gets) {
+			boolean[] exists = new boolean[gets.size()];
+			for (int i = 0; i < exists.length; i++) {
+				exists[i] = check(gets.get(i));
+			}
+			return exists;
+		}
+	};
+
+	private boolean check(Get get) {
+		checked.add(Bytes.toString(get.getRow()));
+		return stored.contains(Bytes.toString(get.getRow()));
+	}
+
+	private ExistenceCheckingTable checkingTable(boolean columns) {
+		return new ExistenceCheckingTable(table, new ExistenceFilter(64 * 1024, 0.01, columns,
+				new MetricsRegistry(), "test"));
+	}
+
+	private static Put put(String row, byte[] qualifier) {
+		return new Put(Bytes.toBytes(row)).addColumn(FAMILY, qualifier, Bytes.toBytes("x"));
+	}
+
+	public void testAbsentRowsAreAnsweredLocally() throws IOException {
+		ExistenceCheckingTable checking = checkingTable(false);
+		checking.put(put("a", JSON));
+		stored.add("a");
+
+		assertTrue(checking.exists(new Get(Bytes.toBytes("a"))));
+		assertFalse(checking.exists(new Get(Bytes.toBytes("b"))));
+		assertEquals(Arrays.asList("a"), checked);
+		assertEquals(1, checking.getFilter().getAbsent());
+		assertEquals(1, checking.getFilter().getChecked());
+	}
+
+	public void testExistsAllSendsOnlyPossibleHits() throws IOException {
+		ExistenceCheckingTable checking = checkingTable(false);
+		checking.put(Arrays.asList(put("a", JSON), put("c", JSON)));
+		stored.add("a");
+
+		boolean[] exists = checking.existsAll(Arrays.asList(new Get(Bytes.toBytes("a")), new Get(Bytes.toBytes("b")),
+				new Get(Bytes.toBytes("c"))));
+		assertTrue(exists[0]);
+		assertFalse(exists[1]);
+		assertFalse(exists[2]);
+		assertEquals(Arrays.asList("a", "c"), checked);
+
+		// "c" was written through the table but is not stored, as if deleted
+		// by another client: a false positive.
+		assertEquals(1, checking.getFilter().getFalsePositives());
+		assertEquals(0.5, checking.getFilter().getFalsePositiveRate(), 1e-9);
+	}
+
+	public void testColumnsAreTracked() throws IOException {
+		ExistenceCheckingTable checking = checkingTable(true);
+		checking.put(put("a", JSON));
+		stored.add("a");
+
+		assertFalse(checking.exists(new Get(Bytes.toBytes("a")).addColumn(FAMILY, OTHER)));
+		assertTrue(checking.exists(new Get(Bytes.toBytes("a")).addColumn(FAMILY, OTHER).addColumn(FAMILY, JSON)));
+		assertTrue(checking.exists(new Get(Bytes.toBytes("a")).addFamily(FAMILY)));
+		assertEquals(2, checked.size());
+	}
+
+	public void testCheckExistenceOnlyGets() throws IOException {
+		ExistenceCheckingTable checking = checkingTable(false);
+		Get get = new Get(Bytes.toBytes("a"));
+		get.setCheckExistenceOnly(true);
+		assertFalse(checking.get(get).getExists());
+
+		// Deletes do not remove the key.
+		checking.put(put("a", JSON));
+		checking.delete(new Delete(Bytes.toBytes("a")));
+		assertFalse(checking.get(get).getExists());
+		assertEquals(Arrays.asList("a"), checked);
+	}
+}
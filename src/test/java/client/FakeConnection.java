@@ -0,0 +1,107 @@
+package client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.BufferedMutator;
+import org.apache.hadoop.hbase.client.BufferedMutatorParams;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.client.Table;
+
+// A Connection without a cluster that hands out the same fake Table for
+// every getTable call, and the same BufferedMutator for every
+// getBufferedMutator call. Its region locators place each row on a server
+// named after the first character of the row key. Other calls fail.
+class FakeConnection {
+
+	// A fake BufferedMutator that reports its failures to the listener of the
+	// params it is handed out for, as BufferedMutatorImpl does.
+	interface ListeningMutator extends BufferedMutator {
+		void setListener(BufferedMutator.ExceptionListener listener);
+	}
+
+	/**
+	 * Creates a connection without a BufferedMutator.
+	 *
+	 * @param conf
+	 *            The configuration of the connection.
+	 * @param table
+	 *            The table to return from getTable.
+	 * @return The connection.
+	 */
+	static Connection create(Configuration conf, Table table) {
+		return create(conf, table, null);
+	}
+
+	/**
+	 * Creates a connection.
+	 *
+	 * @param conf
+	 *            The configuration of the connection.
+	 * @param table
+	 *            The table to return from getTable.
+	 * @param mutator
+	 *            The mutator to return from getBufferedMutator.
+	 * @return The connection.
+	 */
+	static Connection create(final Configuration conf, final Table table, final BufferedMutator mutator) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getTable")) {
+							return table;
+						}
+						if (method.getName().equals("getBufferedMutator") && mutator != null) {
+							if (mutator instanceof ListeningMutator && args[0] instanceof BufferedMutatorParams) {
+								BufferedMutatorParams params = (BufferedMutatorParams) args[0];
+								((ListeningMutator) mutator).setListener(params.getListener());
+							}
+							return mutator;
+						}
+						if (method.getName().equals("getRegionLocator")) {
+							return locator((TableName) args[0]);
+						}
+						if (method.getName().equals("getConfiguration")) {
+							return conf;
+						}
+						if (method.getName().equals("close")) {
+							return null;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	/**
+	 * @param row
+	 *            The row key.
+	 * @return The server the row is placed on.
+	 */
+	static ServerName server(byte[] row) {
+		return ServerName.valueOf("server-" + (char) row[0], 16020, 1);
+	}
+
+	private static RegionLocator locator(final TableName tableName) {
+		return (RegionLocator) Proxy.newProxyInstance(RegionLocator.class.getClassLoader(),
+				new Class<?>[] { RegionLocator.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getRegionLocation")) {
+							return new HRegionLocation(new HRegionInfo(tableName), server((byte[]) args[0]));
+						}
+						if (method.getName().equals("close")) {
+							return null;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
@@ -0,0 +1,26 @@
+package client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.apache.hadoop.hbase.client.Table;
+
+// A Table without a cluster for the tests of the client decorators. Calls
+// without a result, such as put, delete and close, are accepted and ignored;
+// the others fail unless a test overrides them.
+class FakeTable extends ForwardingTable {
+
+	FakeTable() {
+		super((Table) Proxy.newProxyInstance(Table.class.getClassLoader(), new Class<?>[] { Table.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getReturnType() == void.class) {
+							return null;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				}));
+	}
+}
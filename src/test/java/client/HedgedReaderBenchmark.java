@@ -0,0 +1,57 @@
+package client;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.yammer.metrics.core.MetricsRegistry;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// Compares the read latency percentiles of a HedgedReader on a table without
+// and with a secondary replica, when the primary pauses now and then as in
+// a GC pause or compaction. The replicas are simulated, see
+// SimulatedReplicas. Run with:
+// java -cp <test-classpath> client.HedgedReaderBenchmark [reads] [pause-percent]
+public class HedgedReaderBenchmark {
+
+	private static void measure(int replicas, int reads, final double pauses) throws Exception {
+		final Random random = new Random(42);
+		Connection connection = SimulatedReplicas.connect(new Configuration(false), replicas,
+				new SimulatedReplicas.Latency() {
+					@Override
+					public long millis(int replica) {
+						if (replica > 0) {
+							return 2;
+						}
+						synchronized (random) {
+							return random.nextDouble() < pauses ? 100 : 1;
+						}
+					}
+				});
+
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			HedgedReader reader = new HedgedReader(connection, TableName.valueOf("Users"), executor,
+					new MetricsRegistry());
+			for (int i = 0; i < reads; i++) {
+				reader.get(new Get(Bytes.toBytes("row" + i)));
+			}
+			System.out.println(String.format("replicas=%d %s", replicas, reader));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int reads = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		double pauses = (args.length > 1 ? Double.parseDouble(args[1]) : 1) / 100;
+
+		measure(1, reads, pauses);
+		measure(2, reads, pauses);
+	}
+}
@@ -0,0 +1,121 @@
+package client;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import com.yammer.metrics.core.MetricsRegistry;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests that a slow or failed primary is hedged with a secondary replica.
+ */
+public class HedgedReaderTest extends TestCase {
+
+	private static final TableName TABLE = TableName.valueOf("Users");
+
+	private ExecutorService executor;
+	private Configuration conf;
+
+	@Override
+	protected void setUp() {
+		executor = Executors.newCachedThreadPool();
+		conf = new Configuration(false);
+		conf.setLong(HedgedReader.CONF_INITIAL_DELAY, 20);
+	}
+
+	@Override
+	protected void tearDown() {
+		executor.shutdownNow();
+	}
+
+	private static int replica(Result result) {
+		return Bytes.toInt(result.getValue(SimulatedReplicas.FAMILY, SimulatedReplicas.QUALIFIER));
+	}
+
+	public void testFastPrimaryIsNotHedged() throws IOException {
+		Connection connection = SimulatedReplicas.connect(conf, 2, new SimulatedReplicas.Latency() {
+			@Override
+			public long millis(int replica) {
+				return 0;
+			}
+		});
+		HedgedReader reader = new HedgedReader(connection, TABLE, executor, new MetricsRegistry());
+		Result result = reader.get(new Get(Bytes.toBytes("row1")));
+		assertEquals(0, replica(result));
+		assertFalse(result.isStale());
+		assertEquals(0, reader.getHedged());
+	}
+
+	public void testSlowPrimaryIsHedged() throws IOException {
+		Connection connection = SimulatedReplicas.connect(conf, 3, new SimulatedReplicas.Latency() {
+			@Override
+			public long millis(int replica) {
+				return replica == 0 ? 2000 : replica * 10;
+			}
+		});
+		HedgedReader reader = new HedgedReader(connection, TABLE, executor, new MetricsRegistry());
+		long start = System.nanoTime();
+		Result result = reader.get(new Get(Bytes.toBytes("row1")));
+		long millis = (System.nanoTime() - start) / 1000000;
+
+		assertEquals(1, replica(result));
+		assertTrue(result.isStale());
+		assertTrue("took " + millis + " ms", millis < 1000);
+		assertEquals(1, reader.getHedged());
+		assertEquals(1, reader.getStale());
+	}
+
+	public void testFailedPrimaryIsHedged() throws IOException {
+		Connection connection = SimulatedReplicas.connect(conf, 2, new SimulatedReplicas.Latency() {
+			@Override
+			public long millis(int replica) throws IOException {
+				if (replica == 0) {
+					throw new IOException("server down");
+				}
+				return 0;
+			}
+		});
+		HedgedReader reader = new HedgedReader(connection, TABLE, executor, new MetricsRegistry());
+		Result result = reader.get(new Get(Bytes.toBytes("row1")));
+		assertEquals(1, replica(result));
+		assertTrue(result.isStale());
+		assertEquals(1, reader.getHedged());
+	}
+
+	public void testAllReplicasFailed() throws IOException {
+		Connection connection = SimulatedReplicas.connect(conf, 2, new SimulatedReplicas.Latency() {
+			@Override
+			public long millis(int replica) throws IOException {
+				throw new IOException("replica " + replica + " down");
+			}
+		});
+		HedgedReader reader = new HedgedReader(connection, TABLE, executor, new MetricsRegistry());
+		try {
+			reader.get(new Get(Bytes.toBytes("row1")));
+			fail("a read without any answer succeeded");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().endsWith("down"));
+		}
+	}
+
+	public void testWithoutReplicasThePrimaryIsAwaited() throws IOException {
+		Connection connection = SimulatedReplicas.connect(conf, 1, new SimulatedReplicas.Latency() {
+			@Override
+			public long millis(int replica) {
+				return 50;
+			}
+		});
+		HedgedReader reader = new HedgedReader(connection, TABLE, executor, new MetricsRegistry());
+		assertEquals(0, replica(reader.get(new Get(Bytes.toBytes("row1")))));
+		assertEquals(0, reader.getHedged());
+	}
+}
@@ -0,0 +1,86 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import admin.TableProvisioner;
+import admin.TableSpec;
+
+import com.yammer.metrics.core.Histogram;
+import com.yammer.metrics.core.MetricsRegistry;
+import com.yammer.metrics.stats.Snapshot;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HBaseConfiguration;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.ConnectionFactory;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// Compares the Get latency of hot rows with and without a ResultCache. The
+// rows are read with a skewed distribution, most reads going to a few rows
+// as for the page loads of popular users. Needs a running cluster, run with:
+// java -cp <test-classpath> client.ResultCacheBenchmark [reads] [rows]
+public class ResultCacheBenchmark {
+
+	private static final TableName TABLE = TableName.valueOf("ResultCacheBenchmark");
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+	private static final byte[] QUALIFIER = Bytes.toBytes("json");
+
+	/**
+	 * Reads the rows and reports the latency percentiles.
+	 */
+	private static void measure(String name, Table table, int[] keys) throws Exception {
+		// warm up, so that the JIT has compiled the path and the regions are
+		// located.
+		for (int key : keys) {
+			table.get(new Get(Bytes.toBytes("row" + key)).addColumn(FAMILY, QUALIFIER));
+		}
+
+		Histogram latencies = new MetricsRegistry().newHistogram(ResultCacheBenchmark.class, name, false);
+		for (int key : keys) {
+			Get get = new Get(Bytes.toBytes("row" + key)).addColumn(FAMILY, QUALIFIER);
+			long start = System.nanoTime();
+			table.get(get);
+			latencies.update((System.nanoTime() - start) / 1000);
+		}
+		Snapshot snapshot = latencies.getSnapshot();
+		System.out.println(String.format("%-8s p50=%8.1f us p99=%8.1f us max=%8.1f us", name, snapshot.getMedian(),
+				snapshot.get99thPercentile(), latencies.max()));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int reads = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int rows = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+		// Row i is read with a probability of about 1 / (i + 1).
+		Random random = new Random(42);
+		int[] keys = new int[reads];
+		for (int i = 0; i < reads; i++) {
+			keys[i] = (int) Math.min(rows - 1, Math.pow(rows, random.nextDouble()) - 1);
+		}
+
+		Configuration conf = HBaseConfiguration.create();
+		try (Connection connection = ConnectionFactory.createConnection(conf)) {
+			new TableProvisioner(connection.getAdmin()).recreate(TABLE, TableSpec.fromConfiguration(conf, "data"));
+			try (Table table = connection.getTable(TABLE)) {
+				List<Put> puts = new ArrayList<Put>();
+				for (int i = 0; i < rows; i++) {
+					puts.add(new Put(Bytes.toBytes("row" + i)).addColumn(FAMILY, QUALIFIER,
+							Bytes.toBytes("{\"email\":\"user" + i + "@example.com\"}")));
+				}
+				table.put(puts);
+
+				measure("table", table, keys);
+
+				ResultCache cache = ResultCache.create(conf, new MetricsRegistry(), TABLE.getNameAsString());
+				measure("cached", new CachingTable(table, cache), keys);
+				System.out.println(cache);
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.yammer.metrics.core.MetricsRegistry;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the caching of Gets and the invalidation by writes.
+ */
+public class ResultCacheTest extends TestCase {
+
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+	private static final byte[] JSON = Bytes.toBytes("json");
+	private static final byte[] OTHER = Bytes.toBytes("other");
+
+	// The rows read from the table; every read returns the number of reads
+	// so far, so that a cached Result can be told from a new one.
+	private final List<String> reads = new ArrayList<String>();
+
+	private final Table table = new FakeTable() {
+		@Override
+		public Result get(Get get) {
+			return read(get);
+		}
+
+		@Override
+		public Result[] get(List<Get> gets) {
+			Result[] results = new Result[gets.size()];
+			for (int i = 0; i < results.length; i++) {
+				results[i] = read(gets.get(i));
+			}
+			return results;
+		}
+	};
+
+	private Result read(Get get) {
+		reads.add(Bytes.toString(get.getRow()));
+		Cell cell = CellUtil.createCell(get.getRow(), FAMILY, JSON, 1, (byte) 4, Bytes.toBytes(reads.size()));
+		return Result.create(new Cell[] { cell });
+	}
+
+	private static int value(Result result) {
+		return Bytes.toInt(result.getValue(FAMILY, JSON));
+	}
+
+	private CachingTable cachingTable() {
+		return new CachingTable(table, new ResultCache(100, 60000, new MetricsRegistry(), "test"));
+	}
+
+	public void testRepeatedGetsAreCached() throws IOException {
+		CachingTable cached = cachingTable();
+		Get get = new Get(Bytes.toBytes("a")).addColumn(FAMILY, JSON);
+		assertEquals(1, value(cached.get(get)));
+		assertEquals(1, value(cached.get(new Get(Bytes.toBytes("a")).addColumn(FAMILY, JSON))));
+		assertEquals(1, reads.size());
+
+		// Another column set or number of versions is another entry.
+		assertEquals(2, value(cached.get(new Get(Bytes.toBytes("a")).addColumn(FAMILY, OTHER))));
+		assertEquals(3, value(cached.get(new Get(Bytes.toBytes("a")).addColumn(FAMILY, JSON).setMaxVersions(3))));
+		assertEquals(1, cached.getCache().getHits());
+		assertEquals(3, cached.getCache().getMisses());
+		assertEquals(0.25, cached.getCache().getHitRate(), 1e-9);
+	}
+
+	public void testWritesInvalidateTheRow() throws IOException {
+		CachingTable cached = cachingTable();
+		cached.get(new Get(Bytes.toBytes("a")).addColumn(FAMILY, JSON));
+		cached.get(new Get(Bytes.toBytes("a")).addColumn(FAMILY, OTHER));
+		cached.get(new Get(Bytes.toBytes("b")).addColumn(FAMILY, JSON));
+		cached.put(new Put(Bytes.toBytes("a")).addColumn(FAMILY, JSON, Bytes.toBytes("x")));
+
+		assertEquals(4, value(cached.get(new Get(Bytes.toBytes("a")).addColumn(FAMILY, JSON))));
+		assertEquals(3, value(cached.get(new Get(Bytes.toBytes("b")).addColumn(FAMILY, JSON))));
+		assertEquals(1, cached.getCache().getInvalidations());
+	}
+
+	public void testBatchGetReadsOnlyMisses() throws IOException {
+		CachingTable cached = cachingTable();
+		cached.get(new Get(Bytes.toBytes("b")));
+		Result[] results = cached.get(Arrays.asList(new Get(Bytes.toBytes("a")), new Get(Bytes.toBytes("b")),
+				new Get(Bytes.toBytes("c"))));
+		assertEquals(Arrays.asList("b", "a", "c"), reads);
+		assertEquals(2, value(results[0]));
+		assertEquals(1, value(results[1]));
+		assertEquals(3, value(results[2]));
+	}
+
+	public void testFilteredGetsAreNotCached() throws IOException {
+		CachingTable cached = cachingTable();
+		Get get = new Get(Bytes.toBytes("a")).setFilter(new KeyOnlyFilter());
+		cached.get(get);
+		cached.get(get);
+		assertEquals(2, reads.size());
+		assertEquals(2, cached.getCache().getBypassed());
+		assertEquals(0, cached.getCache().size());
+	}
+}
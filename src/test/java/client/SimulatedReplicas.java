@@ -0,0 +1,69 @@
+package client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Table;
+import org.apache.hadoop.hbase.util.Bytes;
+
+// A Connection to a table with region replicas that answers Gets without a
+// cluster, after a latency chosen per replica. Secondary replicas answer with
+// stale Results, a replica whose latency throws fails the Get. Stands in for
+// a mini-cluster, which the build does not have.
+class SimulatedReplicas {
+
+	static final byte[] FAMILY = Bytes.toBytes("data");
+	static final byte[] QUALIFIER = Bytes.toBytes("json");
+
+	interface Latency {
+		/**
+		 * @return The time the replica takes to answer, in milliseconds.
+		 * @throws IOException
+		 *             To have the replica fail the Get instead.
+		 */
+		long millis(int replica) throws IOException;
+	}
+
+	/**
+	 * Creates a connection to a simulated table.
+	 *
+	 * @param conf
+	 *            The configuration of the connection.
+	 * @param replicas
+	 *            The region replication of the table.
+	 * @param latency
+	 *            The latency of the replicas.
+	 * @return The connection.
+	 */
+	static Connection connect(final Configuration conf, int replicas, final Latency latency) {
+		final HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf("Users"));
+		descriptor.setRegionReplication(replicas);
+		Table table = new FakeTable() {
+			@Override
+			public HTableDescriptor getTableDescriptor() {
+				return descriptor;
+			}
+
+			@Override
+			public Result get(Get get) throws IOException {
+				try {
+					Thread.sleep(latency.millis(get.getReplicaId()));
+				} catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+				Cell cell = CellUtil.createCell(get.getRow(), FAMILY, QUALIFIER, 1, (byte) 4,
+						Bytes.toBytes(get.getReplicaId()));
+				return Result.create(new Cell[] { cell }, null, get.getReplicaId() > 0);
+			}
+		};
+		return FakeConnection.create(conf, table);
+	}
+}
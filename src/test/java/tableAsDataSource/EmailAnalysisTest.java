@@ -0,0 +1,39 @@
+package tableAsDataSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the authors found in rows of JSON records and of shredded records.
+ */
+public class EmailAnalysisTest extends TestCase {
+
+	private static Cell cell(String qualifier, String value) {
+		return CellUtil.createCell(Bytes.toBytes("row"), Bytes.toBytes("data"), Bytes.toBytes(qualifier), 1,
+				(byte) 4, Bytes.toBytes(value));
+	}
+
+	public void testShreddedRowCountsOnlyTheEmail() {
+		Analysis analysis = new EmailAnalysis();
+		// The columns of a row sort by qualifier, age before email.
+		List<Cell> row = Arrays.asList(cell("address", "Main St"), cell("age", "3"), cell("email", "a@b.c"),
+				cell("fname", "Yoav"));
+		List<Cell> cells = analysis.cells(row);
+		assertEquals(1, cells.size());
+		assertEquals("a@b.c", analysis.map(cells.get(0)));
+	}
+
+	public void testJsonRowCountsEveryCell() {
+		Analysis analysis = new EmailAnalysis();
+		List<Cell> row = Arrays.asList(cell("json", "{\"email\":\"a@b.c\"}"), cell("old", "{\"email\":\"d@e.f\"}"));
+		List<Cell> cells = analysis.cells(row);
+		assertEquals(2, cells.size());
+		assertEquals("d@e.f", analysis.map(cells.get(1)));
+	}
+}
@@ -0,0 +1,84 @@
+package tableAsDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Tests the error bounds, merging and serialization of the sketches.
+ */
+public class EmailSketchTest extends TestCase {
+
+	public void testDistinctWithinError() {
+		for (int distinct : new int[] { 10, 1000, 100000 }) {
+			HyperLogLog hll = new HyperLogLog(HyperLogLog.precisionFor(0.01));
+			Random random = new Random(distinct);
+			long[] hashes = new long[distinct];
+			for (int i = 0; i < distinct; i++) {
+				hashes[i] = random.nextLong();
+			}
+			// Each item three times.
+			for (int i = 0; i < distinct * 3; i++) {
+				hll.add(hashes[i % distinct]);
+			}
+			long estimate = hll.cardinality();
+			assertTrue(distinct + ": " + estimate, Math.abs(estimate - distinct) <= distinct * 0.04);
+		}
+	}
+
+	public void testCountMinNeverUndercounts() {
+		CountMinSketch cms = new CountMinSketch(0.001, 0.01);
+		Random random = new Random(42);
+		Map<Long, Long> actual = new HashMap<Long, Long>();
+		for (int i = 0; i < 100000; i++) {
+			long item = (long) Math.abs(random.nextGaussian() * 1000);
+			long hash1 = item * 0x9E3779B97F4A7C15L;
+			cms.add(hash1, Long.rotateLeft(hash1, 32) ^ 0x5DEECE66DL, 1);
+			Long count = actual.get(item);
+			actual.put(item, count == null ? 1 : count + 1);
+		}
+		for (Map.Entry<Long, Long> entry : actual.entrySet()) {
+			long hash1 = entry.getKey() * 0x9E3779B97F4A7C15L;
+			long estimate = cms.estimate(hash1, Long.rotateLeft(hash1, 32) ^ 0x5DEECE66DL);
+			assertTrue(estimate >= entry.getValue());
+			assertTrue(estimate <= entry.getValue() + 0.001 * 100000 * 2);
+		}
+	}
+
+	public void testMergedSketchFindsTopAuthors() throws Exception {
+		Configuration conf = new Configuration(false);
+		conf.setInt(EmailSketch.CONF_TOP, 10);
+		EmailSketch first = EmailSketch.create(conf);
+		EmailSketch second = EmailSketch.create(conf);
+
+		// user0 is the most frequent author, spread over both sketches,
+		// with a long tail of authors that occur once.
+		for (int i = 0; i < 20; i++) {
+			for (int n = 0; n < 200 - i * 10; n++) {
+				(n % 2 == 0 ? first : second).add("user" + i + "@example.com");
+			}
+		}
+		for (int i = 0; i < 5000; i++) {
+			(i % 2 == 0 ? first : second).add("tail" + i + "@example.com");
+		}
+
+		// The reducer merges deserialized sketches.
+		EmailSketch merged = WritableUtils.clone(first, conf);
+		merged.merge(WritableUtils.clone(second, conf));
+
+		List<Map.Entry<String, Long>> top = merged.getTop();
+		assertEquals(10, top.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals("user" + i + "@example.com", top.get(i).getKey());
+			assertTrue(top.get(i).getValue() >= 200 - i * 10);
+		}
+		assertEquals(first.getTotal() + second.getTotal(), merged.getTotal());
+		assertTrue(Math.abs(merged.getDistinct() - 5020) <= 5020 * 0.04);
+	}
+}
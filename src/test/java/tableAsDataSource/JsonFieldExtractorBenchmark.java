@@ -0,0 +1,76 @@
+package tableAsDataSource;
+
+import java.lang.management.ManagementFactory;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+// Compares extracting the author with JsonFieldExtractor to parsing the
+// record with json-simple, as AnalyzeMapper did before. Run with:
+// java -cp <test-classpath> tableAsDataSource.JsonFieldExtractorBenchmark [records]
+public class JsonFieldExtractorBenchmark {
+
+	interface Extraction {
+		String extract(byte[] value) throws Exception;
+	}
+
+	/**
+	 * Runs the extraction over the records and reports the allocation and
+	 * time per record of the calling thread.
+	 */
+	private static void measure(String name, Extraction extraction, byte[][] values, int records)
+			throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long id = Thread.currentThread().getId();
+
+		// warm up, so that the JIT has compiled the path.
+		for (int i = 0; i < records; i++) {
+			extraction.extract(values[i % values.length]);
+		}
+
+		long allocated = threads.getThreadAllocatedBytes(id);
+		long start = System.nanoTime();
+		for (int i = 0; i < records; i++) {
+			extraction.extract(values[i % values.length]);
+		}
+		long nanos = System.nanoTime() - start;
+		allocated = threads.getThreadAllocatedBytes(id) - allocated;
+
+		System.out.println(String.format("%-12s %8.1f bytes/record %8.1f ns/record", name,
+				(double) allocated / records, (double) nanos / records));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int records = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+		// Records like the imported ones, with a few more fields after the
+		// author as real user records have.
+		byte[][] values = new byte[64][];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = Bytes.toBytes("{\"fname\":\"First" + i + "\",\"lname\":\"Last" + i + "\",\"email\":\"user" + i
+					+ "@example.com\",\"created\":1431234567" + i + ",\"verified\":" + (i % 2 == 0)
+					+ ",\"address\":{\"street\":\"" + i + " Main St\",\"city\":\"Springfield\",\"zip\":\"0" + i
+					+ "\"},\"tags\":[\"a\",\"b\",\"c\"],\"bio\":\"Says \\\"hello\\\" a lot.\"}");
+		}
+
+		final JSONParser parser = new JSONParser();
+		measure("json-simple", new Extraction() {
+			@Override
+			public String extract(byte[] value) throws Exception {
+				String json = Bytes.toString(value, 0, value.length);
+				return (String) ((JSONObject) parser.parse(json)).get("email");
+			}
+		}, values, records);
+
+		final JsonFieldExtractor extractor = new JsonFieldExtractor("email");
+		measure("extractor", new Extraction() {
+			@Override
+			public String extract(byte[] value) {
+				extractor.extract(value, 0, value.length);
+				return extractor.getString(0);
+			}
+		}, values, records);
+	}
+}
@@ -0,0 +1,63 @@
+package tableAsDataSource;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.hbase.util.Bytes;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+/**
+ * Tests that the extracted fields are the ones json-simple parses.
+ */
+public class JsonFieldExtractorTest extends TestCase {
+
+	private static final String[] RECORDS = {
+			"{\"fname\":\"Yoav\",\"lname\":\"Shafir\",\"email\":\"email@gmail.com\"}",
+			" { \"email\" : \"spaced@example.com\" , \"n\" : 1 } ",
+			"{\"name\":\"Quote \\\" and \\\\ slash\",\"email\":\"esc\\\"aped\\u0040example.com\"}",
+			"{\"email\":\"tab\\there\\nline\\/slash\"}",
+			"{\"email\":\"\u00fcml\u00e4ut@example.com\",\"x\":\"\\u00e9\"}",
+			"{\"nested\":{\"email\":\"inner@example.com\",\"a\":[1,{\"email\":\"deep\"}]},\"email\":\"outer@example.com\"}",
+			"{\"list\":[\"}\",\"{\",\"]\"],\"brace\":\"{\\\"email\\\":\\\"fake\\\"}\",\"email\":\"real@example.com\"}",
+			"{\"em\\u0061il\":\"escaped-key@example.com\"}",
+			"{\"count\":42,\"ok\":true,\"none\":null,\"email\":\"after-literals@example.com\"}",
+			"{\"fname\":\"No email\"}",
+			"{\"email\":null}",
+			"{}" };
+
+	public void testMatchesJsonSimple() throws Exception {
+		JSONParser parser = new JSONParser();
+		JsonFieldExtractor extractor = new JsonFieldExtractor("email");
+		for (String record : RECORDS) {
+			// Embed the record in a larger buffer, like a cell value.
+			byte[] bytes = Bytes.toBytes("prefix" + record + "suffix");
+			int offset = Bytes.toBytes("prefix").length;
+			int length = Bytes.toBytes(record).length;
+
+			Object expected = ((JSONObject) parser.parse(record)).get("email");
+			assertTrue(record, extractor.extract(bytes, offset, length));
+			assertEquals(record, expected, extractor.getString(0));
+		}
+	}
+
+	public void testNonStringValues() {
+		JsonFieldExtractor extractor = new JsonFieldExtractor("count", "nested", "missing");
+		byte[] record = Bytes.toBytes("{\"count\": 42 ,\"nested\":{\"a\":[1,2]}}");
+		assertTrue(extractor.extract(record, 0, record.length));
+
+		assertFalse(extractor.isString(0));
+		assertNull(extractor.getString(0));
+		assertEquals("42", Bytes.toString(record, extractor.getOffset(0), extractor.getLength(0)));
+		assertEquals("{\"a\":[1,2]}", Bytes.toString(record, extractor.getOffset(1), extractor.getLength(1)));
+		assertFalse(extractor.isFound(2));
+	}
+
+	public void testInvalidRecords() {
+		JsonFieldExtractor extractor = new JsonFieldExtractor("email");
+		for (String record : new String[] { "", "[\"email\"]", "{\"email\" \"x\"}", "{\"email\":\"open",
+				"{\"a\":1 \"email\":\"x\"}" }) {
+			byte[] bytes = Bytes.toBytes(record);
+			assertFalse(record, extractor.extract(bytes, 0, bytes.length));
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package tableAsDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+/**
+ * Tests the sampling of the job's input and the placement of the partition
+ * boundaries between sampled authors.
+ */
+public class PartitionSamplerTest extends TestCase {
+
+	// Two regions of five rows each, with the authors a0..a4 and b0..b4.
+	public static class FakeInputFormat extends InputFormat<ImmutableBytesWritable, Result> {
+
+		static class Region extends InputSplit {
+			final String prefix;
+
+			Region(String prefix) {
+				this.prefix = prefix;
+			}
+
+			@Override
+			public long getLength() {
+				return 5;
+			}
+
+			@Override
+			public String[] getLocations() {
+				return new String[0];
+			}
+		}
+
+		@Override
+		public List<InputSplit> getSplits(JobContext context) {
+			return Arrays.<InputSplit> asList(new Region("a"), new Region("b"));
+		}
+
+		@Override
+		public RecordReader<ImmutableBytesWritable, Result> createRecordReader(final InputSplit split,
+				TaskAttemptContext context) {
+			return new RecordReader<ImmutableBytesWritable, Result>() {
+				int row = -1;
+
+				@Override
+				public void initialize(InputSplit split, TaskAttemptContext context) {
+				}
+
+				@Override
+				public boolean nextKeyValue() {
+					return ++row < 5;
+				}
+
+				@Override
+				public ImmutableBytesWritable getCurrentKey() {
+					return new ImmutableBytesWritable(Bytes.toBytes(row));
+				}
+
+				@Override
+				public Result getCurrentValue() {
+					Cell cell = CellUtil.createCell(Bytes.toBytes(row), Bytes.toBytes("data"), Bytes.toBytes("email"),
+							1, (byte) 4, Bytes.toBytes(((Region) split).prefix + row));
+					return Result.create(new Cell[] { cell });
+				}
+
+				@Override
+				public float getProgress() {
+					return row / 5f;
+				}
+
+				@Override
+				public void close() {
+				}
+			};
+		}
+	}
+
+	private static TreeSet<byte[]> sample(String... authors) {
+		TreeSet<byte[]> sample = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+		for (String author : authors) {
+			sample.add(Bytes.toBytes(author));
+		}
+		return sample;
+	}
+
+	private static List<String> strings(List<byte[]> keys) {
+		String[] strings = new String[keys.size()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = Bytes.toString(keys.get(i));
+		}
+		return Arrays.asList(strings);
+	}
+
+	public void testFirstRowsOfEveryRegionAreSampled() throws Exception {
+		Job job = Job.getInstance(new Configuration(false));
+		job.setInputFormatClass(FakeInputFormat.class);
+		TreeSet<byte[]> sample = PartitionSampler.sample(job, 2);
+		assertEquals(Arrays.asList("a0", "a1", "b0", "b1"), strings(new ArrayList<byte[]>(sample)));
+	}
+
+	public void testBoundariesAreSortedAndEvenlySpaced() {
+		TreeSet<byte[]> sample = sample("h", "b", "f", "d", "a", "c", "g", "e");
+		assertEquals(Arrays.asList("c", "e", "g"), strings(PartitionSampler.boundaries(sample, 4)));
+	}
+
+	public void testRepeatedAuthorsCountOnce() {
+		TreeSet<byte[]> sample = sample("a", "b", "b", "b", "b", "c", "d");
+		assertEquals(4, sample.size());
+		assertEquals(Arrays.asList("b", "c", "d"), strings(PartitionSampler.boundaries(sample, 4)));
+	}
+
+	public void testSmallSampleGivesOnePartitionPerAuthor() {
+		assertEquals(Arrays.asList("b", "c"), strings(PartitionSampler.boundaries(sample("a", "b", "c"), 10)));
+		assertEquals(0, PartitionSampler.boundaries(sample("a"), 10).size());
+		assertEquals(0, PartitionSampler.boundaries(sample(), 10).size());
+	}
+}
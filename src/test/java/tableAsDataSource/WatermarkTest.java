@@ -0,0 +1,53 @@
+package tableAsDataSource;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Tests the writing and replacing of a watermark.
+ */
+public class WatermarkTest extends TestCase {
+
+	private File dir;
+	private FileSystem fs;
+	private Path file;
+
+	@Override
+	protected void setUp() throws IOException {
+		dir = File.createTempFile("watermark", "");
+		dir.delete();
+		dir.mkdir();
+		// Not the cached instance, which may come from a configuration without
+		// the defaults that FileContext needs.
+		fs = FileSystem.newInstanceLocal(new Configuration());
+		file = new Path(dir.getAbsolutePath(), "watermark");
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		fs.delete(new Path(dir.getAbsolutePath()), true);
+		fs.close();
+	}
+
+	public void testMissingFileStartsAtZero() throws IOException {
+		Watermark watermark = Watermark.read(fs, file);
+		assertEquals(0, watermark.getTimestamp());
+		assertNull(watermark.getOutput());
+	}
+
+	public void testWriteReplacesThePreviousWatermark() throws IOException {
+		new Watermark(100, new Path("/counts/100")).write(fs, file);
+		new Watermark(200, null).write(fs, file);
+
+		Watermark watermark = Watermark.read(fs, file);
+		assertEquals(200, watermark.getTimestamp());
+		assertNull(watermark.getOutput());
+		assertFalse(fs.exists(file.suffix(".tmp")));
+	}
+}
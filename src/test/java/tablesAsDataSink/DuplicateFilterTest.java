@@ -0,0 +1,63 @@
+package tablesAsDataSink;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the shipping of a seeded filter to the tasks and its resets.
+ */
+public class DuplicateFilterTest extends TestCase {
+
+	private File file;
+
+	@Override
+	protected void setUp() throws IOException {
+		file = File.createTempFile("dedupe", ".bloom");
+	}
+
+	@Override
+	protected void tearDown() {
+		file.delete();
+	}
+
+	private Configuration conf(int bytes) {
+		Configuration conf = new Configuration(false);
+		conf.setInt(DuplicateFilter.CONF_BYTES, bytes);
+		return conf;
+	}
+
+	public void testDisabledWithoutSize() throws IOException {
+		assertNull(DuplicateFilter.create(conf(0)));
+	}
+
+	public void testRepeatedKeysAreDropped() throws IOException {
+		DuplicateFilter filter = DuplicateFilter.create(conf(1024));
+		assertTrue(filter.add(Bytes.toBytes("a")));
+		assertTrue(filter.add(Bytes.toBytes("b")));
+		assertFalse(filter.add(Bytes.toBytes("a")));
+	}
+
+	public void testWrittenFilterIsTheSeedOfTheTasks() throws IOException {
+		Configuration conf = conf(64);
+		DuplicateFilter driver = DuplicateFilter.create(conf);
+		driver.add(Bytes.toBytes("existing"));
+		driver.write(FileSystem.getLocal(conf), new Path(file.getAbsolutePath()));
+
+		conf.set(DuplicateFilter.CONF_SEED_FILE, file.getAbsolutePath());
+		DuplicateFilter task = DuplicateFilter.create(conf);
+		assertFalse(task.add(Bytes.toBytes("existing")));
+
+		// Filling the filter resets it to the seed, not to an empty filter.
+		for (int i = 0; task.getResets() == 0; i++) {
+			task.add(Bytes.toBytes("line" + i));
+		}
+		assertFalse(task.add(Bytes.toBytes("existing")));
+	}
+}
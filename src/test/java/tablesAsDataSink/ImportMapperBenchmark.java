@@ -0,0 +1,89 @@
+package tablesAsDataSink;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.Text;
+
+// Measures the bytes allocated per record by the ImportMapper hot path,
+// compared to the previous String based conversion. Run with:
+// java -cp <test-classpath> tablesAsDataSink.ImportMapperBenchmark [records]
+public class ImportMapperBenchmark {
+
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+	private static final byte[] QUALIFIER = Bytes.toBytes("json");
+
+	interface Conversion {
+		Object convert(Text line) throws IOException;
+	}
+
+	/**
+	 * Runs the conversion over the lines and reports the allocation and time
+	 * per record of the calling thread.
+	 */
+	private static void measure(String name, Conversion conversion, Text[] lines, int records) throws IOException {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long id = Thread.currentThread().getId();
+
+		// warm up, so that the JIT has compiled the path.
+		for (int i = 0; i < records; i++) {
+			conversion.convert(lines[i % lines.length]);
+		}
+
+		long allocated = threads.getThreadAllocatedBytes(id);
+		long start = System.nanoTime();
+		for (int i = 0; i < records; i++) {
+			conversion.convert(lines[i % lines.length]);
+		}
+		long nanos = System.nanoTime() - start;
+		allocated = threads.getThreadAllocatedBytes(id) - allocated;
+
+		System.out.println(String.format("%-8s %8.1f bytes/record %8.1f ns/record", name,
+				(double) allocated / records, (double) nanos / records));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int records = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+		Text[] lines = new Text[64];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = new Text("{\"fname\":\"First" + i + "\",\"lname\":\"Last" + i + "\",\"email\":\"user" + i
+					+ "@example.com\"}");
+		}
+
+		Configuration conf = new Configuration(false);
+		conf.set("conf.column", "data:json");
+		final RowKeyGenerator keys = RowKeyGenerator.create(conf);
+		final ImportFromFile.ImportMapper mapper = new ImportFromFile.ImportMapper();
+		mapper.configure(conf);
+
+		// The conversion as done before: decode to String, encode again,
+		// and a new key writable per record.
+		measure("before", new Conversion() {
+			@Override
+			public Object convert(Text line) throws IOException {
+				String lineString = line.toString();
+				byte[] value = Bytes.toBytes(lineString);
+				byte[] rowkey = keys.getRowKey(value, 0, value.length);
+				Put put = new Put(rowkey);
+				put.addColumn(FAMILY, QUALIFIER, Bytes.toBytes(lineString));
+				return new ImmutableBytesWritable(rowkey);
+			}
+		}, lines, records);
+
+		final ImmutableBytesWritable rowKey = new ImmutableBytesWritable();
+		measure("after", new Conversion() {
+			@Override
+			public Object convert(Text line) throws IOException {
+				Put put = mapper.createPut(line);
+				rowKey.set(put.getRow());
+				return rowKey;
+			}
+		}, lines, records);
+	}
+}
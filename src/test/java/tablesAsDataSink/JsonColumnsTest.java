@@ -0,0 +1,42 @@
+package tablesAsDataSink;
+
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Tests the shredding of JSON records into columns.
+ */
+public class JsonColumnsTest extends TestCase {
+
+	private static final byte[] FAMILY = Bytes.toBytes("data");
+
+	private static Put shred(String record) throws IOException {
+		Put put = new Put(Bytes.toBytes("row"));
+		byte[] line = Bytes.toBytes(record);
+		new JsonColumns().addColumns(put, FAMILY, line, 0, line.length);
+		return put;
+	}
+
+	public void testFieldsBecomeColumns() throws IOException {
+		Put put = shred("{\"email\":\"a@b.c\",\"age\":3,\"tags\":[\"x\"],\"nick\":null}");
+		assertEquals(3, put.size());
+		assertEquals("a@b.c", Bytes.toString(CellUtil.cloneValue(put.get(FAMILY, Bytes.toBytes("email")).get(0))));
+		assertEquals("[\"x\"]", Bytes.toString(CellUtil.cloneValue(put.get(FAMILY, Bytes.toBytes("tags")).get(0))));
+	}
+
+	public void testRecordsWithoutValuesAreInvalid() {
+		for (String record : new String[] { "{}", "{\"email\":null}", "[1]", "not json" }) {
+			try {
+				shred(record);
+				fail("accepted " + record);
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+}